@@ -0,0 +1,39 @@
+package com.example.tictactoe.benchmark;
+
+import com.example.tictactoe.domain.Move;
+import com.example.tictactoe.domain.Symbol;
+import com.example.tictactoe.domain.impl.StandardGameEvaluator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link StandardGameEvaluator#evaluate} on boards of growing size; the service calls it once
+ * per move with every move played so far.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+
+    @Param({"1", "5", "9"})
+    int moves;
+
+    private final StandardGameEvaluator evaluator = new StandardGameEvaluator();
+    private List<Move> board;
+
+    @Setup
+    public void setUp() {
+        board = Games.inProgress(moves, false).getMoves();
+    }
+
+    @Benchmark
+    public Optional<Symbol> evaluate() {
+        return evaluator.evaluate(board);
+    }
+}
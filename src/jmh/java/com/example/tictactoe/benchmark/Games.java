@@ -0,0 +1,70 @@
+package com.example.tictactoe.benchmark;
+
+import com.example.tictactoe.domain.*;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+
+/**
+ * Detached game fixtures shared by the benchmarks.
+ */
+final class Games {
+
+    /**
+     * A full game that only ends on the ninth move, as a draw, so every prefix is still running.
+     */
+    static final int[][] DRAW = {
+            {0, 0}, {0, 1}, {0, 2}, {1, 1}, {1, 0}, {2, 0}, {1, 2}, {2, 2}, {2, 1}
+    };
+
+    private Games() {
+    }
+
+    /**
+     * A game with both players joined and the first {@code moves} moves of {@link #DRAW} played.
+     */
+    static Game inProgress(int moves, boolean timed) {
+        OffsetDateTime now = OffsetDateTime.now();
+        Game game = new Game();
+        game.setGameId(UUID.randomUUID());
+        game.setStatus(GameStatus.IN_PROGRESS);
+        game.setCreatedAt(now.minusMinutes(1));
+        game.setVersion((long) moves + 2);
+        game.setPlayers(new ArrayList<>());
+        game.setMoves(new ArrayList<>());
+        if (timed) {
+            game.setMoveTimeLimitMs(30_000L);
+            game.setTotalTimeMs(300_000L);
+            game.setXTimeLeftMs(280_000L);
+            game.setOTimeLeftMs(290_000L);
+            game.setTurnStartedAt(now);
+        }
+        Player x = player(game, "Alice", Symbol.X, now);
+        Player o = player(game, "Bob", Symbol.O, now);
+        for (int i = 0; i < moves; i++) {
+            game.getMoves().add(Move.builder()
+                    .moveId(UUID.randomUUID())
+                    .game(game)
+                    .player(i % 2 == 0 ? x : o)
+                    .row(DRAW[i][0])
+                    .col(DRAW[i][1])
+                    .movedAt(now.minusSeconds(moves - i))
+                    .build());
+        }
+        game.setNextTurn(moves % 2 == 0 ? Symbol.X : Symbol.O);
+        return game;
+    }
+
+    private static Player player(Game game, String name, Symbol symbol, OffsetDateTime now) {
+        Player player = Player.builder()
+                .playerId(UUID.randomUUID())
+                .name(name)
+                .symbol(symbol)
+                .joinedAt(now.minusMinutes(1))
+                .game(game)
+                .build();
+        game.getPlayers().add(player);
+        return player;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.tictactoe.benchmark;
+
+import com.example.tictactoe.dto.GameDto;
+import com.example.tictactoe.dto.MoveRequest;
+import com.example.tictactoe.event.GameEventPublisher;
+import com.example.tictactoe.mapper.GameMapperImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JSON work of one move on the socket: decoding the command the way
+ * {@code GameWebSocketHandler} does and encoding the {@code update} frame that is fanned out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    // configured like Boot's auto-configured ObjectMapper
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final GameEventPublisher publisher = new GameEventPublisher(null, mapper);
+    private GameDto game;
+    private String command;
+
+    @Setup
+    public void setUp() {
+        game = new GameMapperImpl().toDto(Games.inProgress(8, true));
+        command = "{\"action\":\"move\",\"requestId\":\"" + UUID.randomUUID() + "\",\"gameId\":\"" + game.gameId()
+                + "\",\"move\":{\"playerId\":\"" + game.players().get(0).playerId() + "\",\"row\":2,\"col\":1}}";
+    }
+
+    @Benchmark
+    public MoveRequest decodeMove() throws JsonProcessingException {
+        JsonNode node = mapper.readTree(command);
+        node.path("action").asText("");
+        UUID.fromString(node.path("gameId").asText());
+        return mapper.treeToValue(node.path("move"), MoveRequest.class);
+    }
+
+    @Benchmark
+    public String encodeUpdate() {
+        return publisher.frame("update", game.gameId(), 42, "game", game);
+    }
+}
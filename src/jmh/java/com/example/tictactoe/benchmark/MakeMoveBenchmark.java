@@ -0,0 +1,119 @@
+package com.example.tictactoe.benchmark;
+
+import com.example.tictactoe.cache.CacheProperties;
+import com.example.tictactoe.cache.VersionedGameCache;
+import com.example.tictactoe.datasource.ReadYourWrites;
+import com.example.tictactoe.datasource.ReplicaProperties;
+import com.example.tictactoe.domain.Game;
+import com.example.tictactoe.domain.Player;
+import com.example.tictactoe.domain.impl.StandardGameEvaluator;
+import com.example.tictactoe.dto.GameDto;
+import com.example.tictactoe.dto.MoveRequest;
+import com.example.tictactoe.id.UuidV7Generator;
+import com.example.tictactoe.mapper.GameMapperImpl;
+import com.example.tictactoe.repository.GameRepository;
+import com.example.tictactoe.repository.MoveRepository;
+import com.example.tictactoe.repository.PlayerRepository;
+import com.example.tictactoe.service.GameService;
+import com.example.tictactoe.service.MoveTimings;
+import com.example.tictactoe.timer.ClockProperties;
+import com.example.tictactoe.timer.GameClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * {@link GameService#makeMove} without Spring or a database: the repositories are in-memory
+ * stubs, so this measures validation, evaluation and mapping of one move. The game is rebuilt
+ * before every call, outside the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MakeMoveBenchmark {
+
+    @Param({"0", "4", "8"})
+    int movesBefore;
+
+    private GameClock clock;
+    private GameService service;
+    private Game game;
+    private MoveRequest request;
+
+    @Setup(Level.Trial)
+    public void setUpService() {
+        clock = new GameClock(new ClockProperties(Duration.ofMillis(10), 6, 4, 1), new SimpleMeterRegistry());
+        var cacheProps = new CacheProperties(Duration.ofHours(1), 10_000, Duration.ofSeconds(2), 16, 100, CacheProperties.Store.HEAP);
+        service = new GameService(
+                repository(GameRepository.class, id -> game),
+                repository(PlayerRepository.class, id -> player(id)),
+                repository(MoveRepository.class, id -> null),
+                new GameMapperImpl(),
+                new StandardGameEvaluator(),
+                clock,
+                new ReadYourWrites(new ReplicaProperties(List.of(), Duration.ofSeconds(1), Duration.ofSeconds(1))),
+                new UuidV7Generator(),
+                new MoveTimings(new SimpleMeterRegistry()),
+                new VersionedGameCache(cacheProps, new SimpleMeterRegistry()),
+                cacheProps);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpGame() {
+        game = Games.inProgress(movesBefore, false);
+        Player mover = game.getPlayers().get(movesBefore % 2);
+        request = new MoveRequest(mover.getPlayerId(), Games.DRAW[movesBefore][0], Games.DRAW[movesBefore][1]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clock.stop();
+    }
+
+    @Benchmark
+    public GameDto makeMove() {
+        return service.makeMove(game.getGameId(), request);
+    }
+
+    private Player player(Object id) {
+        for (Player p : game.getPlayers()) {
+            if (p.getPlayerId().equals(id)) {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A repository whose {@code findById} answers from {@code lookup}, whose {@code save}
+     * returns its argument and whose other methods do nothing.
+     */
+    @SuppressWarnings("unchecked")
+    private static <R> R repository(Class<R> type, Function<Object, Object> lookup) {
+        Map<String, Function<Object[], Object>> methods = Map.of(
+                "findById", args -> Optional.ofNullable(lookup.apply(args[0])),
+                "save", args -> args[0]);
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            var handler = methods.get(method.getName());
+            if (handler != null) {
+                return handler.apply(args);
+            }
+            return switch (method.getName()) {
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "toString" -> type.getSimpleName() + " stub";
+                default -> null;
+            };
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.tictactoe.benchmark;
+
+import com.example.tictactoe.domain.Game;
+import com.example.tictactoe.dto.GameDto;
+import com.example.tictactoe.mapper.GameMapper;
+import com.example.tictactoe.mapper.GameMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GameMapper#toDto(Game)} on a timed game with all nine moves, the largest DTO the
+ * service builds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final GameMapper mapper = new GameMapperImpl();
+    private Game game;
+
+    @Setup
+    public void setUp() {
+        game = Games.inProgress(8, true);
+    }
+
+    @Benchmark
+    public GameDto toDto() {
+        return mapper.toDto(game);
+    }
+}
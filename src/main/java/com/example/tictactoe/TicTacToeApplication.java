@@ -2,10 +2,14 @@ package com.example.tictactoe;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableCaching
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class TicTacToeApplication {
     public static void main(String[] args) {
         SpringApplication.run(TicTacToeApplication.class, args);
@@ -0,0 +1,253 @@
+package com.example.tictactoe.api;
+
+import com.example.tictactoe.cache.VersionedGameCache;
+import com.example.tictactoe.cluster.GameCommandRouter;
+import com.example.tictactoe.domain.GameStatus;
+import com.example.tictactoe.dto.GameDto;
+import com.example.tictactoe.event.GameEventHub;
+import com.example.tictactoe.event.GameEventPublisher;
+import com.example.tictactoe.exception.ErrorResponse;
+import com.example.tictactoe.exception.GameNotFoundException;
+import com.example.tictactoe.exception.ThrottledException;
+import com.example.tictactoe.exception.ThrottledResponse;
+import com.example.tictactoe.handler.SessionDrain;
+import com.example.tictactoe.handler.WebSocketProperties;
+import com.example.tictactoe.ratelimit.LoadShedder;
+import com.example.tictactoe.repository.GameVersion;
+import com.example.tictactoe.service.GameService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Read-only HTTP access to games for dashboards and clients that do not play: one game, the
+ * lobby listing of a status, and a server-sent event stream of one game.
+ * <p>
+ * Responses carry an ETag built from {@code Game.version}; for a listing, from the ids and
+ * versions of its games. A request for a game with {@code If-None-Match} is first checked
+ * against the version alone, from the {@code games} cache or a single-column query, and gets
+ * a 304 without players, moves or mapping when nothing changed. A listing is tagged from the
+ * {@code lobby} cache, so a conditional request within its TTL does not reach the database.
+ * <p>
+ * Nothing here carries a player id: see {@link PublicGame}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GameReadHandler {
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final GameService service;
+    private final GameCommandRouter commands;
+    private final VersionedGameCache gameCache;
+    private final LoadShedder loadShedder;
+    private final GameEventHub hub;
+    private final GameEventPublisher publisher;
+    private final WebSocketProperties props;
+    private final SessionDrain drain;
+    private final ObjectMapper mapper;
+
+    public Mono<ServerResponse> game(ServerRequest request) {
+        UUID gameId = gameId(request);
+        if (gameId == null) {
+            return error(HttpStatus.BAD_REQUEST, "Invalid gameId");
+        }
+        Mono<ServerResponse> full = Mono.defer(() -> commands.get(gameId))
+                .flatMap(game -> respond(request, gameTag(game.version()), () -> PublicGame.of(game)));
+        return notModified(request, Mono.defer(() -> version(gameId)).map(GameReadHandler::gameTag), full)
+                .onErrorResume(GameNotFoundException.class, ex -> error(HttpStatus.NOT_FOUND, ex.getMessage()))
+                .onErrorResume(ThrottledException.class, GameReadHandler::throttled);
+    }
+
+    public Mono<ServerResponse> lobby(ServerRequest request) {
+        GameStatus status;
+        try {
+            status = GameStatus.valueOf(request.queryParam("status").orElse(GameStatus.WAITING.name()));
+        } catch (IllegalArgumentException ex) {
+            return error(HttpStatus.BAD_REQUEST, "Invalid status");
+        }
+        return loadShedder.execute(() -> service.listGames(status))
+                .flatMap(games -> respond(request, lobbyTag(games.stream()
+                        .map(game -> new GameVersion(game.gameId(), game.version())).toList()),
+                        () -> games.stream().map(PublicGame::of).toList()))
+                .onErrorResume(ThrottledException.class, GameReadHandler::throttled);
+    }
+
+    /**
+     * The game as it is, then each of its events. The first event is a {@code state} frame;
+     * a client reconnecting with {@code Last-Event-ID} gets the missed events instead while
+     * they are still in memory. Event ids are the {@code seq} of the WebSocket frames. The
+     * stream ends when the node drains, with a random {@code retry} that spreads the
+     * reconnects out.
+     */
+    public Mono<ServerResponse> events(ServerRequest request) {
+        UUID gameId = gameId(request);
+        if (gameId == null) {
+            return error(HttpStatus.BAD_REQUEST, "Invalid gameId");
+        }
+        if (drain.isDraining()) {
+            return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, drain.retryAfterMillis() / 1000)))
+                    .bodyValue(new ErrorResponse("Server draining"));
+        }
+        Long lastSeq;
+        try {
+            lastSeq = request.headers().firstHeader(LAST_EVENT_ID) != null
+                    ? Long.valueOf(request.headers().firstHeader(LAST_EVENT_ID))
+                    : null;
+        } catch (NumberFormatException ex) {
+            return error(HttpStatus.BAD_REQUEST, "Invalid Last-Event-ID");
+        }
+
+        GameStream stream = new GameStream(gameId, props.outboundBuffer());
+        Mono<ServerSentEvent<String>> start;
+        if (lastSeq != null) {
+            GameEventHub.ResumeResult resumed = hub.resume(gameId, stream, lastSeq);
+            start = resumed.replayed() ? Mono.empty() : snapshot(gameId, resumed.seq());
+        } else {
+            start = snapshot(gameId, hub.subscribe(gameId, stream));
+        }
+        // the first element is awaited before the response is committed, so an unknown game is a 404
+        return start.map(List::of)
+                .defaultIfEmpty(List.of())
+                .flatMap(first -> {
+                    Flux<ServerSentEvent<String>> events = Flux.fromIterable(first)
+                            .concatWith(stream.events().mapNotNull(event -> {
+                                String frame = publicFrame(event.frame());
+                                return frame != null ? event(event.seq(), frame) : null;
+                            }));
+                    Flux<ServerSentEvent<String>> pings = Flux.interval(props.pingInterval())
+                            .map(tick -> ServerSentEvent.<String>builder().comment("ping").build());
+                    Flux<ServerSentEvent<String>> body = Flux.merge(events, pings)
+                            .takeUntilOther(Mono.firstWithSignal(drain.started(), stream.overflowed()))
+                            .concatWith(Mono.fromSupplier(() -> drain.isDraining()
+                                    ? ServerSentEvent.<String>builder().comment("draining")
+                                            .retry(Duration.ofMillis(drain.retryAfterMillis())).build()
+                                    : null))
+                            .doFinally(signal -> hub.unsubscribe(gameId, stream));
+                    return ServerResponse.ok()
+                            .contentType(MediaType.TEXT_EVENT_STREAM)
+                            .body(body, ServerSentEvent.class);
+                })
+                .doOnError(ex -> hub.unsubscribe(gameId, stream))
+                .onErrorResume(GameNotFoundException.class, ex -> error(HttpStatus.NOT_FOUND, ex.getMessage()))
+                .onErrorResume(ThrottledException.class, GameReadHandler::throttled);
+    }
+
+    private Mono<ServerSentEvent<String>> snapshot(UUID gameId, long seq) {
+        return commands.get(gameId).map(game -> event(seq, publisher.frame("state", gameId, seq, "game", PublicGame.of(game))));
+    }
+
+    /**
+     * A hub frame as the public may see it: a {@code game} as a {@link PublicGame} and a
+     * {@code player} without its id. A frame that cannot be rewritten is dropped, not sent as is.
+     */
+    private String publicFrame(String frame) {
+        if (!frame.contains("\"playerId\"")) {
+            return frame;
+        }
+        try {
+            JsonNode node = mapper.readTree(frame);
+            if (node.get("game") instanceof ObjectNode game) {
+                ((ObjectNode) node).set("game", mapper.valueToTree(PublicGame.of(mapper.treeToValue(game, GameDto.class))));
+            }
+            if (node.get("player") instanceof ObjectNode player) {
+                player.remove("playerId");
+            }
+            return mapper.writeValueAsString(node);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Dropping event frame that could not be made public: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * {@code full}, unless the client's {@code If-None-Match} still matches the cheaply
+     * computed {@code tag}.
+     */
+    private static Mono<ServerResponse> notModified(ServerRequest request, Mono<String> tag, Mono<ServerResponse> full) {
+        if (request.headers().header(HttpHeaders.IF_NONE_MATCH).isEmpty()) {
+            return full;
+        }
+        return tag.flatMap(request::checkNotModified).switchIfEmpty(full);
+    }
+
+    private Mono<Long> version(UUID gameId) {
+        GameDto cached = gameCache.getFresh(gameId);
+        if (cached != null && cached.version() != null) {
+            return Mono.just(cached.version());
+        }
+        return loadShedder.execute(() -> service.findVersion(gameId).orElse(null));
+    }
+
+    private static Mono<ServerResponse> respond(ServerRequest request, String tag, Supplier<Object> body) {
+        return request.checkNotModified(tag)
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.ok()
+                        .eTag(tag)
+                        .cacheControl(CacheControl.noCache())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(body.get())));
+    }
+
+    static String gameTag(Long version) {
+        return "\"" + (version != null ? version : 0) + "\"";
+    }
+
+    /**
+     * FNV-1a over the listed games' ids and versions in id order, so that it does not depend on
+     * the order the database returned them in.
+     */
+    static String lobbyTag(Collection<GameVersion> games) {
+        long hash = 0xCBF29CE484222325L;
+        for (GameVersion game : games.stream().sorted(Comparator.comparing(GameVersion::gameId)).toList()) {
+            for (long value : new long[]{game.gameId().getMostSignificantBits(),
+                    game.gameId().getLeastSignificantBits(), game.version() != null ? game.version() : 0}) {
+                hash = (hash ^ value) * 0x100000001B3L;
+            }
+        }
+        return "\"" + games.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    private static ServerSentEvent<String> event(long seq, String frame) {
+        return ServerSentEvent.builder(frame).id(Long.toString(seq)).build();
+    }
+
+    private static UUID gameId(ServerRequest request) {
+        try {
+            return UUID.fromString(request.pathVariable("gameId"));
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, String message) {
+        return ServerResponse.status(status).bodyValue(new ErrorResponse(message));
+    }
+
+    private static Mono<ServerResponse> throttled(ThrottledException ex) {
+        return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, ex.getRetryAfterMillis() / 1000)))
+                .bodyValue(new ThrottledResponse(ex));
+    }
+}
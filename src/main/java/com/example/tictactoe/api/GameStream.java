@@ -0,0 +1,46 @@
+package com.example.tictactoe.api;
+
+import com.example.tictactoe.event.GameEvent;
+import com.example.tictactoe.event.GameEventSubscriber;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.UUID;
+
+/**
+ * The events of one game for one server-sent event stream. Like a WebSocket session it has a
+ * bounded buffer; a client that falls that far behind is cut off and resumes from its
+ * {@code Last-Event-ID}.
+ */
+@Slf4j
+final class GameStream implements GameEventSubscriber {
+
+    private final UUID gameId;
+    private final Sinks.Many<GameEvent> events;
+    private final Sinks.Empty<Void> overflowed = Sinks.empty();
+
+    GameStream(UUID gameId, int buffer) {
+        this.gameId = gameId;
+        this.events = Sinks.many().unicast().onBackpressureBuffer(Queues.<GameEvent>get(buffer).get());
+    }
+
+    @Override
+    public void deliver(GameEvent event) {
+        // the hub delivers a game's events under that game's lock, so calls are serialized
+        if (events.tryEmitNext(event) == Sinks.EmitResult.FAIL_OVERFLOW) {
+            log.warn("Ending slow event stream of game id={}: buffer full", gameId);
+            overflowed.tryEmitEmpty();
+        }
+    }
+
+    Flux<GameEvent> events() {
+        return events.asFlux();
+    }
+
+    Mono<Void> overflowed() {
+        return overflowed.asMono();
+    }
+}
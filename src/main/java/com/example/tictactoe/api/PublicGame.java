@@ -0,0 +1,55 @@
+package com.example.tictactoe.api;
+
+import com.example.tictactoe.domain.GameStatus;
+import com.example.tictactoe.domain.Symbol;
+import com.example.tictactoe.dto.ClockDto;
+import com.example.tictactoe.dto.GameDto;
+import com.example.tictactoe.dto.MoveDto;
+import com.example.tictactoe.dto.PlayerDto;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A game as anyone may see it. A player id is what a WebSocket client moves with, so the read
+ * API names players and the authors of moves by symbol instead.
+ */
+record PublicGame(
+        UUID gameId,
+        GameStatus status,
+        Symbol nextTurn,
+        OffsetDateTime createdAt,
+        List<Player> players,
+        List<Move> moves,
+        String result,
+        Symbol winner,
+        ClockDto clock,
+        Long version
+) {
+
+    record Player(String name, Symbol symbol, OffsetDateTime joinedAt) {
+
+        static Player of(PlayerDto player) {
+            return new Player(player.name(), player.symbol(), player.joinedAt());
+        }
+    }
+
+    record Move(UUID moveId, Symbol symbol, int row, int col, OffsetDateTime movedAt) {}
+
+    static PublicGame of(GameDto game) {
+        List<PlayerDto> players = Objects.requireNonNullElse(game.players(), List.of());
+        List<MoveDto> moves = Objects.requireNonNullElse(game.moves(), List.of());
+        Map<UUID, Symbol> symbols = players.stream()
+                .filter(player -> player.playerId() != null && player.symbol() != null)
+                .collect(Collectors.toMap(PlayerDto::playerId, PlayerDto::symbol, (a, b) -> a));
+        Function<MoveDto, Move> move = m -> new Move(m.moveId(), symbols.get(m.playerId()), m.row(), m.col(), m.movedAt());
+        return new PublicGame(game.gameId(), game.status(), game.nextTurn(), game.createdAt(),
+                players.stream().map(Player::of).toList(), moves.stream().map(move).toList(),
+                game.result(), game.winner(), game.clock(), game.version());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.tictactoe.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "tictactoe.cache")
+public record CacheProperties(
+        Duration gameTtl,
+        long gameMaxSize,
+        Duration lobbyTtl,
+        long lobbyMaxSize,
+        int lobbyLimit,
+        Store store
+) {
+    public enum Store {
+        /** Caffeine holding the {@code GameDto}s */
+        HEAP,
+        /** {@link OffHeapGameStore}, packed into direct memory */
+        OFF_HEAP
+    }
+
+    public CacheProperties {
+        if (store == null) {
+            store = Store.HEAP;
+        }
+    }
+}
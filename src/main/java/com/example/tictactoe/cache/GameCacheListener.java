@@ -0,0 +1,13 @@
+package com.example.tictactoe.cache;
+
+import java.util.UUID;
+
+/**
+ * Told about every local change to a cached game, so that other nodes can drop their copy.
+ */
+public interface GameCacheListener {
+    /**
+     * @param version the game's new version, or {@code -1} when it is not known
+     */
+    void invalidated(UUID gameId, long version);
+}
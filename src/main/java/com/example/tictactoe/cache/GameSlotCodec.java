@@ -0,0 +1,327 @@
+package com.example.tictactoe.cache;
+
+import com.example.tictactoe.domain.GameStatus;
+import com.example.tictactoe.domain.Symbol;
+import com.example.tictactoe.dto.ClockDto;
+import com.example.tictactoe.dto.GameDto;
+import com.example.tictactoe.dto.MoveDto;
+import com.example.tictactoe.dto.PlayerDto;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fixed-width binary layout of one {@link GameDto}, written at an absolute offset of a
+ * {@link ByteBuffer}.
+ * <pre>
+ *   0  gameId (msb, lsb)          44  createdAt
+ *  16  version                    52  moveTimeMs, totalTimeMs, xTimeLeftMs, oTimeLeftMs
+ *  24  stored-at millis           84  turnStartedAt, turnDeadline
+ *  32  zone offset seconds       100  2 players: id, symbol, joinedAt, name (UTF-16)
+ *  36  status, nextTurn, winner, 556  9 moves: id, player index, row, col, movedAt
+ *      result, #players, #moves,
+ *      has-clock, referenced
+ * </pre>
+ * Nullable numbers and instants are stored as {@link Long#MIN_VALUE}, nullable enums as 0 and
+ * nullable ids as the nil UUID. Timestamps are kept as epoch nanoseconds with one zone offset
+ * per game; a timestamp with a different offset comes back as the same instant at the game's
+ * offset. A move refers to its player by index.
+ */
+final class GameSlotCodec {
+
+    static final int SLOT_BYTES = 800;
+    static final int MAX_PLAYERS = 2;
+    static final int MAX_MOVES = 9;
+    // players.name is VARCHAR(100)
+    static final int MAX_NAME_CHARS = 100;
+
+    private static final int GAME_ID = 0;
+    private static final int VERSION = 16;
+    private static final int STORED_AT = 24;
+    private static final int OFFSET = 32;
+    private static final int STATUS = 36;
+    private static final int NEXT_TURN = 37;
+    private static final int WINNER = 38;
+    private static final int RESULT = 39;
+    private static final int PLAYER_COUNT = 40;
+    private static final int MOVE_COUNT = 41;
+    private static final int HAS_CLOCK = 42;
+    private static final int REFERENCED = 43;
+    private static final int CREATED_AT = 44;
+    private static final int CLOCK = 52;
+    private static final int PLAYERS = 100;
+    private static final int PLAYER_BYTES = 228;
+    private static final int MOVES = PLAYERS + MAX_PLAYERS * PLAYER_BYTES;
+    private static final int MOVE_BYTES = 27;
+
+    private static final long NULL = Long.MIN_VALUE;
+    private static final GameStatus[] STATUSES = GameStatus.values();
+    private static final Symbol[] SYMBOLS = Symbol.values();
+
+    static {
+        if (MOVES + MAX_MOVES * MOVE_BYTES > SLOT_BYTES) {
+            throw new IllegalStateException("Game slot layout exceeds " + SLOT_BYTES + " bytes");
+        }
+    }
+
+    private GameSlotCodec() {}
+
+    /**
+     * Whether the game can be packed at all: at most two players and nine moves, short names,
+     * and moves only by listed players.
+     */
+    static boolean fits(GameDto game) {
+        List<PlayerDto> players = nonNull(game.players());
+        List<MoveDto> moves = nonNull(game.moves());
+        if (game.gameId() == null || isNil(game.gameId()) || players.size() > MAX_PLAYERS || moves.size() > MAX_MOVES) {
+            return false;
+        }
+        if (resultCode(game.result()) < 0 || !representable(game.createdAt())) {
+            return false;
+        }
+        ClockDto clock = game.clock();
+        if (clock != null && (!representable(clock.turnStartedAt()) || !representable(clock.turnDeadline()))) {
+            return false;
+        }
+        for (PlayerDto player : players) {
+            if (player.name() != null && player.name().length() > MAX_NAME_CHARS || !representable(player.joinedAt())) {
+                return false;
+            }
+        }
+        for (MoveDto move : moves) {
+            if (playerIndex(players, move.playerId()) == -2 || move.row() != (byte) move.row()
+                    || move.col() != (byte) move.col() || !representable(move.movedAt())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes a game that {@link #fits}.
+     */
+    static void write(ByteBuffer buf, int base, GameDto game, long storedAtMillis) {
+        List<PlayerDto> players = nonNull(game.players());
+        List<MoveDto> moves = nonNull(game.moves());
+        ZoneOffset offset = game.createdAt() != null ? game.createdAt().getOffset() : ZoneOffset.UTC;
+
+        putUuid(buf, base + GAME_ID, game.gameId());
+        buf.putLong(base + VERSION, game.version() != null ? game.version() : NULL);
+        buf.putLong(base + STORED_AT, storedAtMillis);
+        buf.putInt(base + OFFSET, offset.getTotalSeconds());
+        buf.put(base + STATUS, code(game.status()));
+        buf.put(base + NEXT_TURN, code(game.nextTurn()));
+        buf.put(base + WINNER, code(game.winner()));
+        buf.put(base + RESULT, (byte) resultCode(game.result()));
+        buf.put(base + PLAYER_COUNT, (byte) players.size());
+        buf.put(base + MOVE_COUNT, (byte) moves.size());
+        buf.put(base + REFERENCED, (byte) 0);
+        buf.putLong(base + CREATED_AT, nanos(game.createdAt()));
+
+        ClockDto clock = game.clock();
+        buf.put(base + HAS_CLOCK, (byte) (clock != null ? 1 : 0));
+        int c = base + CLOCK;
+        buf.putLong(c, clock != null ? orNull(clock.moveTimeMs()) : NULL);
+        buf.putLong(c + 8, clock != null ? orNull(clock.totalTimeMs()) : NULL);
+        buf.putLong(c + 16, clock != null ? orNull(clock.xTimeLeftMs()) : NULL);
+        buf.putLong(c + 24, clock != null ? orNull(clock.oTimeLeftMs()) : NULL);
+        buf.putLong(c + 32, clock != null ? nanos(clock.turnStartedAt()) : NULL);
+        buf.putLong(c + 40, clock != null ? nanos(clock.turnDeadline()) : NULL);
+
+        for (int i = 0; i < players.size(); i++) {
+            PlayerDto player = players.get(i);
+            int p = base + PLAYERS + i * PLAYER_BYTES;
+            putUuid(buf, p, player.playerId());
+            buf.put(p + 16, code(player.symbol()));
+            buf.putLong(p + 17, nanos(player.joinedAt()));
+            String name = player.name();
+            buf.putShort(p + 25, (short) (name != null ? name.length() : -1));
+            for (int j = 0; name != null && j < name.length(); j++) {
+                buf.putChar(p + 27 + 2 * j, name.charAt(j));
+            }
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            MoveDto move = moves.get(i);
+            int m = base + MOVES + i * MOVE_BYTES;
+            putUuid(buf, m, move.moveId());
+            buf.put(m + 16, (byte) playerIndex(players, move.playerId()));
+            buf.put(m + 17, (byte) move.row());
+            buf.put(m + 18, (byte) move.col());
+            buf.putLong(m + 19, nanos(move.movedAt()));
+        }
+    }
+
+    static GameDto read(ByteBuffer buf, int base) {
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds(buf.getInt(base + OFFSET));
+        int playerCount = buf.get(base + PLAYER_COUNT);
+        int moveCount = buf.get(base + MOVE_COUNT);
+
+        List<PlayerDto> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            int p = base + PLAYERS + i * PLAYER_BYTES;
+            int nameLength = buf.getShort(p + 25);
+            String name = null;
+            if (nameLength >= 0) {
+                char[] chars = new char[nameLength];
+                for (int j = 0; j < nameLength; j++) {
+                    chars[j] = buf.getChar(p + 27 + 2 * j);
+                }
+                name = new String(chars);
+            }
+            players.add(new PlayerDto(getUuid(buf, p), name, symbol(buf.get(p + 16)), time(buf.getLong(p + 17), offset)));
+        }
+        List<MoveDto> moves = new ArrayList<>(moveCount);
+        for (int i = 0; i < moveCount; i++) {
+            int m = base + MOVES + i * MOVE_BYTES;
+            int player = buf.get(m + 16);
+            moves.add(new MoveDto(getUuid(buf, m), player >= 0 ? players.get(player).playerId() : null,
+                    buf.get(m + 17), buf.get(m + 18), time(buf.getLong(m + 19), offset)));
+        }
+        ClockDto clock = null;
+        if (buf.get(base + HAS_CLOCK) != 0) {
+            int c = base + CLOCK;
+            clock = new ClockDto(boxed(buf.getLong(c)), boxed(buf.getLong(c + 8)), boxed(buf.getLong(c + 16)),
+                    boxed(buf.getLong(c + 24)), time(buf.getLong(c + 32), offset), time(buf.getLong(c + 40), offset));
+        }
+        byte status = buf.get(base + STATUS);
+        return new GameDto(
+                getUuid(buf, base + GAME_ID),
+                status != 0 ? STATUSES[status - 1] : null,
+                symbol(buf.get(base + NEXT_TURN)),
+                time(buf.getLong(base + CREATED_AT), offset),
+                players,
+                moves,
+                result(buf.get(base + RESULT)),
+                symbol(buf.get(base + WINNER)),
+                clock,
+                boxed(buf.getLong(base + VERSION)));
+    }
+
+    static long gameIdMsb(ByteBuffer buf, int base) {
+        return buf.getLong(base + GAME_ID);
+    }
+
+    static long gameIdLsb(ByteBuffer buf, int base) {
+        return buf.getLong(base + GAME_ID + 8);
+    }
+
+    /**
+     * The stored version, or {@code -1} when the game had none.
+     */
+    static long version(ByteBuffer buf, int base) {
+        long version = buf.getLong(base + VERSION);
+        return version != NULL ? version : -1;
+    }
+
+    static long storedAt(ByteBuffer buf, int base) {
+        return buf.getLong(base + STORED_AT);
+    }
+
+    static boolean referenced(ByteBuffer buf, int base) {
+        return buf.get(base + REFERENCED) != 0;
+    }
+
+    static void setReferenced(ByteBuffer buf, int base, boolean referenced) {
+        buf.put(base + REFERENCED, (byte) (referenced ? 1 : 0));
+    }
+
+    static void clear(ByteBuffer buf, int base) {
+        buf.putLong(base + GAME_ID, 0);
+        buf.putLong(base + GAME_ID + 8, 0);
+    }
+
+    private static int playerIndex(List<PlayerDto> players, UUID playerId) {
+        if (playerId == null) {
+            return -1;
+        }
+        for (int i = 0; i < players.size(); i++) {
+            if (playerId.equals(players.get(i).playerId())) {
+                return i;
+            }
+        }
+        return -2;
+    }
+
+    private static int resultCode(String result) {
+        if (result == null) {
+            return 0;
+        }
+        return switch (result) {
+            case "X" -> 1;
+            case "O" -> 2;
+            case "DRAW" -> 3;
+            case "ABANDONED" -> 4;
+            default -> -1;
+        };
+    }
+
+    private static String result(byte code) {
+        return switch (code) {
+            case 1 -> "X";
+            case 2 -> "O";
+            case 3 -> "DRAW";
+            case 4 -> "ABANDONED";
+            default -> null;
+        };
+    }
+
+    private static byte code(Enum<?> value) {
+        return (byte) (value != null ? value.ordinal() + 1 : 0);
+    }
+
+    private static Symbol symbol(byte code) {
+        return code != 0 ? SYMBOLS[code - 1] : null;
+    }
+
+    // epoch nanoseconds in a long reach from 1677 to 2262
+    private static boolean representable(OffsetDateTime time) {
+        return time == null || Math.abs(time.toEpochSecond()) < Long.MAX_VALUE / 1_000_000_000L;
+    }
+
+    private static long nanos(OffsetDateTime time) {
+        if (time == null) {
+            return NULL;
+        }
+        Instant instant = time.toInstant();
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static OffsetDateTime time(long nanos, ZoneOffset offset) {
+        if (nanos == NULL) {
+            return null;
+        }
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L)), offset);
+    }
+
+    private static long orNull(Long value) {
+        return value != null ? value : NULL;
+    }
+
+    private static Long boxed(long value) {
+        return value != NULL ? value : null;
+    }
+
+    private static void putUuid(ByteBuffer buf, int at, UUID id) {
+        buf.putLong(at, id != null ? id.getMostSignificantBits() : 0);
+        buf.putLong(at + 8, id != null ? id.getLeastSignificantBits() : 0);
+    }
+
+    private static UUID getUuid(ByteBuffer buf, int at) {
+        long msb = buf.getLong(at);
+        long lsb = buf.getLong(at + 8);
+        return msb == 0 && lsb == 0 ? null : new UUID(msb, lsb);
+    }
+
+    private static boolean isNil(UUID id) {
+        return id.getMostSignificantBits() == 0 && id.getLeastSignificantBits() == 0;
+    }
+
+    private static <T> List<T> nonNull(List<T> list) {
+        return list != null ? list : List.of();
+    }
+}
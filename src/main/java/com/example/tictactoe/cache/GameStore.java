@@ -0,0 +1,47 @@
+package com.example.tictactoe.cache;
+
+import com.example.tictactoe.dto.GameDto;
+
+import java.util.UUID;
+
+/**
+ * Where {@link VersionedGameCache} keeps its entries and version stamps. Versions are compared
+ * inside the store, so a conditional write never races with a concurrent one for the same game.
+ * Stamps outlive their entries, so that a late fill is still recognised as stale.
+ */
+public interface GameStore {
+
+    GameDto get(UUID gameId);
+
+    void put(GameDto game);
+
+    /**
+     * Stores the game unless the entry already present has a newer version.
+     */
+    void putIfNewer(GameDto game);
+
+    /**
+     * Drops the entry if its version is older than {@code version}.
+     */
+    void removeIfOlder(UUID gameId, long version);
+
+    void remove(UUID gameId);
+
+    /**
+     * The newest version heard of for the game, or {@code -1} if none is remembered.
+     */
+    long stamp(UUID gameId);
+
+    /**
+     * Raises the game's stamp to {@code version} if it is lower.
+     */
+    void stamp(UUID gameId, long version);
+
+    void clear();
+
+    long size();
+
+    static long version(GameDto game) {
+        return game.version() != null ? game.version() : -1;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.tictactoe.cache;
+
+import com.example.tictactoe.dto.GameDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.UUID;
+
+import static com.example.tictactoe.cache.GameStore.version;
+
+/**
+ * Caffeine-backed store that keeps the {@link GameDto}s themselves.
+ */
+public class HeapGameStore implements GameStore {
+
+    private final Cache<UUID, GameDto> entries;
+    private final Cache<UUID, Long> stamps;
+
+    public HeapGameStore(CacheProperties props, MeterRegistry registry) {
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(props.gameTtl())
+                .maximumSize(props.gameMaxSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, entries, VersionedGameCache.NAME, "cache.manager", "cacheManager");
+        this.stamps = Caffeine.newBuilder()
+                .expireAfterWrite(props.gameTtl().multipliedBy(2))
+                .maximumSize(props.gameMaxSize() * 2)
+                .build();
+    }
+
+    @Override
+    public GameDto get(UUID gameId) {
+        return entries.getIfPresent(gameId);
+    }
+
+    @Override
+    public void put(GameDto game) {
+        entries.put(game.gameId(), game);
+    }
+
+    @Override
+    public void putIfNewer(GameDto game) {
+        entries.asMap().merge(game.gameId(), game, (current, loaded) -> version(current) > version(loaded) ? current : loaded);
+    }
+
+    @Override
+    public void removeIfOlder(UUID gameId, long version) {
+        entries.asMap().computeIfPresent(gameId, (id, cached) -> version(cached) < version ? null : cached);
+    }
+
+    @Override
+    public void remove(UUID gameId) {
+        entries.invalidate(gameId);
+    }
+
+    @Override
+    public long stamp(UUID gameId) {
+        Long stamp = stamps.getIfPresent(gameId);
+        return stamp != null ? stamp : -1;
+    }
+
+    @Override
+    public void stamp(UUID gameId, long version) {
+        stamps.asMap().merge(gameId, version, Math::max);
+    }
+
+    @Override
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    @Override
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    Cache<UUID, GameDto> nativeCache() {
+        return entries;
+    }
+}
@@ -0,0 +1,401 @@
+package com.example.tictactoe.cache;
+
+import com.example.tictactoe.dto.GameDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+import static com.example.tictactoe.cache.GameSlotCodec.SLOT_BYTES;
+
+/**
+ * Game store that keeps no objects per game: each entry is packed by {@link GameSlotCodec} into
+ * a fixed-width slot of direct memory, and a {@link GameDto} is only materialised while it is
+ * being read. Millions of cached games thus cost the garbage collector nothing but a few arrays.
+ * <p>
+ * The store is split into segments by key hash, each with its own read-write lock, direct
+ * buffer and index. The index is an open-addressing table of primitive arrays with linear
+ * probing, mapping the two halves of a game id to a slot number; deletions shift the probe
+ * chain back instead of leaving tombstones. All slots are allocated up front. When a segment is
+ * full, a CLOCK hand reclaims an expired slot or one that has not been read since its last pass.
+ * <p>
+ * Version stamps are kept per segment too, in a {@link StampTable} of direct memory with room
+ * for twice as many games as there are slots and twice the entries' TTL.
+ */
+@Slf4j
+public class OffHeapGameStore implements GameStore {
+
+    private static final int MAX_SLOTS_PER_SEGMENT = Integer.MAX_VALUE / SLOT_BYTES;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final Counter rejected;
+
+    public OffHeapGameStore(CacheProperties props, MeterRegistry registry) {
+        this(props.gameMaxSize(), props.gameTtl(), segmentsFor(props.gameMaxSize()), System::currentTimeMillis, registry);
+    }
+
+    OffHeapGameStore(long capacity, Duration ttl, int segmentCount, LongSupplier clock, MeterRegistry registry) {
+        if (Integer.bitCount(segmentCount) != 1 || capacity < segmentCount) {
+            throw new IllegalArgumentException("Need a power-of-two segment count of at most " + capacity);
+        }
+        if (capacity / segmentCount > MAX_SLOTS_PER_SEGMENT) {
+            throw new IllegalArgumentException("Too many games per segment: " + capacity / segmentCount);
+        }
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.segments = new Segment[segmentCount];
+        long reserved = 0;
+        for (int i = 0; i < segmentCount; i++) {
+            // spread the remainder so that the segments add up to the capacity
+            segments[i] = new Segment((int) (capacity / segmentCount + (i < capacity % segmentCount ? 1 : 0)));
+            reserved += (long) segments[i].slotCount * SLOT_BYTES + StampTable.bytes(2 * segments[i].slotCount);
+        }
+        this.segmentMask = segmentCount - 1;
+        long reservedBytes = reserved;
+
+        Tags tags = Tags.of("cache", VersionedGameCache.NAME, "cache.manager", "cacheManager");
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum).tags(tags).tag("result", "hit")
+                .description("The number of times cache lookup methods have returned a cached value.")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum).tags(tags).tag("result", "miss")
+                .description("The number of times cache lookup methods have returned an uncached (newly loaded) value, or null")
+                .register(registry);
+        FunctionCounter.builder("cache.puts", puts, LongAdder::sum).tags(tags)
+                .description("The number of entries added to the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum).tags(tags)
+                .description("The number of times the cache was evicted.")
+                .register(registry);
+        Gauge.builder("cache.size", this, OffHeapGameStore::size).tags(tags)
+                .description("The number of entries in this cache. This may be an approximation, depending on the type of cache.")
+                .register(registry);
+        Gauge.builder("tictactoe.cache.off-heap.bytes", this, store -> (double) reservedBytes)
+                .description("Direct memory reserved for packed games and their version stamps")
+                .baseUnit("bytes")
+                .register(registry);
+        this.rejected = Counter.builder("tictactoe.cache.off-heap.rejected")
+                .description("Games not cached because they do not fit a slot")
+                .register(registry);
+        log.info("Off-heap game store: {} slots of {} bytes in {} segments", capacity, SLOT_BYTES, segmentCount);
+    }
+
+    @Override
+    public GameDto get(UUID gameId) {
+        long h = hash(gameId);
+        Segment segment = segment(h);
+        GameDto game;
+        Lock lock = segment.lock.readLock();
+        lock.lock();
+        try {
+            game = segment.get(gameId, (int) h, clock.getAsLong());
+        } finally {
+            lock.unlock();
+        }
+        (game != null ? hits : misses).increment();
+        return game;
+    }
+
+    @Override
+    public void put(GameDto game) {
+        write(game, false);
+    }
+
+    @Override
+    public void putIfNewer(GameDto game) {
+        write(game, true);
+    }
+
+    @Override
+    public void removeIfOlder(UUID gameId, long version) {
+        long h = hash(gameId);
+        Segment segment = segment(h);
+        Lock lock = segment.lock.writeLock();
+        lock.lock();
+        try {
+            int index = segment.find(gameId.getMostSignificantBits(), gameId.getLeastSignificantBits(), (int) h);
+            if (index >= 0 && GameSlotCodec.version(segment.slots, segment.base(index)) < version) {
+                segment.delete(index);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(UUID gameId) {
+        long h = hash(gameId);
+        Segment segment = segment(h);
+        Lock lock = segment.lock.writeLock();
+        lock.lock();
+        try {
+            int index = segment.find(gameId.getMostSignificantBits(), gameId.getLeastSignificantBits(), (int) h);
+            if (index >= 0) {
+                segment.delete(index);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long stamp(UUID gameId) {
+        long h = hash(gameId);
+        Segment segment = segment(h);
+        Lock lock = segment.lock.readLock();
+        lock.lock();
+        try {
+            return segment.stamps.get(gameId.getMostSignificantBits(), gameId.getLeastSignificantBits(), (int) h, clock.getAsLong());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void stamp(UUID gameId, long version) {
+        long h = hash(gameId);
+        Segment segment = segment(h);
+        Lock lock = segment.lock.writeLock();
+        lock.lock();
+        try {
+            segment.stamps.raise(gameId.getMostSignificantBits(), gameId.getLeastSignificantBits(), (int) h, version, clock.getAsLong());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            Lock lock = segment.lock.writeLock();
+            lock.lock();
+            try {
+                segment.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    private void write(GameDto game, boolean onlyIfNewer) {
+        if (!GameSlotCodec.fits(game)) {
+            rejected.increment();
+            if (game.gameId() != null) {
+                remove(game.gameId());
+            }
+            return;
+        }
+        long h = hash(game.gameId());
+        Segment segment = segment(h);
+        Lock lock = segment.lock.writeLock();
+        lock.lock();
+        try {
+            if (segment.put(game, (int) h, onlyIfNewer, clock.getAsLong())) {
+                puts.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Segment segment(long h) {
+        return segments[(int) (h >>> 48) & segmentMask];
+    }
+
+    private static long hash(UUID id) {
+        return hash(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    static long hash(long msb, long lsb) {
+        // v7 ids share their leading bits, so both halves are mixed in
+        long h = msb * 0x9E3779B97F4A7C15L ^ lsb;
+        h ^= h >>> 32;
+        h *= 0xD6E8FEB86659FD93L;
+        return h ^ h >>> 32;
+    }
+
+    static int segmentsFor(long capacity) {
+        long wanted = Math.max(2L * Runtime.getRuntime().availableProcessors(), (capacity + MAX_SLOTS_PER_SEGMENT - 1) / MAX_SLOTS_PER_SEGMENT);
+        int segments = Integer.highestOneBit((int) Math.min(wanted, 1 << 16));
+        if (segments < wanted) {
+            segments <<= 1;
+        }
+        while (segments > 1 && segments > capacity) {
+            segments >>= 1;
+        }
+        return segments;
+    }
+
+    private final class Segment {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final ByteBuffer slots;
+        final int slotCount;
+        // index: game id halves -> slot, an all-zero key marks an empty bucket
+        final long[] keyMsb;
+        final long[] keyLsb;
+        final int[] slotOf;
+        final int tableMask;
+        final int[] free;
+        final StampTable stamps;
+        int freeTop;
+        int hand;
+        volatile int size;
+
+        Segment(int slotCount) {
+            this.slotCount = slotCount;
+            this.slots = ByteBuffer.allocateDirect(slotCount * SLOT_BYTES).order(ByteOrder.nativeOrder());
+            int tableSize = Integer.highestOneBit(Math.max(2, slotCount) * 2 - 1) << 1;
+            this.keyMsb = new long[tableSize];
+            this.keyLsb = new long[tableSize];
+            this.slotOf = new int[tableSize];
+            this.tableMask = tableSize - 1;
+            this.free = new int[slotCount];
+            // stamps outlive their entries so that a late fill is still recognised as stale
+            this.stamps = new StampTable(2 * slotCount, 2 * ttlMillis);
+            clear();
+        }
+
+        int base(int index) {
+            return slotOf[index] * SLOT_BYTES;
+        }
+
+        int find(long msb, long lsb, int h) {
+            for (int i = h & tableMask; ; i = (i + 1) & tableMask) {
+                if (keyMsb[i] == msb && keyLsb[i] == lsb) {
+                    return i;
+                }
+                if (keyMsb[i] == 0 && keyLsb[i] == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        GameDto get(UUID gameId, int h, long now) {
+            int index = find(gameId.getMostSignificantBits(), gameId.getLeastSignificantBits(), h);
+            if (index < 0) {
+                return null;
+            }
+            int base = base(index);
+            if (expired(base, now)) {
+                return null;
+            }
+            // a benign race between readers: every one of them sets the same byte
+            GameSlotCodec.setReferenced(slots, base, true);
+            return GameSlotCodec.read(slots, base);
+        }
+
+        boolean put(GameDto game, int h, boolean onlyIfNewer, long now) {
+            long msb = game.gameId().getMostSignificantBits();
+            long lsb = game.gameId().getLeastSignificantBits();
+            int index = find(msb, lsb, h);
+            if (index >= 0) {
+                int base = base(index);
+                if (onlyIfNewer && !expired(base, now) && GameSlotCodec.version(slots, base) > GameStore.version(game)) {
+                    return false;
+                }
+                GameSlotCodec.write(slots, base, game, now);
+                return true;
+            }
+            int slot = allocate(now);
+            GameSlotCodec.write(slots, slot * SLOT_BYTES, game, now);
+            int i = h & tableMask;
+            while (keyMsb[i] != 0 || keyLsb[i] != 0) {
+                i = (i + 1) & tableMask;
+            }
+            keyMsb[i] = msb;
+            keyLsb[i] = lsb;
+            slotOf[i] = slot;
+            size++;
+            return true;
+        }
+
+        void delete(int index) {
+            int slot = slotOf[index];
+            GameSlotCodec.clear(slots, slot * SLOT_BYTES);
+            free[freeTop++] = slot;
+            size--;
+            // backward-shift deletion keeps every probe chain unbroken without tombstones
+            int hole = index;
+            for (int i = (index + 1) & tableMask; keyMsb[i] != 0 || keyLsb[i] != 0; i = (i + 1) & tableMask) {
+                int home = (int) hash(keyMsb[i], keyLsb[i]) & tableMask;
+                boolean stays = hole <= i ? hole < home && home <= i : hole < home || home <= i;
+                if (!stays) {
+                    keyMsb[hole] = keyMsb[i];
+                    keyLsb[hole] = keyLsb[i];
+                    slotOf[hole] = slotOf[i];
+                    hole = i;
+                }
+            }
+            keyMsb[hole] = 0;
+            keyLsb[hole] = 0;
+        }
+
+        void clear() {
+            Arrays.fill(keyMsb, 0);
+            Arrays.fill(keyLsb, 0);
+            for (int slot = 0; slot < slotCount; slot++) {
+                GameSlotCodec.clear(slots, slot * SLOT_BYTES);
+                free[slot] = slotCount - 1 - slot;
+            }
+            freeTop = slotCount;
+            hand = 0;
+            size = 0;
+        }
+
+        private int allocate(long now) {
+            if (freeTop == 0) {
+                evictOne(now);
+            }
+            return free[--freeTop];
+        }
+
+        private void evictOne(long now) {
+            // two passes clear every referenced bit, so the loop always ends
+            for (int step = 0; step <= 2 * slotCount; step++) {
+                int base = hand * SLOT_BYTES;
+                hand = hand + 1 == slotCount ? 0 : hand + 1;
+                if (!expired(base, now) && GameSlotCodec.referenced(slots, base)) {
+                    GameSlotCodec.setReferenced(slots, base, false);
+                    continue;
+                }
+                long msb = GameSlotCodec.gameIdMsb(slots, base);
+                long lsb = GameSlotCodec.gameIdLsb(slots, base);
+                delete(find(msb, lsb, (int) hash(msb, lsb)));
+                evictions.increment();
+                return;
+            }
+            throw new IllegalStateException("No slot to evict");
+        }
+
+        private boolean expired(int base, long now) {
+            return now - GameSlotCodec.storedAt(slots, base) >= ttlMillis;
+        }
+    }
+}
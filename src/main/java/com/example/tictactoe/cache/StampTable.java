@@ -0,0 +1,140 @@
+package com.example.tictactoe.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The version stamps of one {@link OffHeapGameStore} segment, in direct memory like its slots.
+ * <p>
+ * An open-addressing table with linear probing maps the two halves of a game id to the newest
+ * version heard of and when it was stamped. Stamps expire after {@code ttlMillis}; when the
+ * table holds {@code capacity} of them, the one stamped first is dropped, which a ring of keys
+ * in stamping order finds without a scan. Not thread-safe: the segment lock guards it.
+ */
+final class StampTable {
+
+    // bucket: game id msb, game id lsb, version, stamped at; an all-zero key marks an empty bucket
+    private static final int BUCKET_BYTES = 32;
+    private static final int VERSION = 16;
+    private static final int STAMPED_AT = 24;
+    // ring entry: game id msb, lsb
+    private static final int RING_BYTES = 16;
+
+    private final ByteBuffer table;
+    private final ByteBuffer ring;
+    private final int capacity;
+    private final int tableMask;
+    private final long ttlMillis;
+    private int head;
+    private int size;
+
+    StampTable(int capacity, long ttlMillis) {
+        this.capacity = Math.max(1, capacity);
+        int tableSize = Integer.highestOneBit(Math.max(2, this.capacity) * 2 - 1) << 1;
+        this.table = ByteBuffer.allocateDirect(tableSize * BUCKET_BYTES).order(ByteOrder.nativeOrder());
+        this.ring = ByteBuffer.allocateDirect(this.capacity * RING_BYTES).order(ByteOrder.nativeOrder());
+        this.tableMask = tableSize - 1;
+        this.ttlMillis = ttlMillis;
+    }
+
+    static long bytes(int capacity) {
+        int buckets = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1;
+        return (long) buckets * BUCKET_BYTES + (long) Math.max(1, capacity) * RING_BYTES;
+    }
+
+    /**
+     * The stamped version, or {@code -1} if there is none or it has expired.
+     */
+    long get(long msb, long lsb, int h, long now) {
+        int bucket = find(msb, lsb, h);
+        if (bucket < 0 || expired(bucket, now)) {
+            return -1;
+        }
+        return table.getLong(bucket * BUCKET_BYTES + VERSION);
+    }
+
+    /**
+     * Raises the stamp to {@code version}; an expired stamp is replaced.
+     */
+    void raise(long msb, long lsb, int h, long version, long now) {
+        int bucket = find(msb, lsb, h);
+        if (bucket >= 0) {
+            int base = bucket * BUCKET_BYTES;
+            if (expired(bucket, now) || table.getLong(base + VERSION) < version) {
+                table.putLong(base + VERSION, version);
+            }
+            table.putLong(base + STAMPED_AT, now);
+            return;
+        }
+        if (size == capacity) {
+            dropOldest();
+        }
+        int i = h & tableMask;
+        while (!isEmpty(i)) {
+            i = (i + 1) & tableMask;
+        }
+        int base = i * BUCKET_BYTES;
+        table.putLong(base, msb);
+        table.putLong(base + 8, lsb);
+        table.putLong(base + VERSION, version);
+        table.putLong(base + STAMPED_AT, now);
+        int tail = (head + size) % capacity * RING_BYTES;
+        ring.putLong(tail, msb);
+        ring.putLong(tail + 8, lsb);
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void dropOldest() {
+        long msb = ring.getLong(head * RING_BYTES);
+        long lsb = ring.getLong(head * RING_BYTES + 8);
+        head = head + 1 == capacity ? 0 : head + 1;
+        size--;
+        delete(find(msb, lsb, (int) OffHeapGameStore.hash(msb, lsb)));
+    }
+
+    private int find(long msb, long lsb, int h) {
+        for (int i = h & tableMask; ; i = (i + 1) & tableMask) {
+            int base = i * BUCKET_BYTES;
+            long keyMsb = table.getLong(base);
+            long keyLsb = table.getLong(base + 8);
+            if (keyMsb == msb && keyLsb == lsb) {
+                return i;
+            }
+            if (keyMsb == 0 && keyLsb == 0) {
+                return -1;
+            }
+        }
+    }
+
+    private void delete(int index) {
+        // backward-shift deletion, as in the segment index
+        int hole = index;
+        for (int i = (index + 1) & tableMask; !isEmpty(i); i = (i + 1) & tableMask) {
+            int base = i * BUCKET_BYTES;
+            int home = (int) OffHeapGameStore.hash(table.getLong(base), table.getLong(base + 8)) & tableMask;
+            boolean stays = hole <= i ? hole < home && home <= i : hole < home || home <= i;
+            if (!stays) {
+                int to = hole * BUCKET_BYTES;
+                for (int offset = 0; offset < BUCKET_BYTES; offset += 8) {
+                    table.putLong(to + offset, table.getLong(base + offset));
+                }
+                hole = i;
+            }
+        }
+        table.putLong(hole * BUCKET_BYTES, 0);
+        table.putLong(hole * BUCKET_BYTES + 8, 0);
+    }
+
+    private boolean isEmpty(int bucket) {
+        int base = bucket * BUCKET_BYTES;
+        return table.getLong(base) == 0 && table.getLong(base + 8) == 0;
+    }
+
+    private boolean expired(int bucket, long now) {
+        return now - table.getLong(bucket * BUCKET_BYTES + STAMPED_AT) >= ttlMillis;
+    }
+}
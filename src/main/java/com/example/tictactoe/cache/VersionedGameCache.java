@@ -0,0 +1,220 @@
+package com.example.tictactoe.cache;
+
+import com.example.tictactoe.dto.GameDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+/**
+ * The {@code games} cache: a node-local near cache of {@link GameDto}s guarded by version stamps.
+ * <p>
+ * Every node remembers the newest version it has heard of for each game. It learns versions
+ * from its own writes and from invalidations other nodes broadcast. A cached DTO older than
+ * that stamp is never served, and a loaded DTO older than it is never stored, so a delayed
+ * read cannot bring back a board that has already changed.
+ * <p>
+ * {@code put}, {@code evict} and {@link #changed} are writes (from {@code @CachePut},
+ * {@code @CacheEvict} and services) and are broadcast. Inside a transaction they are applied,
+ * like {@code TransactionAwareCacheDecorator} does, only once it has committed: a stamp for a
+ * rolled-back version would hide the committed board until it expired. Fills through
+ * {@code get(key, loader)}, used by {@code @Cacheable(sync = true)}, are not broadcast.
+ * <p>
+ * Entries and stamps live in a {@link GameStore}: on the heap by default, or packed off-heap
+ * with {@code tictactoe.cache.store: off-heap} for nodes that keep millions of open games.
+ */
+@Slf4j
+public class VersionedGameCache implements Cache {
+
+    public static final String NAME = "games";
+
+    /**
+     * The version announced for a deleted game: no copy of it is fresh any more.
+     */
+    public static final long DELETED = Long.MAX_VALUE;
+
+    private final GameStore entries;
+    private final Counter staleReads;
+    private final Counter staleFills;
+    private final Counter remoteInvalidations;
+    private volatile GameCacheListener listener;
+
+    public VersionedGameCache(CacheProperties props, MeterRegistry registry) {
+        this.entries = props.store() == CacheProperties.Store.OFF_HEAP
+                ? new OffHeapGameStore(props, registry)
+                : new HeapGameStore(props, registry);
+        this.staleReads = Counter.builder("tictactoe.cache.stale")
+                .tag("phase", "read")
+                .description("Cached games not served because a newer version is known")
+                .register(registry);
+        this.staleFills = Counter.builder("tictactoe.cache.stale")
+                .tag("phase", "fill")
+                .description("Loaded games not cached because a newer version is known")
+                .register(registry);
+        this.remoteInvalidations = Counter.builder("tictactoe.cache.remote-invalidations")
+                .description("Invalidations received from other nodes")
+                .register(registry);
+    }
+
+    public void setListener(GameCacheListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the cached game if no newer version of it is known.
+     */
+    public GameDto getFresh(UUID gameId) {
+        GameDto cached = entries.get(gameId);
+        if (cached == null) {
+            return null;
+        }
+        long stamp = entries.stamp(gameId);
+        if (version(cached) < stamp) {
+            staleReads.increment();
+            entries.removeIfOlder(gameId, stamp);
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Caches a game read elsewhere (e.g. from its owner node) unless it is already outdated.
+     */
+    public void fill(GameDto game) {
+        if (version(game) < entries.stamp(game.gameId())) {
+            staleFills.increment();
+            return;
+        }
+        entries.putIfNewer(game);
+    }
+
+    /**
+     * Applies an invalidation broadcast by another node.
+     */
+    public void invalidateRemote(UUID gameId, long version) {
+        remoteInvalidations.increment();
+        if (version < 0) {
+            entries.remove(gameId);
+            return;
+        }
+        entries.stamp(gameId, version);
+        entries.removeIfOlder(gameId, version);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return entries;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        GameDto game = key instanceof UUID id ? getFresh(id) : null;
+        return game != null ? new SimpleValueWrapper(game) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        return wrapper != null ? (T) wrapper.get() : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        UUID gameId = (UUID) key;
+        GameDto cached = getFresh(gameId);
+        if (cached != null) {
+            return (T) cached;
+        }
+        T loaded;
+        try {
+            loaded = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (loaded instanceof GameDto game) {
+            fill(game);
+        }
+        return loaded;
+    }
+
+    /**
+     * Records a write that left the game at {@code version} without producing its DTO, e.g. a
+     * join or a bulk update; use {@link #DELETED} for a deleted game.
+     */
+    public void changed(UUID gameId, long version) {
+        afterCommit(() -> {
+            entries.stamp(gameId, version);
+            entries.removeIfOlder(gameId, version);
+            notifyListener(gameId, version);
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (!(key instanceof UUID gameId) || !(value instanceof GameDto game)) {
+            return;
+        }
+        long version = version(game);
+        afterCommit(() -> {
+            entries.stamp(gameId, version);
+            entries.put(game);
+            notifyListener(gameId, version);
+        });
+    }
+
+    /**
+     * Drops the entry without knowing the game's new version, so other nodes are sent
+     * {@code -1} and cannot reject late fills; writers that know it use {@link #changed}.
+     */
+    @Override
+    public void evict(Object key) {
+        if (key instanceof UUID gameId) {
+            afterCommit(() -> {
+                entries.remove(gameId);
+                notifyListener(gameId, -1);
+            });
+        }
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+    }
+
+    private static void afterCommit(Runnable write) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                write.run();
+            }
+        });
+    }
+
+    private void notifyListener(UUID gameId, long version) {
+        GameCacheListener target = listener;
+        if (target != null) {
+            target.invalidated(gameId, version);
+        }
+    }
+
+    private static long version(GameDto game) {
+        return GameStore.version(game);
+    }
+}
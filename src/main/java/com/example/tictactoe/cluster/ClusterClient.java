@@ -0,0 +1,145 @@
+package com.example.tictactoe.cluster;
+
+import com.example.tictactoe.dto.GameDto;
+import com.example.tictactoe.dto.MoveRequest;
+import com.example.tictactoe.dto.PlayerDto;
+import com.example.tictactoe.dto.TimeControl;
+import com.example.tictactoe.exception.ErrorResponse;
+import com.example.tictactoe.exception.GameNotFoundException;
+import com.example.tictactoe.exception.IdempotencyConflictException;
+import com.example.tictactoe.exception.InvalidMoveException;
+import com.example.tictactoe.exception.ThrottledException;
+import com.example.tictactoe.exception.ThrottledResponse;
+import com.example.tictactoe.idempotency.CommandResult;
+import com.example.tictactoe.logging.Correlation;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Forwards game commands to the node that owns the game. Error responses of the owner are
+ * turned back into the exceptions the local service would have thrown.
+ */
+@Component
+@ConditionalOnProperty(prefix = "tictactoe.cluster", name = "enabled", havingValue = "true")
+public class ClusterClient {
+
+    public static final String TOKEN_HEADER = "X-Cluster-Token";
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    // set by the owner when it answered from its recent commands; carries the original event's seq
+    static final String REPLAY_SEQ_HEADER = "X-Idempotent-Replay-Seq";
+
+    private final WebClient webClient;
+    private final ClusterProperties props;
+    private final MeterRegistry registry;
+
+    public ClusterClient(WebClient.Builder builder, ClusterProperties props, MeterRegistry registry) {
+        this.webClient = builder.defaultHeader(TOKEN_HEADER, props.token())
+                .filter(Correlation.forwarding())
+                .build();
+        this.props = props;
+        this.registry = registry;
+    }
+
+    public Mono<CommandResult<PlayerDto>> join(ClusterMember owner, UUID gameId, String name, String requestId) {
+        return forward("join", gameId, webClient.post()
+                .uri(owner.url() + "/internal/games/{gameId}/join", gameId)
+                .headers(headers -> idempotencyKey(headers, requestId))
+                .bodyValue(Map.of("name", name))
+                .retrieve()
+                .onStatus(status -> status.isError(), response -> error(response, gameId))
+                .toEntity(PlayerDto.class)
+                .map(ClusterClient::result));
+    }
+
+    public Mono<CommandResult<GameDto>> move(ClusterMember owner, UUID gameId, MoveRequest req, String requestId) {
+        return forward("move", gameId, webClient.post()
+                .uri(owner.url() + "/internal/games/{gameId}/move", gameId)
+                .headers(headers -> idempotencyKey(headers, requestId))
+                .bodyValue(req)
+                .retrieve()
+                .onStatus(status -> status.isError(), response -> error(response, gameId))
+                .toEntity(GameDto.class)
+                .map(ClusterClient::result));
+    }
+
+    public Mono<GameDto> get(ClusterMember owner, UUID gameId) {
+        return forward("get", gameId, webClient.get()
+                .uri(owner.url() + "/internal/games/{gameId}", gameId)
+                .retrieve()
+                .onStatus(status -> status.isError(), response -> error(response, gameId))
+                .bodyToMono(GameDto.class));
+    }
+
+    public Mono<GameDto> createMatched(ClusterMember owner, UUID gameId, String nameX, String nameO,
+                                       TimeControl timeControl) {
+        return forward("matched", gameId, webClient.post()
+                .uri(owner.url() + "/internal/games/{gameId}/matched", gameId)
+                .bodyValue(new InternalGameController.MatchedRequest(nameX, nameO, timeControl))
+                .retrieve()
+                .onStatus(status -> status.isError(), response -> error(response, gameId))
+                .bodyToMono(GameDto.class));
+    }
+
+    public Mono<Void> expire(ClusterMember owner, UUID gameId) {
+        return forward("expire", gameId, webClient.post()
+                .uri(owner.url() + "/internal/games/{gameId}/expire", gameId)
+                .retrieve()
+                .onStatus(status -> status.isError(), response -> error(response, gameId))
+                .toBodilessEntity()
+                .then());
+    }
+
+    private static void idempotencyKey(HttpHeaders headers, String requestId) {
+        if (requestId != null) {
+            headers.set(IDEMPOTENCY_KEY_HEADER, requestId);
+        }
+    }
+
+    private static <T> CommandResult<T> result(ResponseEntity<T> response) {
+        String replaySeq = response.getHeaders().getFirst(REPLAY_SEQ_HEADER);
+        return replaySeq != null
+                ? new CommandResult<>(response.getBody(), Long.parseLong(replaySeq), true)
+                // the owner's event reaches this node's subscribers through the relay
+                : CommandResult.executed(response.getBody(), -1);
+    }
+
+    private <T> Mono<T> forward(String action, UUID gameId, Mono<T> call) {
+        registry.counter("tictactoe.cluster.forwarded", "action", action).increment();
+        return call.timeout(props.forwardTimeout());
+    }
+
+    private Mono<Throwable> error(ClientResponse response, UUID gameId) {
+        HttpStatus status = HttpStatus.resolve(response.statusCode().value());
+        if (status == HttpStatus.TOO_MANY_REQUESTS) {
+            // the owner's own reason and back-off, so the client is told the same as on the owner
+            return response.bodyToMono(ThrottledResponse.class)
+                    .<Throwable>map(body -> new ThrottledException(body.message(), body.code(), body.retryAfterMs()))
+                    .defaultIfEmpty(new ThrottledException("Server overloaded", "OVERLOADED", 100));
+        }
+        return response.bodyToMono(ErrorResponse.class)
+                .map(ErrorResponse::message)
+                .defaultIfEmpty(response.statusCode().toString())
+                .map(message -> {
+                    if (status == HttpStatus.NOT_FOUND) {
+                        return new GameNotFoundException(gameId);
+                    }
+                    if (status == HttpStatus.BAD_REQUEST) {
+                        return new InvalidMoveException(message);
+                    }
+                    if (status == HttpStatus.CONFLICT) {
+                        return new IdempotencyConflictException(message);
+                    }
+                    return new IllegalStateException("Owner node failed with " + response.statusCode() + ": " + message);
+                });
+    }
+}
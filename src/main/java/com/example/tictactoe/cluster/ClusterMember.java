@@ -0,0 +1,3 @@
+package com.example.tictactoe.cluster;
+
+public record ClusterMember(String nodeId, String url) {}
@@ -0,0 +1,108 @@
+package com.example.tictactoe.cluster;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Live cluster members, tracked through heartbeats in the {@code cluster_node} table, and the
+ * consistent-hash ring built from them that decides which node owns a game. Every change of
+ * the ring is published as an {@link OwnershipChangedEvent}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "tictactoe.cluster", name = "enabled", havingValue = "true")
+public class ClusterMembership {
+
+    private final JdbcTemplate jdbc;
+    private final ClusterProperties props;
+    private final ClusterMember self;
+    private final ApplicationEventPublisher events;
+    private volatile ConsistentHashRing ring;
+    private volatile boolean leaving;
+
+    public ClusterMembership(JdbcTemplate jdbc, ClusterProperties props, MeterRegistry registry,
+                             ApplicationEventPublisher events) {
+        this.jdbc = jdbc;
+        this.props = props;
+        this.events = events;
+        this.self = new ClusterMember(props.nodeId(), props.advertisedUrl());
+        this.ring = new ConsistentHashRing(List.of(self), props.virtualNodes());
+        Gauge.builder("tictactoe.cluster.members", this, m -> m.ring.members().size())
+                .description("Live cluster members on the ownership ring")
+                .register(registry);
+    }
+
+    public ClusterMember self() {
+        return self;
+    }
+
+    public ClusterMember owner(UUID gameId) {
+        return ring.owner(gameId);
+    }
+
+    public boolean isLocal(UUID gameId) {
+        return owner(gameId).equals(self);
+    }
+
+    public Set<ClusterMember> members() {
+        return ring.members();
+    }
+
+    @Scheduled(fixedDelayString = "${tictactoe.cluster.heartbeat-interval}")
+    public void heartbeat() {
+        if (leaving) {
+            return;
+        }
+        long ttlMillis = props.memberTtl().toMillis();
+        Set<ClusterMember> live;
+        try {
+            jdbc.update("""
+                    INSERT INTO cluster_node (node_id, url, heartbeat_at) VALUES (?, ?, now())
+                    ON CONFLICT (node_id) DO UPDATE SET url = EXCLUDED.url, heartbeat_at = now()""",
+                    self.nodeId(), self.url());
+            jdbc.update("DELETE FROM cluster_node WHERE heartbeat_at < now() - (? * interval '1 millisecond')",
+                    ttlMillis * 10);
+            live = new HashSet<>(jdbc.query(
+                    "SELECT node_id, url FROM cluster_node WHERE heartbeat_at > now() - (? * interval '1 millisecond')",
+                    (rs, i) -> new ClusterMember(rs.getString("node_id"), rs.getString("url")),
+                    ttlMillis));
+        } catch (DataAccessException ex) {
+            log.warn("Cluster heartbeat failed, keeping {} known members", ring.members().size(), ex);
+            return;
+        }
+        live.add(self);
+        if (!live.equals(ring.members())) {
+            log.info("Cluster membership changed: {}", live);
+            ConsistentHashRing previous = ring;
+            ring = new ConsistentHashRing(live, props.virtualNodes());
+            events.publishEvent(new OwnershipChangedEvent(self, previous, ring));
+        }
+    }
+
+    /**
+     * Takes this node off the ring for good: the other nodes drop it at their next heartbeat and
+     * route its games elsewhere. Called when the node starts draining, and again on shutdown.
+     */
+    @PreDestroy
+    public void leave() {
+        leaving = true;
+        try {
+            jdbc.update("DELETE FROM cluster_node WHERE node_id = ?", self.nodeId());
+        } catch (DataAccessException ex) {
+            log.warn("Could not remove node {} from cluster_node", self.nodeId(), ex);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.tictactoe.cluster;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * @param token shared secret of {@code /internal} calls; required when enabled, and not the
+ *              {@value #PLACEHOLDER_TOKEN} placeholder older configurations shipped with
+ */
+@ConfigurationProperties(prefix = "tictactoe.cluster")
+public record ClusterProperties(
+        boolean enabled,
+        String nodeId,
+        String advertisedUrl,
+        String token,
+        Duration heartbeatInterval,
+        Duration memberTtl,
+        int virtualNodes,
+        String channel,
+        Duration forwardTimeout
+) {
+    static final String PLACEHOLDER_TOKEN = "change-me";
+
+    public ClusterProperties {
+        if (enabled && (token == null || token.isBlank() || token.equals(PLACEHOLDER_TOKEN))) {
+            throw new IllegalArgumentException("tictactoe.cluster.token (CLUSTER_TOKEN) must be set to a secret when clustering is enabled");
+        }
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+    }
+
+    /**
+     * Whether {@code presented} is this cluster's token, compared in constant time; never when
+     * clustering is disabled.
+     */
+    public boolean isToken(String presented) {
+        return enabled && presented != null
+                && MessageDigest.isEqual(presented.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+}
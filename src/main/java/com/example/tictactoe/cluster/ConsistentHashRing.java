@@ -0,0 +1,69 @@
+package com.example.tictactoe.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Immutable consistent-hash ring. Every member owns {@code virtualNodes} points on a 64-bit
+ * ring and a game belongs to the first point at or after the hash of its id, so a change in
+ * membership only moves the games next to the points that appeared or disappeared.
+ */
+public final class ConsistentHashRing {
+
+    private final long[] points;
+    private final ClusterMember[] owners;
+
+    public ConsistentHashRing(Collection<ClusterMember> members, int virtualNodes) {
+        TreeMap<Long, ClusterMember> ring = new TreeMap<>();
+        for (ClusterMember member : members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.putIfAbsent(hash(member.nodeId() + "#" + i), member);
+            }
+        }
+        this.points = new long[ring.size()];
+        this.owners = new ClusterMember[ring.size()];
+        int i = 0;
+        for (Map.Entry<Long, ClusterMember> point : ring.entrySet()) {
+            points[i] = point.getKey();
+            owners[i++] = point.getValue();
+        }
+    }
+
+    public ClusterMember owner(UUID gameId) {
+        if (points.length == 0) {
+            throw new IllegalStateException("Cluster has no members");
+        }
+        int idx = Arrays.binarySearch(points, hash(gameId));
+        if (idx < 0) {
+            idx = -idx - 1;
+        }
+        return owners[idx == points.length ? 0 : idx];
+    }
+
+    public Set<ClusterMember> members() {
+        return new HashSet<>(Arrays.asList(owners));
+    }
+
+    static long hash(UUID id) {
+        return mix(id.getMostSignificantBits() ^ mix(id.getLeastSignificantBits()));
+    }
+
+    static long hash(String key) {
+        // FNV-1a, then a final avalanche so that similar node names spread over the ring
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.tictactoe.cluster;
+
+import com.example.tictactoe.domain.Game;
+import com.example.tictactoe.domain.GameStatus;
+import com.example.tictactoe.repository.GameRepository;
+import com.example.tictactoe.timer.GameClock;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Arms the turn deadlines of running games this node takes over when the ring changes, for
+ * instance after their owner left. The previous owner's timers are left alone: when they fire,
+ * the expiry is routed to the new owner like any command, and expiring a turn twice is a no-op.
+ * <p>
+ * The ring changes on the heartbeat thread, so the running games are paged through on a thread
+ * of their own, one ring change after the other, and the heartbeat is never late because of it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "tictactoe.cluster", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class DeadlineHandover {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final UUID MIN_UUID = new UUID(0, 0);
+
+    private final GameRepository gameRepo;
+    private final GameClock clock;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().daemon().name("deadline-handover").factory());
+
+    @EventListener
+    public void onOwnershipChanged(OwnershipChangedEvent event) {
+        worker.execute(() -> handOver(event));
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.shutdownNow();
+    }
+
+    void handOver(OwnershipChangedEvent event) {
+        try {
+            int armed = 0;
+            Pageable page = PageRequest.of(0, BATCH_SIZE);
+            UUID afterId = MIN_UUID;
+            List<UUID> ids;
+            do {
+                ids = gameRepo.findTimedIdsAfter(GameStatus.IN_PROGRESS, afterId, page);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                afterId = ids.getLast();
+                List<UUID> gained = ids.stream().filter(event::gained).toList();
+                for (Game game : gained.isEmpty() ? List.<Game>of() : gameRepo.findAllById(gained)) {
+                    OffsetDateTime deadline = game.getTurnDeadline();
+                    if (deadline != null) {
+                        clock.schedule(game.getGameId(), deadline);
+                        armed++;
+                    }
+                }
+            } while (ids.size() == BATCH_SIZE && !Thread.currentThread().isInterrupted());
+            if (armed > 0) {
+                log.info("Armed {} turn deadlines of games taken over from other nodes", armed);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Could not arm the turn deadlines of games taken over from other nodes", ex);
+        }
+    }
+}
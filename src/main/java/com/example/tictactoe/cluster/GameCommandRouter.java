@@ -0,0 +1,155 @@
+package com.example.tictactoe.cluster;
+
+import com.example.tictactoe.cache.VersionedGameCache;
+import com.example.tictactoe.dto.GameDto;
+import com.example.tictactoe.dto.MoveRequest;
+import com.example.tictactoe.dto.PlayerDto;
+import com.example.tictactoe.dto.TimeControl;
+import com.example.tictactoe.event.GameEventPublisher;
+import com.example.tictactoe.id.IdGenerator;
+import com.example.tictactoe.idempotency.CommandResult;
+import com.example.tictactoe.idempotency.IdempotencyKey;
+import com.example.tictactoe.idempotency.RecentCommands;
+import com.example.tictactoe.ratelimit.LoadShedder;
+import com.example.tictactoe.service.GameCommandExecutor;
+import com.example.tictactoe.service.GameService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Entry point for commands on existing games. With clustering enabled a command runs on the
+ * node that owns the game, so that one JVM serializes its updates, keeps its cache and
+ * sequences its events; otherwise everything runs locally. Reads of remotely owned games are
+ * served from the local near cache while its version stamp says the entry is current.
+ * <p>
+ * {@code join} and {@code move} take an optional idempotency key. A retry with a known key is
+ * answered on the owner from {@link RecentCommands}, without a transaction and without a
+ * second event. A join's key is scoped to the game, a move's to the moving player.
+ */
+@Component
+@RequiredArgsConstructor
+public class GameCommandRouter {
+    private final GameService service;
+    private final GameCommandExecutor executor;
+    private final LoadShedder loadShedder;
+    private final GameEventPublisher publisher;
+    private final RecentCommands recentCommands;
+    private final VersionedGameCache gameCache;
+    private final ObjectProvider<ClusterMembership> membership;
+    private final ObjectProvider<ClusterClient> client;
+    private final IdGenerator ids;
+
+    public Mono<CommandResult<PlayerDto>> join(UUID gameId, String name, String requestId) {
+        ClusterMember owner = remoteOwner(gameId);
+        return owner == null
+                ? joinLocal(gameId, name, requestId)
+                : client.getObject().join(owner, gameId, name, requestId);
+    }
+
+    public Mono<CommandResult<GameDto>> move(UUID gameId, MoveRequest req, String requestId) {
+        ClusterMember owner = remoteOwner(gameId);
+        return owner == null
+                ? moveLocal(gameId, req, requestId)
+                : client.getObject().move(owner, gameId, req, requestId);
+    }
+
+    /**
+     * Starts a quickplay game on the node that will own it, whichever node matched the pair.
+     */
+    public Mono<GameDto> createMatched(String nameX, String nameO, TimeControl timeControl) {
+        UUID gameId = ids.next();
+        ClusterMember owner = remoteOwner(gameId);
+        return owner == null
+                ? createMatchedLocal(gameId, nameX, nameO, timeControl)
+                : client.getObject().createMatched(owner, gameId, nameX, nameO, timeControl);
+    }
+
+    public Mono<GameDto> get(UUID gameId) {
+        ClusterMember owner = remoteOwner(gameId);
+        if (owner == null) {
+            return getLocal(gameId);
+        }
+        GameDto cached = gameCache.getFresh(gameId);
+        return cached != null
+                ? Mono.just(cached)
+                : client.getObject().get(owner, gameId).doOnNext(gameCache::fill);
+    }
+
+    /**
+     * Finishes the game if its turn deadline has passed. Deadlines are armed where the turn
+     * started, which is not necessarily the owner by the time they fire.
+     */
+    public Mono<Void> expire(UUID gameId) {
+        ClusterMember owner = remoteOwner(gameId);
+        return owner == null
+                ? expireLocal(gameId)
+                : client.getObject().expire(owner, gameId);
+    }
+
+    // events are published under the game's lock, so that their seq follows commit order
+
+    Mono<CommandResult<PlayerDto>> joinLocal(UUID gameId, String name, String requestId) {
+        return local(gameId, "join", IdempotencyKey.join(gameId, requestId, name), () -> {
+            PlayerDto player = service.joinGame(gameId, name);
+            return CommandResult.executed(player, publisher.joined(gameId, player).seq());
+        });
+    }
+
+    Mono<CommandResult<GameDto>> moveLocal(UUID gameId, MoveRequest req, String requestId) {
+        return local(gameId, "move", IdempotencyKey.move(req, requestId), () -> {
+            GameDto game = service.makeMove(gameId, req);
+            return CommandResult.executed(game, publisher.updated(game).seq());
+        });
+    }
+
+    private <T> Mono<CommandResult<T>> local(UUID gameId, String command, IdempotencyKey key,
+                                             Supplier<CommandResult<T>> action) {
+        // most retries arrive after the original finished; answer those without a worker thread
+        CommandResult<T> previous;
+        try {
+            previous = recentCommands.find(gameId, command, key);
+        } catch (RuntimeException ex) {
+            return Mono.error(ex);
+        }
+        if (previous != null) {
+            return Mono.just(previous);
+        }
+        return loadShedder.execute(() -> executor.execute(gameId, command,
+                () -> recentCommands.run(gameId, command, key, action)));
+    }
+
+    Mono<GameDto> createMatchedLocal(UUID gameId, String nameX, String nameO, TimeControl timeControl) {
+        return loadShedder.execute(() -> service.createMatchedGame(gameId, nameX, nameO, timeControl));
+    }
+
+    Mono<Void> expireLocal(UUID gameId) {
+        // not shed: a dropped expiry would leave the game waiting for a move forever
+        return Mono.fromRunnable(() -> executor.execute(gameId, "expire", () -> {
+                    Optional<GameDto> finished = service.expireTurn(gameId);
+                    finished.ifPresent(publisher::updated);
+                    return finished;
+                }))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    Mono<GameDto> getLocal(UUID gameId) {
+        return loadShedder.execute(() -> service.getGame(gameId));
+    }
+
+    private ClusterMember remoteOwner(UUID gameId) {
+        ClusterMembership cluster = membership.getIfAvailable();
+        if (cluster == null) {
+            return null;
+        }
+        ClusterMember owner = cluster.owner(gameId);
+        return owner.equals(cluster.self()) ? null : owner;
+    }
+}
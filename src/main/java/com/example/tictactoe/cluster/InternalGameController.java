@@ -0,0 +1,91 @@
+package com.example.tictactoe.cluster;
+
+import com.example.tictactoe.dto.GameDto;
+import com.example.tictactoe.dto.MoveRequest;
+import com.example.tictactoe.dto.PlayerDto;
+import com.example.tictactoe.dto.TimeControl;
+import com.example.tictactoe.idempotency.CommandResult;
+import com.example.tictactoe.logging.Correlation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Receives commands forwarded by other nodes for games this node owns. They are executed
+ * locally even if this node's view of the ring disagrees, so a command is forwarded at most once.
+ */
+@RestController
+@RequestMapping("/internal/games")
+@ConditionalOnProperty(prefix = "tictactoe.cluster", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class InternalGameController {
+
+    record JoinRequest(String name) {}
+
+    record MatchedRequest(String nameX, String nameO, TimeControl timeControl) {}
+
+    private final GameCommandRouter commands;
+    private final ClusterProperties props;
+
+    @PostMapping("/{gameId}/join")
+    public Mono<ResponseEntity<PlayerDto>> join(
+            @RequestHeader(ClusterClient.TOKEN_HEADER) String token,
+            @RequestHeader(value = ClusterClient.IDEMPOTENCY_KEY_HEADER, required = false) String requestId,
+            @PathVariable("gameId") UUID gameId, @RequestBody JoinRequest req) {
+        authorize(token);
+        return commands.joinLocal(gameId, req.name(), requestId)
+                .map(InternalGameController::toResponse)
+                .contextWrite(context -> Correlation.game(context, gameId));
+    }
+
+    @PostMapping("/{gameId}/move")
+    public Mono<ResponseEntity<GameDto>> move(
+            @RequestHeader(ClusterClient.TOKEN_HEADER) String token,
+            @RequestHeader(value = ClusterClient.IDEMPOTENCY_KEY_HEADER, required = false) String requestId,
+            @PathVariable("gameId") UUID gameId, @RequestBody MoveRequest req) {
+        authorize(token);
+        return commands.moveLocal(gameId, req, requestId)
+                .map(InternalGameController::toResponse)
+                .contextWrite(context -> Correlation.game(context, gameId));
+    }
+
+    @PostMapping("/{gameId}/matched")
+    public Mono<GameDto> matched(@RequestHeader(ClusterClient.TOKEN_HEADER) String token,
+                                 @PathVariable("gameId") UUID gameId, @RequestBody MatchedRequest req) {
+        authorize(token);
+        return commands.createMatchedLocal(gameId, req.nameX(), req.nameO(), req.timeControl())
+                .contextWrite(context -> Correlation.game(context, gameId));
+    }
+
+    @PostMapping("/{gameId}/expire")
+    public Mono<Void> expire(@RequestHeader(ClusterClient.TOKEN_HEADER) String token, @PathVariable("gameId") UUID gameId) {
+        authorize(token);
+        return commands.expireLocal(gameId).contextWrite(context -> Correlation.game(context, gameId));
+    }
+
+    @GetMapping("/{gameId}")
+    public Mono<GameDto> get(@RequestHeader(ClusterClient.TOKEN_HEADER) String token, @PathVariable("gameId") UUID gameId) {
+        authorize(token);
+        return commands.getLocal(gameId).contextWrite(context -> Correlation.game(context, gameId));
+    }
+
+    private static <T> ResponseEntity<T> toResponse(CommandResult<T> result) {
+        var response = ResponseEntity.ok();
+        if (result.replayed()) {
+            response.header(ClusterClient.REPLAY_SEQ_HEADER, Long.toString(result.seq()));
+        }
+        return response.body(result.value());
+    }
+
+    private void authorize(String token) {
+        if (!props.isToken(token)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Invalid cluster token");
+        }
+    }
+}
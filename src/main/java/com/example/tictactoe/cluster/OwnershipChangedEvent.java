@@ -0,0 +1,16 @@
+package com.example.tictactoe.cluster;
+
+import java.util.UUID;
+
+/**
+ * The ownership ring changed, because a node joined, left or stopped sending heartbeats.
+ */
+public record OwnershipChangedEvent(ClusterMember self, ConsistentHashRing previous, ConsistentHashRing current) {
+
+    /**
+     * Whether this node owns the game now but did not before.
+     */
+    public boolean gained(UUID gameId) {
+        return current.owner(gameId).equals(self) && !previous.owner(gameId).equals(self);
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.tictactoe.cluster;
+
+import com.example.tictactoe.cache.GameCacheListener;
+import com.example.tictactoe.cache.VersionedGameCache;
+import com.example.tictactoe.event.GameEvent;
+import com.example.tictactoe.event.GameEventHub;
+import com.example.tictactoe.event.GameEventRelay;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans game events and {@code games} cache invalidations out to the other nodes over Postgres
+ * {@code LISTEN/NOTIFY}.
+ * <p>
+ * Events are queued in sequence order by the hub and sent by a single thread, so every node
+ * receives a game's events in the order the owner sequenced them. Receivers keep the owner's
+ * sequence numbers, which lets a client resume on any node. Invalidations share the queue and
+ * carry the version the writer stored, which receivers use as their stamp for the game. Both
+ * directions hold one dedicated connection from the pool.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "tictactoe.cluster", name = "enabled", havingValue = "true")
+public class PgNotifyRelay implements GameEventRelay, GameCacheListener, SmartLifecycle {
+
+    // NOTIFY payloads must stay below 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int MAX_PENDING = 10_000;
+
+    private final DataSource dataSource;
+    private final GameEventHub hub;
+    private final ObjectMapper mapper;
+    private final ClusterProperties props;
+    private final VersionedGameCache gameCache;
+    private final BlockingQueue<Object> outgoing = new LinkedBlockingQueue<>(MAX_PENDING);
+    // queued or in the sender's batch; counted up before the offer so that flush() never misses one
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Counter sent;
+    private final Counter received;
+    private final Counter dropped;
+    private final CompletableFuture<Void> listening = new CompletableFuture<>();
+    private volatile boolean running;
+    private Thread sender;
+    private Thread listener;
+
+    public PgNotifyRelay(DataSource dataSource, GameEventHub hub, ObjectMapper mapper, ClusterProperties props,
+                         VersionedGameCache gameCache, MeterRegistry registry) {
+        this.dataSource = dataSource;
+        this.hub = hub;
+        this.mapper = mapper;
+        this.props = props;
+        this.gameCache = gameCache;
+        this.sent = registry.counter("tictactoe.cluster.events", "direction", "sent");
+        this.received = registry.counter("tictactoe.cluster.events", "direction", "received");
+        this.dropped = registry.counter("tictactoe.cluster.events", "direction", "dropped");
+    }
+
+    @Override
+    public void relay(GameEvent event) {
+        if (!enqueue(event)) {
+            dropped.increment();
+            log.warn("Relay queue full, dropping event seq={} of game id={}", event.seq(), event.gameId());
+        }
+    }
+
+    @Override
+    public void invalidated(UUID gameId, long version) {
+        if (!enqueue(new Invalidation(gameId, version))) {
+            // receivers may now serve this game from cache until their entry expires
+            dropped.increment();
+            log.warn("Relay queue full, dropping cache invalidation of game id={}", gameId);
+        }
+    }
+
+    private boolean enqueue(Object message) {
+        pending.incrementAndGet();
+        if (outgoing.offer(message)) {
+            return true;
+        }
+        pending.decrementAndGet();
+        return false;
+    }
+
+    /**
+     * Waits until everything queued so far has been sent, for at most {@code timeout}.
+     *
+     * @return {@code false} if messages were still pending when the time was up
+     */
+    public boolean flush(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            while (pending.get() > 0) {
+                if (System.nanoTime() >= deadline) {
+                    return false;
+                }
+                Thread.sleep(10);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void send() {
+        List<Object> batch = new ArrayList<>();
+        while (running) {
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement notify = conn.prepareStatement("SELECT pg_notify(?, ?)")) {
+                while (running) {
+                    if (batch.isEmpty()) {
+                        Object first = outgoing.poll(1, TimeUnit.SECONDS);
+                        if (first == null) {
+                            continue;
+                        }
+                        batch.add(first);
+                        outgoing.drainTo(batch, 255);
+                    }
+                    while (!batch.isEmpty()) {
+                        Object message = batch.getFirst();
+                        String payload = payload(message);
+                        if (payload.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES) {
+                            notify.setString(1, props.channel());
+                            notify.setString(2, payload);
+                            notify.execute();
+                            sent.increment();
+                        } else {
+                            dropped.increment();
+                            log.warn("Message {} too large to relay", message);
+                        }
+                        batch.removeFirst();
+                        pending.decrementAndGet();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (SQLException | RuntimeException e) {
+                log.warn("Relaying events failed, retrying", e);
+                pause();
+            }
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection conn = dataSource.getConnection()) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("LISTEN \"" + props.channel() + "\"");
+                }
+                PGConnection pg = conn.unwrap(PGConnection.class);
+                log.info("Listening for game events on channel '{}'", props.channel());
+                // invalidations sent while this node was not listening are lost
+                gameCache.clear();
+                listening.complete(null);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(500);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    log.warn("Event listener connection lost, reconnecting", e);
+                    pause();
+                }
+            }
+        }
+    }
+
+    private String payload(Object message) {
+        try {
+            return mapper.writeValueAsString(switch (message) {
+                case GameEvent event -> Map.of("kind", "event", "node", props.nodeId(),
+                        "gameId", event.gameId(), "seq", event.seq(), "frame", event.frame());
+                case Invalidation inv -> Map.of("kind", "invalidate", "node", props.nodeId(),
+                        "gameId", inv.gameId(), "version", inv.version());
+                default -> throw new IllegalArgumentException("Unknown message " + message);
+            });
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot serialize event", e);
+        }
+    }
+
+    private void receive(String payload) {
+        try {
+            JsonNode node = mapper.readTree(payload);
+            if (props.nodeId().equals(node.path("node").asText())) {
+                return;
+            }
+            UUID gameId = UUID.fromString(node.path("gameId").asText());
+            if ("invalidate".equals(node.path("kind").asText())) {
+                gameCache.invalidateRemote(gameId, node.path("version").asLong(-1));
+                return;
+            }
+            hub.publishRelayed(new GameEvent(gameId, node.path("seq").asLong(), node.path("frame").asText()));
+            received.increment();
+        } catch (Exception e) {
+            log.warn("Ignoring malformed relayed message: {}", payload, e);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Completes once this node listens for the first time. Games cached before that are
+     * dropped, so cache warm-up waits for it.
+     */
+    public CompletableFuture<Void> listening() {
+        return listening;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        hub.relayTo(this);
+        gameCache.setListener(this);
+        sender = Thread.ofPlatform().daemon().name("cluster-event-sender").start(this::send);
+        listener = Thread.ofPlatform().daemon().name("cluster-event-listener").start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        hub.relayTo(null);
+        gameCache.setListener(null);
+        for (Thread thread : new Thread[]{sender, listener}) {
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private record Invalidation(UUID gameId, long version) {}
+}
@@ -1,23 +1,38 @@
 package com.example.tictactoe.config;
 
+import com.example.tictactoe.cache.CacheProperties;
+import com.example.tictactoe.cache.VersionedGameCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
+import java.util.List;
 
 @Configuration
 @EnableCaching
 public class CaffeineConfig {
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cm = new CaffeineCacheManager("games");
-        cm.setCaffeine(Caffeine.newBuilder()
-                .expireAfterWrite(1, TimeUnit.HOURS)
-                .maximumSize(10_000));
+    public VersionedGameCache gameCache(CacheProperties props, MeterRegistry registry) {
+        return new VersionedGameCache(props, registry);
+    }
+
+    @Bean
+    public CacheManager cacheManager(VersionedGameCache gameCache, CacheProperties props, MeterRegistry registry) {
+        // lobby lists change with every game; a short TTL bounds how stale other nodes can be
+        CaffeineCache lobby = new CaffeineCache("lobby", Caffeine.newBuilder()
+                .expireAfterWrite(props.lobbyTtl())
+                .maximumSize(props.lobbyMaxSize())
+                .recordStats()
+                .build());
+        CaffeineCacheMetrics.monitor(registry, lobby.getNativeCache(), lobby.getName(), "cache.manager", "cacheManager");
+        SimpleCacheManager cm = new SimpleCacheManager();
+        cm.setCaches(List.of(gameCache, lobby));
         return cm;
     }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.example.tictactoe.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.ValidateResult;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * What Flyway does while the context starts, see {@link StartupProperties.FlywayMode}.
+ * Instances added to an already migrated deployment use {@code validate-after-ready}: they
+ * skip the schema history round trips on the startup path and check the schema afterwards.
+ * A mismatch is logged and counted, but does not take the instance down.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FlywayStartup implements FlywayMigrationStrategy, ApplicationListener<ApplicationReadyEvent> {
+
+    private final StartupProperties props;
+    private final MeterRegistry registry;
+    private volatile Flyway deferred;
+
+    @Override
+    public void migrate(Flyway flyway) {
+        if (props.flyway() == StartupProperties.FlywayMode.MIGRATE) {
+            flyway.migrate();
+            return;
+        }
+        log.info("Deferring Flyway validation until the application is ready");
+        deferred = flyway;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        Flyway flyway = deferred;
+        if (flyway != null) {
+            deferred = null;
+            Thread.ofPlatform().daemon().name("flyway-validate").start(() -> validate(flyway));
+        }
+    }
+
+    private void validate(Flyway flyway) {
+        String outcome;
+        try {
+            ValidateResult result = flyway.validateWithResult();
+            if (result.validationSuccessful) {
+                outcome = "valid";
+                log.info("Deferred Flyway validation passed");
+            } else {
+                outcome = "invalid";
+                log.error("Schema does not match the migrations of this build: {}", result.getAllErrorMessages());
+            }
+        } catch (RuntimeException e) {
+            outcome = "error";
+            log.error("Deferred Flyway validation failed", e);
+        }
+        Counter.builder("tictactoe.startup.flyway.validations")
+                .description("Deferred schema validations")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+}
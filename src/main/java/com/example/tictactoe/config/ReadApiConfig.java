@@ -0,0 +1,22 @@
+package com.example.tictactoe.config;
+
+import com.example.tictactoe.api.GameReadHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+@Configuration
+public class ReadApiConfig {
+
+    @Bean
+    public RouterFunction<ServerResponse> gameReadRoutes(GameReadHandler handler) {
+        return route()
+                .GET("/api/games", handler::lobby)
+                .GET("/api/games/{gameId}", handler::game)
+                .GET("/api/games/{gameId}/events", handler::events)
+                .build();
+    }
+}
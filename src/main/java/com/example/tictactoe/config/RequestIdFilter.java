@@ -1,6 +1,10 @@
 package com.example.tictactoe.config;
 
-import org.slf4j.MDC;
+import com.example.tictactoe.cluster.ClusterClient;
+import com.example.tictactoe.cluster.ClusterProperties;
+import com.example.tictactoe.logging.Correlation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
@@ -9,12 +13,34 @@ import reactor.core.publisher.Mono;
 
 import java.util.UUID;
 
+/**
+ * Gives every HTTP request a correlation id in the Reactor context, taking the one a
+ * forwarding node sent along. The id reaches the MDC on whatever thread the request runs.
+ * Only {@code /internal} calls carrying the cluster token may bring their own id; anyone else
+ * could otherwise plant ids in our logs.
+ */
 @Component
+@RequiredArgsConstructor
 public class RequestIdFilter implements WebFilter {
+    // longer ids are not from a node of ours
+    private static final int MAX_INBOUND_LENGTH = 128;
+    private static final String INTERNAL_PATH = "/internal/";
+
+    private final ClusterProperties cluster;
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
-        MDC.put("requestId", UUID.randomUUID().toString());
+        String inbound = fromNode(exchange) ? exchange.getRequest().getHeaders().getFirst(Correlation.HEADER) : null;
+        String requestId = inbound != null && !inbound.isBlank() && inbound.length() <= MAX_INBOUND_LENGTH
+                ? inbound
+                : UUID.randomUUID().toString();
         return chain.filter(exchange)
-                .doFinally(signal -> MDC.remove("requestId"));
+                .contextWrite(context -> context.put(Correlation.REQUEST_ID, requestId));
+    }
+
+    private boolean fromNode(ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        return exchange.getRequest().getPath().pathWithinApplication().value().startsWith(INTERNAL_PATH)
+                && cluster.isToken(headers.getFirst(ClusterClient.TOKEN_HEADER));
     }
 }
@@ -0,0 +1,21 @@
+package com.example.tictactoe.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "tictactoe.startup")
+public record StartupProperties(
+        FlywayMode flyway
+) {
+    public enum FlywayMode {
+        /** migrate (and thereby validate) the schema before the context is up */
+        MIGRATE,
+        /** leave the schema alone at startup and validate it in the background once ready */
+        VALIDATE_AFTER_READY
+    }
+
+    public StartupProperties {
+        if (flyway == null) {
+            flyway = FlywayMode.MIGRATE;
+        }
+    }
+}
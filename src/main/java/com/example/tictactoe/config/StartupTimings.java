@@ -0,0 +1,36 @@
+package com.example.tictactoe.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records how long after JVM start this instance served its first move: the figure that
+ * matters when a new instance is added under load.
+ */
+@Slf4j
+@Component
+public class StartupTimings {
+
+    private final AtomicLong firstMoveMillis = new AtomicLong(-1);
+
+    public StartupTimings(MeterRegistry registry) {
+        TimeGauge.builder("tictactoe.startup.first-move", firstMoveMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Time from JVM start to the first move served, -1 until then")
+                .register(registry);
+    }
+
+    public void moveServed() {
+        if (firstMoveMillis.get() < 0) {
+            long millis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+            if (firstMoveMillis.compareAndSet(-1, millis)) {
+                log.info("First move served {} ms after JVM start", millis);
+            }
+        }
+    }
+}
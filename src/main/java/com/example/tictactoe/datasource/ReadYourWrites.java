@@ -0,0 +1,72 @@
+package com.example.tictactoe.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Keeps reads of recently written games on the primary. A game written on this node is
+ * remembered for {@link ReplicaProperties#readYourWritesWindow()}; a read-only transaction that
+ * reads such a game is pinned to the primary, so that a player never sees a board from before
+ * their own move. Commands on a game all run on its owner node, so tracking per node is enough.
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final Cache<UUID, Boolean> recentWrites;
+    private final boolean enabled;
+
+    public ReadYourWrites(ReplicaProperties props) {
+        this.enabled = props.enabled();
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(props.readYourWritesWindow())
+                .build();
+    }
+
+    /**
+     * Records a write of the game; inside a transaction the window starts at commit.
+     */
+    public void wrote(UUID gameId) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWrites.put(gameId, Boolean.TRUE);
+                }
+            });
+        } else {
+            recentWrites.put(gameId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Pins the current transaction to the primary if the game was written recently. Must be
+     * called before the transaction's first statement, which is when its connection is chosen.
+     */
+    public void reading(UUID gameId) {
+        if (!enabled || !TransactionSynchronizationManager.isSynchronizationActive()
+                || recentWrites.getIfPresent(gameId) == null) {
+            return;
+        }
+        PINNED.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                PINNED.remove();
+            }
+        });
+    }
+
+    static boolean isPinnedToPrimary() {
+        return PINNED.get() != null;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.tictactoe.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured pool when replicas are configured. The {@code DataSource} bean is
+ * a lazy proxy that picks its target at the transaction's first statement: read-only
+ * transactions, such as {@code getGame} and {@code listGames}, go through
+ * {@link ReplicaRoutingDataSource}, everything else (including Flyway) uses the primary pool.
+ * The pools themselves are not autowire candidates, so nothing bypasses the proxy by accident;
+ * the proxy is also {@code @Primary}, since conditions such as JPA's single-candidate check still
+ * see the pools.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "tictactoe.datasource", name = "replicas[0].url")
+public class ReplicaDataSourceConfig {
+
+    @Bean(autowireCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, MeterRegistry registry) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        // not an autowire candidate, so Boot's pool metrics would not find it
+        primary.setMetricRegistry(registry);
+        return primary;
+    }
+
+    @Bean(autowireCandidate = false)
+    public ReplicaRoutingDataSource replicaDataSource(DataSourceProperties properties, ReplicaProperties props,
+                                                      MeterRegistry registry) {
+        HikariDataSource primary = primaryDataSource(properties, registry);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < props.replicas().size(); i++) {
+            ReplicaProperties.Replica replica = props.replicas().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(replica.url());
+            pool.setUsername(replica.username() != null ? replica.username() : properties.determineUsername());
+            pool.setPassword(replica.password() != null ? replica.password() : properties.determinePassword());
+            if (primary.getMaximumPoolSize() > 0) {
+                pool.setMaximumPoolSize(primary.getMaximumPoolSize());
+            }
+            pool.setReadOnly(true);
+            // a replica that is down at startup is simply kept out of rotation
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricRegistry(registry);
+            replicas.put(pool.getPoolName(), pool);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, props.maxLag(), registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, ReplicaProperties props, MeterRegistry registry) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource(properties, registry));
+        dataSource.setReadOnlyDataSource(replicaDataSource(properties, props, registry));
+        return dataSource;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.tictactoe.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "tictactoe.datasource")
+public record ReplicaProperties(
+        List<Replica> replicas,
+        Duration maxLag,
+        Duration lagCheckInterval
+) {
+    public ReplicaProperties {
+        replicas = replicas == null ? List.of() : List.copyOf(replicas);
+    }
+
+    public boolean enabled() {
+        return !replicas.isEmpty();
+    }
+
+    /**
+     * How long reads of a game stay on the primary after it was written: a replica is only
+     * used while its lag, measured at most one check ago, is within {@code maxLag}.
+     */
+    public Duration readYourWritesWindow() {
+        return maxLag.plus(lagCheckInterval);
+    }
+
+    /**
+     * A streaming replica of the primary; credentials default to {@code spring.datasource}'s.
+     */
+    public record Replica(String url, String username, String password) {}
+}
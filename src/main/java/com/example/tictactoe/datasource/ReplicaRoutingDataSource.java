@@ -0,0 +1,152 @@
+package com.example.tictactoe.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connections for read-only transactions. They go round-robin to the replicas whose
+ * replication lag was within {@code maxLag} at the last check, and to the primary when the
+ * transaction was pinned by {@link ReadYourWrites} or no replica qualifies.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    // a replica that is not replaying WAL has nothing to catch up with, however old its last replayed commit
+    private static final String LAG_SQL = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END""";
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter replicaReads;
+    private final Counter pinnedReads;
+    private final Counter fallbackReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag,
+                                    MeterRegistry registry) {
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            Gauge.builder("tictactoe.datasource.replica.lag", replica, r -> r.lagMillis / 1000.0)
+                    .tag("replica", name)
+                    .description("Replication lag at the last check, -1 when unreachable")
+                    .baseUnit("seconds")
+                    .register(registry);
+        });
+        this.maxLagMillis = maxLag.toMillis();
+        this.replicaReads = reads(registry, "replica", "lag-within-bounds");
+        this.pinnedReads = reads(registry, "primary", "read-your-writes");
+        this.fallbackReads = reads(registry, "primary", "no-replica");
+    }
+
+    private static Counter reads(MeterRegistry registry, String target, String reason) {
+        return Counter.builder("tictactoe.datasource.reads")
+                .tag("target", target)
+                .tag("reason", reason)
+                .description("Read-only transactions by the database they ran on")
+                .register(registry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (ReadYourWrites.isPinnedToPrimary()) {
+            pinnedReads.increment();
+            return PRIMARY;
+        }
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (replica.isUsable(maxLagMillis)) {
+                replicaReads.increment();
+                return replica.name;
+            }
+        }
+        fallbackReads.increment();
+        return PRIMARY;
+    }
+
+    @Scheduled(fixedDelayString = "${tictactoe.datasource.lag-check-interval}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            long lagMillis;
+            try {
+                Double lagSeconds = replica.jdbc.queryForObject(LAG_SQL, Double.class);
+                lagMillis = lagSeconds == null ? -1 : Math.round(lagSeconds * 1000);
+            } catch (DataAccessException ex) {
+                if (replica.lagMillis >= 0) {
+                    log.warn("Replica '{}' unreachable, routing its reads elsewhere", replica.name, ex);
+                }
+                lagMillis = -1;
+            }
+            updateLag(replica.name, lagMillis);
+        }
+    }
+
+    /**
+     * Package-private for tests, which feed lag values instead of querying replicas.
+     */
+    void updateLag(String name, long lagMillis) {
+        for (Replica replica : replicas) {
+            if (replica.name.equals(name)) {
+                boolean wasUsable = replica.isUsable(maxLagMillis);
+                replica.lagMillis = lagMillis;
+                if (wasUsable != replica.isUsable(maxLagMillis)) {
+                    log.info("Replica '{}' {} (lag {} ms)", name, wasUsable ? "taken out of rotation" : "in rotation", lagMillis);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbc;
+        // unknown until the first check, which keeps the replica out of rotation until then
+        private volatile long lagMillis = -1;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.jdbc = new JdbcTemplate(dataSource);
+        }
+
+        private boolean isUsable(long maxLagMillis) {
+            return lagMillis >= 0 && lagMillis <= maxLagMillis;
+        }
+    }
+}
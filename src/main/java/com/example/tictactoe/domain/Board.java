@@ -0,0 +1,113 @@
+package com.example.tictactoe.domain;
+
+import java.util.List;
+
+/**
+ * The rules of the game on a board packed into one {@code int}: bits 0-8 hold X's cells and
+ * bits 9-17 O's, cell {@code row * 3 + col}. X moves first and the players alternate, so the
+ * side to move follows from the board itself. Boards are plain values; nothing here allocates.
+ */
+public final class Board {
+
+    public static final int EMPTY = 0;
+    public static final int SIZE = 3;
+    public static final int CELLS = 9;
+    public static final int ALL_CELLS = (1 << CELLS) - 1;
+
+    private static final int[] LINES = {
+            0b000_000_111, 0b000_111_000, 0b111_000_000,
+            0b001_001_001, 0b010_010_010, 0b100_100_100,
+            0b100_010_001, 0b001_010_100
+    };
+    // WINS[cells] is whether that set of one player's cells completes a line
+    private static final boolean[] WINS = new boolean[1 << CELLS];
+
+    static {
+        for (int cells = 0; cells < WINS.length; cells++) {
+            for (int line : LINES) {
+                if ((cells & line) == line) {
+                    WINS[cells] = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    private Board() {}
+
+    public static boolean isOnBoard(int row, int col) {
+        return row >= 0 && row < SIZE && col >= 0 && col < SIZE;
+    }
+
+    /**
+     * Only meaningful for coordinates {@link #isOnBoard on the board}: e.g. (0, 3) is cell 3 too.
+     */
+    public static int cell(int row, int col) {
+        return row * 3 + col;
+    }
+
+    public static int cells(int board, Symbol symbol) {
+        return symbol == Symbol.X ? board & ALL_CELLS : board >>> CELLS;
+    }
+
+    public static int free(int board) {
+        return ~(board | board >>> CELLS) & ALL_CELLS;
+    }
+
+    public static boolean isFree(int board, int cell) {
+        return (free(board) & 1 << cell) != 0;
+    }
+
+    public static int plies(int board) {
+        return Integer.bitCount(board);
+    }
+
+    public static Symbol toMove(int board) {
+        return (plies(board) & 1) == 0 ? Symbol.X : Symbol.O;
+    }
+
+    public static boolean completesLine(int cells) {
+        return WINS[cells];
+    }
+
+    /**
+     * The board after the side to move takes {@code cell}.
+     *
+     * @throws IllegalArgumentException if the cell is off the board or already taken
+     */
+    public static int play(int board, int cell) {
+        if (cell < 0 || cell >= CELLS || !isFree(board, cell)) {
+            throw new IllegalArgumentException("Cell " + cell + " is not free");
+        }
+        return board | 1 << (toMove(board) == Symbol.X ? cell : cell + CELLS);
+    }
+
+    /**
+     * The player with a completed line, X first should both have one, or null.
+     */
+    public static Symbol winner(int board) {
+        if (WINS[board & ALL_CELLS]) {
+            return Symbol.X;
+        }
+        return WINS[board >>> CELLS] ? Symbol.O : null;
+    }
+
+    public static boolean isOver(int board) {
+        return winner(board) != null || free(board) == 0;
+    }
+
+    /**
+     * Places the moves as recorded, whoever made them; cells off the board are ignored.
+     */
+    public static int of(List<Move> moves) {
+        int board = EMPTY;
+        for (Move move : moves) {
+            if (move.getRow() < 0 || move.getRow() > 2 || move.getCol() < 0 || move.getCol() > 2) {
+                continue;
+            }
+            int bit = 1 << cell(move.getRow(), move.getCol());
+            board |= move.getPlayer().getSymbol() == Symbol.X ? bit : bit << CELLS;
+        }
+        return board;
+    }
+}
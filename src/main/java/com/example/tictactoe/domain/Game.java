@@ -5,6 +5,7 @@ import lombok.*;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.*;
 
@@ -39,16 +40,63 @@ public class Game {
     @Column(name = "winner", columnDefinition = "symbol")
     private Symbol winner;
 
+    private Long moveTimeLimitMs;
+    private Long totalTimeMs;
+    private Long xTimeLeftMs;
+    private Long oTimeLeftMs;
+    private OffsetDateTime turnStartedAt;
+    // the last join or move; the reaper finishes running games idle for too long
+    private OffsetDateTime lastActivityAt;
+    // finished by the reaper rather than by play
+    private boolean abandoned;
+
     @OneToMany(mappedBy = "game", fetch = FetchType.LAZY)
     private List<Player> players = new ArrayList<>();
 
     @OneToMany(mappedBy = "game", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Move> moves = new ArrayList<>();
 
+    public boolean isTimed() {
+        return moveTimeLimitMs != null || totalTimeMs != null;
+    }
+
+    public Long getTimeLeftMs(Symbol symbol) {
+        return symbol == Symbol.X ? xTimeLeftMs : oTimeLeftMs;
+    }
+
+    public void setTimeLeftMs(Symbol symbol, Long timeLeftMs) {
+        if (symbol == Symbol.X) {
+            xTimeLeftMs = timeLeftMs;
+        } else {
+            oTimeLeftMs = timeLeftMs;
+        }
+    }
+
+    /**
+     * The moment the player to move loses on time, or {@code null} for untimed games.
+     */
+    public OffsetDateTime getTurnDeadline() {
+        if (!isTimed() || status != GameStatus.IN_PROGRESS || turnStartedAt == null) {
+            return null;
+        }
+        long allowed = Long.MAX_VALUE;
+        if (moveTimeLimitMs != null) {
+            allowed = moveTimeLimitMs;
+        }
+        Long bank = getTimeLeftMs(nextTurn);
+        if (bank != null) {
+            allowed = Math.min(allowed, bank);
+        }
+        return turnStartedAt.plus(Duration.ofMillis(allowed));
+    }
+
     public String getResult() {
         if (status != GameStatus.FINISHED) {
             return null;
         }
+        if (abandoned) {
+            return "ABANDONED";
+        }
         return winner != null
                 ? winner.name()
                 : "DRAW";
@@ -0,0 +1,12 @@
+package com.example.tictactoe.dto;
+
+import java.time.OffsetDateTime;
+
+public record ClockDto(
+        Long moveTimeMs,
+        Long totalTimeMs,
+        Long xTimeLeftMs,
+        Long oTimeLeftMs,
+        OffsetDateTime turnStartedAt,
+        OffsetDateTime turnDeadline
+) {}
@@ -15,5 +15,7 @@ public record GameDto(
         List<PlayerDto> players,
         List<MoveDto> moves,
         String result,
-        Symbol winner
+        Symbol winner,
+        ClockDto clock,
+        Long version
 ) {}
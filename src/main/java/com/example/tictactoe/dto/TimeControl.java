@@ -0,0 +1,14 @@
+package com.example.tictactoe.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+
+public record TimeControl(
+        @Positive @Max(TimeControl.MAX_MS) Long moveTimeMs,
+        @Positive @Max(TimeControl.MAX_MS) Long totalTimeMs
+) {
+    /**
+     * The longest move limit or time bank accepted: one day.
+     */
+    public static final long MAX_MS = 24 * 60 * 60 * 1000L;
+}
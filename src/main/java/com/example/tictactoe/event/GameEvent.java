@@ -0,0 +1,5 @@
+package com.example.tictactoe.event;
+
+import java.util.UUID;
+
+public record GameEvent(UUID gameId, long seq, String frame) {}
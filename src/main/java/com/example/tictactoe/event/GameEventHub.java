@@ -0,0 +1,148 @@
+package com.example.tictactoe.event;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+
+/**
+ * Per-game event sequencing, short replay history and fan-out to subscribed clients.
+ */
+@Slf4j
+@Component
+public class GameEventHub {
+
+    public record ResumeResult(boolean replayed, int events, long seq) {}
+
+    private final GameEventProperties props;
+    private final Cache<UUID, GameEventRing> rings;
+    private final Map<UUID, Set<GameEventSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private volatile GameEventRelay relay;
+
+    public GameEventHub(GameEventProperties props) {
+        this.props = props;
+        this.rings = Caffeine.newBuilder()
+                .expireAfterAccess(props.ringIdleExpiry())
+                .maximumSize(props.maxActiveGames())
+                .build();
+    }
+
+    /**
+     * Sends every event sequenced on this node to {@code relay} as well. The relay is called
+     * under the game's lock, in sequence order, and must not block.
+     */
+    public void relayTo(GameEventRelay relay) {
+        this.relay = relay;
+    }
+
+    /**
+     * Appends an event to the game's history and delivers it to every subscriber, including
+     * the client that issued the command, so that each client sees the game's events in order.
+     */
+    public GameEvent publish(UUID gameId, LongFunction<String> frameFactory) {
+        GameEventRing ring = ring(gameId);
+        synchronized (ring) {
+            GameEvent event = ring.append(frameFactory);
+            deliver(event);
+            GameEventRelay target = relay;
+            if (target != null) {
+                target.relay(event);
+            }
+            return event;
+        }
+    }
+
+    /**
+     * Delivers an event that was sequenced on another node, keeping its sequence number.
+     * Events that were already delivered are ignored.
+     */
+    public void publishRelayed(GameEvent event) {
+        GameEventRing ring = ring(event.gameId());
+        synchronized (ring) {
+            if (ring.appendAt(event)) {
+                deliver(event);
+            }
+        }
+    }
+
+    private void deliver(GameEvent event) {
+        Set<GameEventSubscriber> targets = subscribers.get(event.gameId());
+        if (targets != null) {
+            for (GameEventSubscriber target : targets) {
+                target.deliver(event);
+            }
+        }
+    }
+
+    /**
+     * Subscribes to the game's events and returns the sequence number the subscriber is now
+     * at; every later event is delivered to it.
+     */
+    public long subscribe(UUID gameId, GameEventSubscriber subscriber) {
+        GameEventRing ring = ring(gameId);
+        synchronized (ring) {
+            addSubscriber(gameId, subscriber);
+            return ring.lastSeq();
+        }
+    }
+
+    /**
+     * Subscribes a reconnecting client. When the events after {@code lastSeq} are still held
+     * in memory they are delivered to the subscriber before any newer event.
+     */
+    public ResumeResult resume(UUID gameId, GameEventSubscriber subscriber, long lastSeq) {
+        GameEventRing ring = ring(gameId);
+        synchronized (ring) {
+            addSubscriber(gameId, subscriber);
+            List<GameEvent> missed = ring.since(lastSeq);
+            if (missed == null) {
+                log.debug("Replay gap too large for game id={} (lastSeq={}), falling back to snapshot", gameId, lastSeq);
+                return new ResumeResult(false, 0, ring.lastSeq());
+            }
+            missed.forEach(subscriber::deliver);
+            return new ResumeResult(true, missed.size(), ring.lastSeq());
+        }
+    }
+
+    /**
+     * The sequence number of the game's last event on this node, 0 if it has none.
+     */
+    public long lastSeq(UUID gameId) {
+        GameEventRing ring = rings.getIfPresent(gameId);
+        return ring != null ? ring.lastSeq() : 0;
+    }
+
+    public void unsubscribe(UUID gameId, GameEventSubscriber subscriber) {
+        subscribers.computeIfPresent(gameId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    public boolean isSubscribed(UUID gameId) {
+        return subscribers.containsKey(gameId);
+    }
+
+    public int subscribedGames() {
+        return subscribers.size();
+    }
+
+    private void addSubscriber(UUID gameId, GameEventSubscriber subscriber) {
+        subscribers.compute(gameId, (id, set) -> {
+            Set<GameEventSubscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+    }
+
+    private GameEventRing ring(UUID gameId) {
+        return rings.get(gameId, id -> new GameEventRing(id, props.ringCapacity()));
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.tictactoe.event;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "tictactoe.events")
+public record GameEventProperties(
+        int ringCapacity,
+        Duration ringIdleExpiry,
+        long maxActiveGames
+) {}
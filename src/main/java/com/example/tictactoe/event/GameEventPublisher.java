@@ -0,0 +1,52 @@
+package com.example.tictactoe.event;
+
+import com.example.tictactoe.dto.GameDto;
+import com.example.tictactoe.dto.PlayerDto;
+import com.example.tictactoe.jfr.Phase;
+import com.example.tictactoe.jfr.PhaseEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Turns game state changes into sequenced event frames, so that socket commands and
+ * turn timeouts reach subscribers through the same path.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GameEventPublisher {
+    private final GameEventHub hub;
+    private final ObjectMapper mapper;
+
+    public GameEvent joined(UUID gameId, PlayerDto player) {
+        return hub.publish(gameId, seq -> frame("joined", gameId, seq, "player", player));
+    }
+
+    public GameEvent updated(GameDto game) {
+        return hub.publish(game.gameId(), seq -> frame("update", game.gameId(), seq, "game", game));
+    }
+
+    public String frame(String type, UUID gameId, long seq, String key, Object payload) {
+        PhaseEvent event = new PhaseEvent();
+        event.begin();
+        String json = toJson(Map.of("type", type, "gameId", gameId, "seq", seq, key, payload));
+        event.end();
+        event.commit(type, gameId, Phase.SERIALIZE, json.startsWith("{\"error\"") ? "error" : "ok");
+        return json;
+    }
+
+    private String toJson(Object frame) {
+        try {
+            return mapper.writeValueAsString(frame);
+        } catch (JsonProcessingException e) {
+            log.error("JSON serialization failed for {}", frame, e);
+            return "{\"error\":\"Server error\"}";
+        }
+    }
+}
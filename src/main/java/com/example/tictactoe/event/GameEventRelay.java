@@ -0,0 +1,8 @@
+package com.example.tictactoe.event;
+
+/**
+ * Forwards events published on this node to the other nodes of the cluster.
+ */
+public interface GameEventRelay {
+    void relay(GameEvent event);
+}
@@ -0,0 +1,95 @@
+package com.example.tictactoe.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded history of the most recent events of one game.
+ * <p>
+ * Sequence numbers are {@code epoch << 20 | counter}: the random epoch changes whenever
+ * the ring is recreated (eviction, restart), so a client resuming with a sequence number
+ * from an older ring is detected and gets a snapshot instead of a wrong replay. The value
+ * stays below 2^53 so that JavaScript clients can echo it back exactly.
+ */
+final class GameEventRing {
+
+    static final int COUNTER_BITS = 20;
+
+    private final UUID gameId;
+    private final GameEvent[] slots;
+    private final int mask;
+    private long epoch;
+    private long lastSeq;
+
+    GameEventRing(UUID gameId, int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two: " + capacity);
+        }
+        this.gameId = gameId;
+        this.slots = new GameEvent[capacity];
+        this.mask = capacity - 1;
+        this.epoch = ThreadLocalRandom.current().nextLong(1, 1L << 32);
+        this.lastSeq = epoch << COUNTER_BITS;
+    }
+
+    synchronized long lastSeq() {
+        return lastSeq;
+    }
+
+    synchronized GameEvent append(LongFunction<String> frameFactory) {
+        long seq = lastSeq + 1;
+        GameEvent event = new GameEvent(gameId, seq, frameFactory.apply(seq));
+        slots[(int) (seq & mask)] = event;
+        lastSeq = seq;
+        return event;
+    }
+
+    /**
+     * Stores an event sequenced by another node. The ring adopts that node's numbering;
+     * when the event does not directly follow the last one, earlier history is dropped so
+     * that a replay never spans a gap.
+     *
+     * @return {@code false} if the event is already known
+     */
+    synchronized boolean appendAt(GameEvent event) {
+        long seq = event.seq();
+        boolean sameEpoch = seq >>> COUNTER_BITS == epoch;
+        if (sameEpoch && seq <= lastSeq) {
+            return false;
+        }
+        if (!sameEpoch || seq != lastSeq + 1) {
+            Arrays.fill(slots, null);
+            epoch = seq >>> COUNTER_BITS;
+        }
+        slots[(int) (seq & mask)] = event;
+        lastSeq = seq;
+        return true;
+    }
+
+    /**
+     * @return the events after {@code seenSeq} in order, or {@code null} when they are no
+     * longer (or were never) held by this ring and the caller has to fall back to a snapshot
+     */
+    synchronized List<GameEvent> since(long seenSeq) {
+        if (seenSeq >>> COUNTER_BITS != epoch || seenSeq > lastSeq) {
+            return null;
+        }
+        long missed = lastSeq - seenSeq;
+        if (missed > slots.length) {
+            return null;
+        }
+        List<GameEvent> events = new ArrayList<>((int) missed);
+        for (long seq = seenSeq + 1; seq <= lastSeq; seq++) {
+            GameEvent event = slots[(int) (seq & mask)];
+            if (event == null || event.seq() != seq) {
+                return null;
+            }
+            events.add(event);
+        }
+        return events;
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.tictactoe.event;
+
+public interface GameEventSubscriber {
+    void deliver(GameEvent event);
+}
@@ -0,0 +1,16 @@
+package com.example.tictactoe.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ThrottledException extends RuntimeException {
+    private final String code;
+    private final long retryAfterMillis;
+
+    public ThrottledException(String message, String code, long retryAfterMillis) {
+        // Thrown on the hot rejection path, so skip the stack trace.
+        super(message, null, false, false);
+        this.code = code;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.tictactoe.exception;
+
+/**
+ * Body of a 429: what was exceeded and when to come back, in the fields the WebSocket frames use.
+ */
+public record ThrottledResponse(String message, String code, long retryAfterMs) {
+    public ThrottledResponse(ThrottledException ex) {
+        this(ex.getMessage(), ex.getCode(), ex.getRetryAfterMillis());
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.tictactoe.handler;
+
+import com.example.tictactoe.event.GameEvent;
+import com.example.tictactoe.event.GameEventSubscriber;
+import com.example.tictactoe.matchmaking.Seeker;
+import com.example.tictactoe.ratelimit.TokenBucket;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-side state of one WebSocket connection: a bounded outbound queue shared by
+ * command responses and pushed game events, and the games the client is subscribed to.
+ */
+@Slf4j
+class ClientSession implements GameEventSubscriber, Seeker {
+
+    @Getter
+    private final WebSocketSession session;
+    @Getter
+    private final TokenBucket bucket;
+    @Getter
+    private final String remoteAddress;
+    private final Sinks.Many<String> outbound;
+    private final Sinks.Many<Long> pings = Sinks.many().multicast().directBestEffort();
+    private volatile long lastSeenNanos = System.nanoTime();
+    private volatile boolean drained;
+    // only touched by the inbound pipeline, which handles one message at a time
+    private long messages;
+    private final Set<UUID> subscriptions = ConcurrentHashMap.newKeySet();
+    // Events that arrive while a snapshot of their game is being loaded; guarded by outbound.
+    private final Map<UUID, List<GameEvent>> held = new HashMap<>();
+
+    ClientSession(WebSocketSession session, TokenBucket bucket, String remoteAddress, int outboundBuffer) {
+        this.session = session;
+        this.bucket = bucket;
+        this.remoteAddress = remoteAddress;
+        this.outbound = Sinks.many().unicast().onBackpressureBuffer(Queues.<String>get(outboundBuffer).get());
+    }
+
+    Flux<WebSocketMessage> outbound() {
+        return Flux.merge(
+                outbound.asFlux().map(session::textMessage),
+                pings.asFlux().map(sentAt -> session.pingMessage(factory -> factory.wrap(longToBytes(sentAt)))));
+    }
+
+    /**
+     * Correlation id of the next inbound message, unique across sessions of this node.
+     */
+    String nextMessageId() {
+        return session.getId() + "-" + ++messages;
+    }
+
+    void touch() {
+        lastSeenNanos = System.nanoTime();
+    }
+
+    long idleNanos(long nowNanos) {
+        return nowNanos - lastSeenNanos;
+    }
+
+    void ping() {
+        // Best effort: a ping that cannot be sent right now is simply skipped until the next sweep.
+        synchronized (pings) {
+            pings.tryEmitNext(System.nanoTime());
+        }
+    }
+
+    @Override
+    public boolean isActive() {
+        return session.isOpen();
+    }
+
+    @Override
+    public void deliver(GameEvent event) {
+        synchronized (outbound) {
+            List<GameEvent> pending = held.get(event.gameId());
+            if (pending != null) {
+                pending.add(event);
+                return;
+            }
+            emit(event.frame());
+        }
+    }
+
+    void send(String frame) {
+        // Responses and pushed events are emitted from different threads; the sink needs serialized calls.
+        synchronized (outbound) {
+            emit(frame);
+        }
+    }
+
+    /**
+     * Holds back pushed events of the game until {@link #release} so that they are sent
+     * after the snapshot the client is about to receive.
+     */
+    void hold(UUID gameId) {
+        synchronized (outbound) {
+            held.putIfAbsent(gameId, new ArrayList<>());
+        }
+    }
+
+    void release(UUID gameId, String snapshotFrame) {
+        synchronized (outbound) {
+            if (snapshotFrame != null) {
+                emit(snapshotFrame);
+            }
+            List<GameEvent> pending = held.remove(gameId);
+            if (pending != null) {
+                pending.forEach(event -> emit(event.frame()));
+            }
+        }
+    }
+
+    void complete() {
+        synchronized (outbound) {
+            outbound.tryEmitComplete();
+        }
+        synchronized (pings) {
+            pings.tryEmitComplete();
+        }
+    }
+
+    /**
+     * Sends {@code frame} after the frames already queued and ends the outbound stream there;
+     * the handler closes the session once all of it is written.
+     */
+    void drain(String frame) {
+        send(frame);
+        drained = true;
+        complete();
+    }
+
+    boolean isDrained() {
+        return drained;
+    }
+
+    Set<UUID> subscriptions() {
+        return subscriptions;
+    }
+
+    private static byte[] longToBytes(long value) {
+        byte[] bytes = new byte[Long.BYTES];
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+        return bytes;
+    }
+
+    private void emit(String frame) {
+        if (outbound.tryEmitNext(frame) == Sinks.EmitResult.FAIL_OVERFLOW) {
+            log.warn("Closing slow WebSocket session {}: outbound queue full", session.getId());
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Outbound queue overflow")).subscribe();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.tictactoe.handler;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "tictactoe.drain")
+public record DrainProperties(
+        Duration timeout,
+        Duration reconnectSpread
+) {}
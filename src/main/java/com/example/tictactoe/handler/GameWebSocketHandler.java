@@ -1,93 +1,468 @@
 package com.example.tictactoe.handler;
 
+import com.example.tictactoe.cluster.GameCommandRouter;
+import com.example.tictactoe.config.StartupTimings;
+import com.example.tictactoe.domain.GameStatus;
+import com.example.tictactoe.dto.GameDto;
 import com.example.tictactoe.dto.MoveRequest;
+import com.example.tictactoe.dto.PlayerDto;
+import com.example.tictactoe.dto.TimeControl;
+import com.example.tictactoe.event.GameEventHub;
+import com.example.tictactoe.event.GameEventPublisher;
+import com.example.tictactoe.exception.GameNotFoundException;
+import com.example.tictactoe.exception.IdempotencyConflictException;
+import com.example.tictactoe.exception.ThrottledException;
+import com.example.tictactoe.idempotency.CommandResult;
+import com.example.tictactoe.idempotency.IdempotencyProperties;
+import com.example.tictactoe.jfr.CommandEvent;
+import com.example.tictactoe.jfr.Phase;
+import com.example.tictactoe.jfr.PhaseEvent;
+import com.example.tictactoe.logging.Correlation;
+import com.example.tictactoe.matchmaking.MatchmakingQueue;
+import com.example.tictactoe.ratelimit.ClientRateLimiter;
+import com.example.tictactoe.ratelimit.LoadShedder;
 import com.example.tictactoe.service.GameService;
+import com.example.tictactoe.tablebase.Hint;
+import com.example.tictactoe.tablebase.Tablebase;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.socket.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
+import java.net.InetSocketAddress;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class GameWebSocketHandler implements WebSocketHandler {
+    private static final Set<String> ACTIONS =
+            Set.of("create", "join", "move", "get", "hint", "resume", "quickplay", "cancelQuickplay");
+    private static final String ERROR_PREFIX = "{\"error\"";
+    private static final String TOO_MANY_GAMES = "Too many games";
+
     private final GameService service;
     private final ObjectMapper mapper;
+    private final ClientRateLimiter rateLimiter;
+    private final LoadShedder loadShedder;
+    private final GameEventHub hub;
+    private final GameEventPublisher publisher;
+    private final GameCommandRouter commands;
+    private final WebSocketProperties props;
+    private final SessionRegistry sessions;
+    private final MatchmakingQueue matchmaking;
+    private final IdempotencyProperties idempotency;
+    private final StartupTimings startupTimings;
+    private final MeterRegistry registry;
+    private final ObjectProvider<Tablebase> tablebase;
+    private final SessionDrain drain;
 
     @Override
     public Mono<Void> handle(WebSocketSession session) {
-        return session.receive()
+        if (drain.isDraining()) {
+            return session.send(Mono.fromSupplier(() -> session.textMessage(drain.reconnect(Set.of()))))
+                    .then(session.close(SessionDrain.CLOSE_STATUS));
+        }
+        ClientSession client = new ClientSession(
+                session, rateLimiter.newSessionBucket(), remoteAddress(session), props.outboundBuffer());
+        sessions.register(client);
+        Mono<Void> inbound = session.receive()
+                .doOnNext(message -> client.touch())
+                .filter(message -> message.getType() == WebSocketMessage.Type.TEXT)
                 .map(WebSocketMessage::getPayloadAsText)
-                .flatMap(text -> process(text)
-                        .flatMap(responseJson -> session.send(
-                                Mono.just(session.textMessage(responseJson)))
-                        )
-                )
+                .concatMap(text -> process(client, text))
+                .doOnNext(client::send)
                 .doOnError(e -> log.error("WebSocket handling error", e))
+                .doFinally(signal -> client.complete())
                 .then();
+        Mono<Void> outbound = session.send(client.outbound())
+                .then(Mono.defer(() -> client.isDrained() ? session.close(SessionDrain.CLOSE_STATUS) : Mono.empty()));
+        return Mono.when(inbound, outbound)
+                .doFinally(signal -> {
+                    sessions.unregister(client);
+                    matchmaking.cancel(client);
+                    client.subscriptions().forEach(gameId -> hub.unsubscribe(gameId, client));
+                })
+                .contextWrite(Context.of(Correlation.SESSION_ID, session.getId()));
+    }
+
+    /**
+     * Runs one command, counted as in flight for the drain; refused once the node is draining.
+     */
+    private Flux<String> process(ClientSession client, String payload) {
+        if (!drain.enter()) {
+            return Flux.just(String.format("{\"error\":\"Server draining\",\"code\":\"DRAINING\",\"retryAfterMs\":%d}",
+                    drain.retryAfterMillis()));
+        }
+        return dispatch(client, payload).doFinally(signal -> drain.exit());
     }
 
-    private Mono<String> process(String payload) {
+    private Flux<String> dispatch(ClientSession client, String payload) {
+        try {
+            rateLimiter.acquire(client.getBucket(), client.getRemoteAddress());
+        } catch (ThrottledException ex) {
+            return Flux.just(throttled(ex));
+        }
+
         JsonNode node;
+        PhaseEvent parse = new PhaseEvent();
+        parse.begin();
         try {
             node = mapper.readTree(payload);
         } catch (JsonProcessingException e) {
-            return Mono.just(error("Invalid JSON"));
+            parse.end();
+            parse.commit("unknown", null, Phase.PARSE, "error");
+            return Flux.just(error("Invalid JSON"));
         }
+        parse.end();
 
         String action = node.path("action").asText("");
-        return switch (action) {
-            case "create" -> handleCreate();
-            case "join" -> handleJoin(node);
-            case "move" -> handleMove(node);
-            case "get" -> handleGet(node);
-            default -> Mono.just(error("Unknown action"));
+        String actionTag = ACTIONS.contains(action) ? action : "unknown";
+        String gameId = node.hasNonNull("gameId") ? node.get("gameId").asText() : null;
+        parse.commit(actionTag, gameId, Phase.PARSE, "ok");
+        long start = System.nanoTime();
+        CommandEvent event = new CommandEvent();
+        event.begin();
+        Flux<String> result = switch (action) {
+            case "create" -> handleCreate(client, node).flux();
+            case "join" -> handleJoin(client, node).flux();
+            case "move" -> handleMove(client, node).flux();
+            case "get" -> handleGet(client, node).flux();
+            case "hint" -> handleHint(node).flux();
+            case "resume" -> handleResume(client, node);
+            case "quickplay" -> handleQuickplay(client, node).flux();
+            case "cancelQuickplay" -> Flux.just(toJsonSafe(
+                    Map.of("type", "quickplayCancelled", "cancelled", matchmaking.cancel(client))));
+            default -> Flux.just(error("Unknown action"));
         };
+        String messageId = client.nextMessageId();
+        return timed(actionTag, gameId, start, event,
+                result.onErrorResume(ThrottledException.class, ex -> Flux.just(throttled(ex))))
+                .contextWrite(context -> Correlation.game(context.put(Correlation.MESSAGE_ID, messageId), gameId));
+    }
+
+    /**
+     * Records {@code tictactoe.websocket.requests} and the command's {@link CommandEvent} once the
+     * replies to one command are sent, tagged with the action and whether the client got an
+     * error or was throttled.
+     */
+    private Flux<String> timed(String actionTag, String gameId, long start, CommandEvent event, Flux<String> replies) {
+        String[] outcome = {"ok"};
+        return replies
+                .doOnNext(reply -> {
+                    if (reply.startsWith(ERROR_PREFIX)) {
+                        outcome[0] = reply.contains("\"retryAfterMs\"") ? "throttled" : "error";
+                    }
+                })
+                .doFinally(signal -> {
+                    registry.timer("tictactoe.websocket.requests", "action", actionTag, "outcome", outcome[0])
+                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.action = actionTag;
+                        event.gameId = gameId;
+                        event.outcome = outcome[0];
+                        event.commit();
+                    }
+                });
     }
 
-    private Mono<String> handleCreate() {
-        return Mono.fromCallable(service::createGame)
-                .map(id -> Map.of("type", "created", "gameId", id))
+    private Mono<String> handleCreate(ClientSession client, JsonNode node) {
+        TimeControl timeControl;
+        try {
+            timeControl = timeControl(node);
+        } catch (IllegalArgumentException ex) {
+            return Mono.just(error("Invalid timeControl"));
+        }
+        if (atSubscriptionLimit(client, null)) {
+            return Mono.just(error(TOO_MANY_GAMES));
+        }
+        return loadShedder.execute(() -> service.createGame(timeControl))
+                .map(id -> {
+                    long seq = subscribe(client, id);
+                    return Map.of("type", "created", "gameId", id, "seq", seq);
+                })
                 .map(this::toJsonSafe);
     }
 
-    private Mono<String> handleJoin(JsonNode node) {
+    private Mono<String> handleJoin(ClientSession client, JsonNode node) {
+        UUID gameId;
         try {
-            UUID gameId = UUID.fromString(node.path("gameId").asText());
-            String name = node.path("name").asText();
-            var dto = service.joinGame(gameId, name);
-            return Mono.just(toJsonSafe(Map.of("type", "joined", "player", dto)));
+            gameId = UUID.fromString(node.path("gameId").asText());
         } catch (IllegalArgumentException ex) {
             return Mono.just(error("Invalid gameId"));
         }
+        String name = node.path("name").asText();
+        String requestId = requestId(node);
+        if (requestId != null && requestId.length() < idempotency.minJoinKeyLength()) {
+            return Mono.just(error("Invalid requestId"));
+        }
+        if (atSubscriptionLimit(client, gameId)) {
+            return Mono.just(error(TOO_MANY_GAMES));
+        }
+        return following(client, gameId, commands.join(gameId, name, requestId))
+                .flatMap(result -> replay(result, "joined", gameId, "player"))
+                .onErrorResume(IdempotencyConflictException.class, ex -> Mono.just(error(ex.getMessage())));
+    }
+
+    /**
+     * Parks the session in the quickplay queue, or starts a game with the session already
+     * waiting in the same bucket. Both sides receive a {@code matched} frame with their own
+     * player id; the waiting side gets it pushed.
+     */
+    private Mono<String> handleQuickplay(ClientSession client, JsonNode node) {
+        TimeControl timeControl;
+        try {
+            timeControl = timeControl(node);
+        } catch (IllegalArgumentException ex) {
+            return Mono.just(error("Invalid timeControl"));
+        }
+        if (atSubscriptionLimit(client, null)) {
+            return Mono.just(error(TOO_MANY_GAMES));
+        }
+        Integer rating = node.hasNonNull("rating") ? node.get("rating").asInt() : null;
+        var ticket = matchmaking.ticket(client, node.path("name").asText(), rating, timeControl);
+        MatchmakingQueue.Ticket opponent;
+        try {
+            opponent = matchmaking.enqueue(ticket);
+        } catch (IllegalStateException ex) {
+            return Mono.just(error("Already queued"));
+        }
+        if (opponent == null) {
+            return Mono.just(toJsonSafe(Map.of("type", "queued")));
+        }
+        ClientSession waiting = (ClientSession) opponent.seeker();
+        return commands.createMatched(opponent.name(), ticket.name(), timeControl)
+                .map(game -> {
+                    if (waiting.isActive()) {
+                        waiting.send(matched(waiting, game, 0));
+                    }
+                    return matched(client, game, 1);
+                })
+                .onErrorResume(ex -> {
+                    String frame = ex instanceof ThrottledException throttled
+                            ? throttled(throttled)
+                            : error("Matchmaking failed");
+                    waiting.send(frame);
+                    return Mono.just(frame);
+                });
+    }
+
+    private String matched(ClientSession client, GameDto game, int playerIndex) {
+        long seq = subscribe(client, game.gameId());
+        PlayerDto player = game.players().get(playerIndex);
+        return toJsonSafe(Map.of("type", "matched", "gameId", game.gameId(), "seq", seq, "player", player, "game", game));
     }
 
-    private Mono<String> handleMove(JsonNode node) {
+    private Mono<String> handleMove(ClientSession client, JsonNode node) {
+        UUID gameId;
+        MoveRequest req;
+        String requestId = requestId(node);
         try {
-            UUID gameId = UUID.fromString(node.path("gameId").asText());
-            MoveRequest req = mapper.treeToValue(node.path("move"), MoveRequest.class);
-            var gameDto = service.makeMove(gameId, req);
-            return Mono.just(toJsonSafe(Map.of("type", "update", "game", gameDto)));
+            gameId = UUID.fromString(node.path("gameId").asText());
+            req = mapper.treeToValue(node.path("move"), MoveRequest.class);
         } catch (Exception ex) {
             return Mono.just(error("Bad move request"));
         }
+        if (requestId != null && requestId.isEmpty()) {
+            return Mono.just(error("Invalid requestId"));
+        }
+        if (atSubscriptionLimit(client, gameId)) {
+            return Mono.just(error(TOO_MANY_GAMES));
+        }
+        return following(client, gameId, commands.move(gameId, req, requestId))
+                .doOnNext(result -> startupTimings.moveServed())
+                .flatMap(result -> replay(result, "update", gameId, "game"))
+                .onErrorResume(IdempotencyConflictException.class, ex -> Mono.just(error(ex.getMessage())))
+                .onErrorResume(ex -> !(ex instanceof ThrottledException), ex -> Mono.just(error("Bad move request")));
+    }
+
+    private Mono<String> handleGet(ClientSession client, JsonNode node) {
+        UUID gameId;
+        try {
+            gameId = UUID.fromString(node.path("gameId").asText());
+        } catch (IllegalArgumentException ex) {
+            return Mono.just(error("Invalid gameId"));
+        }
+        if (atSubscriptionLimit(client, gameId)) {
+            return Mono.just(error(TOO_MANY_GAMES));
+        }
+        client.hold(gameId);
+        return snapshot(client, gameId, subscribe(client, gameId));
     }
 
-    private Mono<String> handleGet(JsonNode node) {
+    /**
+     * The outcome under perfect play for the side to move and the cells that keep it, from the
+     * tablebase. Read-only and not subscribed: the client asks again after the next move.
+     */
+    private Mono<String> handleHint(JsonNode node) {
+        UUID gameId;
         try {
-            UUID gameId = UUID.fromString(node.path("gameId").asText());
-            var dto = service.getGame(gameId);
-            return Mono.just(toJsonSafe(Map.of("type", "state", "game", dto)));
+            gameId = UUID.fromString(node.path("gameId").asText());
         } catch (IllegalArgumentException ex) {
             return Mono.just(error("Invalid gameId"));
         }
+        Tablebase solved = tablebase.getIfAvailable();
+        if (solved == null) {
+            return Mono.just(error("Hints unavailable"));
+        }
+        return commands.get(gameId)
+                .map(game -> {
+                    if (game.status() != GameStatus.IN_PROGRESS) {
+                        return error("Game is not in progress");
+                    }
+                    Hint hint = Hint.of(solved, game);
+                    return toJsonSafe(Map.of("type", "hint", "gameId", gameId,
+                            "toMove", hint.toMove(), "outcome", hint.outcome(), "cells", hint.cells()));
+                })
+                .onErrorResume(GameNotFoundException.class, ex -> Mono.just(error("Game not found")))
+                .onErrorResume(IllegalArgumentException.class, ex -> Mono.just(error("Game cannot be solved")));
+    }
+
+    private Flux<String> handleResume(ClientSession client, JsonNode node) {
+        JsonNode games = node.path("games");
+        // checked before anything is parsed, held or subscribed
+        if (games.size() > props.maxSubscriptions()) {
+            return Flux.just(error(TOO_MANY_GAMES));
+        }
+        Map<UUID, Long> positions = new LinkedHashMap<>();
+        try {
+            for (JsonNode entry : games) {
+                positions.put(UUID.fromString(entry.path("gameId").asText()), entry.path("lastSeq").asLong(0));
+            }
+        } catch (IllegalArgumentException ex) {
+            return Flux.just(error("Invalid gameId"));
+        }
+        Set<UUID> following = new HashSet<>(client.subscriptions());
+        following.addAll(positions.keySet());
+        if (following.size() > props.maxSubscriptions()) {
+            return Flux.just(error(TOO_MANY_GAMES));
+        }
+
+        int[] counts = new int[2];
+        return Flux.fromIterable(positions.entrySet())
+                .concatMap(position -> {
+                    UUID gameId = position.getKey();
+                    client.hold(gameId);
+                    client.subscriptions().add(gameId);
+                    var result = hub.resume(gameId, client, position.getValue());
+                    if (result.replayed()) {
+                        counts[0] += result.events();
+                        client.release(gameId, null);
+                        return Mono.<String>empty();
+                    }
+                    counts[1]++;
+                    return snapshot(client, gameId, result.seq());
+                })
+                .concatWith(Mono.fromSupplier(() -> toJsonSafe(
+                        Map.of("type", "resumed", "replayed", counts[0], "snapshots", counts[1]))));
+    }
+
+    /**
+     * Sends the full game state labelled with {@code seq}; events of that game held back
+     * since the subscription are flushed right after it.
+     */
+    private Mono<String> snapshot(ClientSession client, UUID gameId, long seq) {
+        return commands.get(gameId)
+                .<String>flatMap(dto -> {
+                    client.release(gameId, publisher.frame("state", gameId, seq, "game", dto));
+                    return Mono.empty();
+                })
+                .doFinally(signal -> client.release(gameId, null));
+    }
+
+    /**
+     * Subscribes the client before the command runs, so that it receives the event the
+     * command produces no matter which node sequences it. A subscription that the failed
+     * command added is dropped again.
+     */
+    private <T> Mono<T> following(ClientSession client, UUID gameId, Mono<T> command) {
+        boolean added = client.subscriptions().add(gameId);
+        hub.subscribe(gameId, client);
+        return command.doOnError(ex -> {
+            if (added) {
+                client.subscriptions().remove(gameId);
+                hub.unsubscribe(gameId, client);
+            }
+        });
+    }
+
+    /**
+     * A retried command was answered from the owner's recent commands and published nothing.
+     * The retrying client probably missed the original event, so that event is sent again
+     * with its original {@code seq}. Clients that did get it drop it as a duplicate.
+     */
+    private Mono<String> replay(CommandResult<?> result, String type, UUID gameId, String key) {
+        if (!result.replayed()) {
+            return Mono.empty();
+        }
+        return Mono.just(publisher.frame(type, gameId, result.seq(), key, result.value()));
+    }
+
+    /**
+     * The optional idempotency key of a command: null when absent, empty when unusable.
+     */
+    private String requestId(JsonNode node) {
+        if (!node.hasNonNull("requestId")) {
+            return null;
+        }
+        String requestId = node.get("requestId").asText();
+        return requestId.isBlank() || requestId.length() > idempotency.maxKeyLength() ? "" : requestId;
+    }
+
+    /**
+     * Whether following {@code gameId}, or a new game when null, would take the session past
+     * {@code tictactoe.websocket.max-subscriptions}.
+     */
+    private boolean atSubscriptionLimit(ClientSession client, UUID gameId) {
+        return (gameId == null || !client.subscriptions().contains(gameId))
+                && client.subscriptions().size() >= props.maxSubscriptions();
+    }
+
+    private long subscribe(ClientSession client, UUID gameId) {
+        client.subscriptions().add(gameId);
+        return hub.subscribe(gameId, client);
+    }
+
+    private TimeControl timeControl(JsonNode node) {
+        if (!node.hasNonNull("timeControl")) {
+            return null;
+        }
+        TimeControl timeControl;
+        try {
+            timeControl = mapper.treeToValue(node.get("timeControl"), TimeControl.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+        if (!isValid(timeControl.moveTimeMs()) || !isValid(timeControl.totalTimeMs())) {
+            throw new IllegalArgumentException("Time control out of range");
+        }
+        return timeControl.moveTimeMs() == null && timeControl.totalTimeMs() == null ? null : timeControl;
+    }
+
+    private boolean isValid(Long millis) {
+        return millis == null || (millis > 0 && millis <= TimeControl.MAX_MS);
+    }
+
+    private String remoteAddress(WebSocketSession session) {
+        InetSocketAddress remote = session.getHandshakeInfo().getRemoteAddress();
+        if (remote == null) {
+            return "unknown";
+        }
+        return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
     }
 
     private String toJsonSafe(Object obj) {
@@ -102,4 +477,9 @@ public class GameWebSocketHandler implements WebSocketHandler {
     private String error(String msg) {
         return String.format("{\"error\":\"%s\"}", msg);
     }
+
+    private String throttled(ThrottledException ex) {
+        return String.format("{\"error\":\"%s\",\"code\":\"%s\",\"retryAfterMs\":%d}",
+                ex.getMessage(), ex.getCode(), ex.getRetryAfterMillis());
+    }
 }
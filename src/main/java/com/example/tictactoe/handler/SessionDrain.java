@@ -0,0 +1,200 @@
+package com.example.tictactoe.handler;
+
+import com.example.tictactoe.cluster.ClusterMembership;
+import com.example.tictactoe.cluster.PgNotifyRelay;
+import com.example.tictactoe.event.GameEventHub;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.CloseStatus;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Takes the node out of service before it stops, so that a rolling deploy neither cuts
+ * commands short nor sends every client back at once.
+ * <p>
+ * A drain runs once, on {@link ContextClosedEvent}, which comes before the context stops the
+ * web server, the relay and the connection pool. Readiness turns to REFUSING_TRAFFIC, the node
+ * leaves the cluster ring, new sessions and commands are refused, game event streams end, and
+ * the commands already running finish. Every session then gets a {@code reconnect} frame after
+ * the frames queued for it and is closed. Last, the events still queued for the other nodes are
+ * sent. All of it is bounded by {@code timeout}; commands still running after that are counted
+ * as dropped.
+ * <p>
+ * The {@code reconnect} frame carries a {@code resume} message with the last event sent for
+ * each game, so the next node can replay instead of loading snapshots, and a random delay
+ * below {@code reconnect-spread}, so that the clients of this node do not all come back in
+ * the same instant.
+ */
+@Slf4j
+@Component
+public class SessionDrain {
+
+    static final CloseStatus CLOSE_STATUS = CloseStatus.SERVICE_RESTARTED.withReason("Server draining");
+    private static final long POLL_MILLIS = 10;
+
+    private final SessionRegistry sessions;
+    private final GameEventHub hub;
+    private final ObjectMapper mapper;
+    private final DrainProperties props;
+    private final ApplicationEventPublisher events;
+    private final ObjectProvider<ClusterMembership> membership;
+    private final ObjectProvider<PgNotifyRelay> relay;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Timer duration;
+    private final Counter refused;
+    private final Counter abandoned;
+    private final Sinks.Empty<Void> started = Sinks.empty();
+    private volatile boolean draining;
+
+    public SessionDrain(SessionRegistry sessions, GameEventHub hub, ObjectMapper mapper, DrainProperties props,
+                        ApplicationEventPublisher events, ObjectProvider<ClusterMembership> membership,
+                        ObjectProvider<PgNotifyRelay> relay, MeterRegistry registry) {
+        this.sessions = sessions;
+        this.hub = hub;
+        this.mapper = mapper;
+        this.props = props;
+        this.events = events;
+        this.membership = membership;
+        this.relay = relay;
+        this.duration = Timer.builder("tictactoe.drain.duration")
+                .description("Time from the start of a drain until sessions were closed and pending events sent")
+                .register(registry);
+        this.refused = Counter.builder("tictactoe.drain.dropped-commands")
+                .description("Commands not run because the node was draining")
+                .tag("reason", "refused")
+                .register(registry);
+        this.abandoned = Counter.builder("tictactoe.drain.dropped-commands")
+                .description("Commands not run because the node was draining")
+                .tag("reason", "deadline")
+                .register(registry);
+        Gauge.builder("tictactoe.websocket.in-flight", inFlight, AtomicInteger::get)
+                .description("WebSocket commands being processed")
+                .register(registry);
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    /**
+     * Completes when a drain starts, for long-lived responses outside of WebSocket sessions.
+     */
+    public Mono<Void> started() {
+        return started.asMono();
+    }
+
+    /**
+     * Counts a command as in flight unless the node is draining.
+     *
+     * @return {@code false} if the command must be refused; otherwise {@link #exit} must follow
+     */
+    boolean enter() {
+        inFlight.incrementAndGet();
+        // read after the increment: either the drain waits for this command or the command sees the drain
+        if (draining) {
+            inFlight.decrementAndGet();
+            refused.increment();
+            return false;
+        }
+        return true;
+    }
+
+    void exit() {
+        inFlight.decrementAndGet();
+    }
+
+    public long retryAfterMillis() {
+        return ThreadLocalRandom.current().nextLong(Math.max(1, props.reconnectSpread().toMillis()));
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onClose() {
+        drain();
+    }
+
+    public synchronized void drain() {
+        if (draining) {
+            return;
+        }
+        draining = true;
+        started.tryEmitEmpty();
+        long start = System.nanoTime();
+        long deadline = start + props.timeout().toNanos();
+        AvailabilityChangeEvent.publish(events, this, ReadinessState.REFUSING_TRAFFIC);
+        ClusterMembership cluster = membership.getIfAvailable();
+        if (cluster != null) {
+            cluster.leave();
+        }
+        log.info("Draining {} sessions with {} commands in flight", sessions.size(), inFlight.get());
+
+        await(() -> inFlight.get() == 0, deadline);
+        int dropped = inFlight.get();
+        abandoned.increment(dropped);
+        for (ClientSession client : sessions.all()) {
+            client.drain(reconnect(client.subscriptions()));
+        }
+        await(() -> sessions.size() == 0, deadline);
+        Collection<ClientSession> left = sessions.all();
+        left.forEach(client -> client.getSession().close(CLOSE_STATUS).subscribe());
+
+        PgNotifyRelay pending = relay.getIfAvailable();
+        boolean flushed = pending == null || pending.flush(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+        long elapsed = System.nanoTime() - start;
+        duration.record(elapsed, TimeUnit.NANOSECONDS);
+        if (dropped > 0 || !left.isEmpty() || !flushed) {
+            log.warn("Drain ran out of time after {} ms: {} commands dropped, {} sessions cut, relay flushed: {}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), dropped, left.size(), flushed);
+        } else {
+            log.info("Drained in {} ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    /**
+     * The last frame of a session: where to pick its games up again, and when.
+     */
+    String reconnect(Collection<UUID> games) {
+        List<Map<String, Object>> positions = games.stream()
+                .map(gameId -> Map.<String, Object>of("gameId", gameId, "lastSeq", hub.lastSeq(gameId)))
+                .toList();
+        try {
+            return mapper.writeValueAsString(Map.of("type", "reconnect", "reason", "draining",
+                    "retryAfterMs", retryAfterMillis(),
+                    "resume", Map.of("action", "resume", "games", positions)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize reconnect frame", e);
+        }
+    }
+
+    private static void await(BooleanSupplier condition, long deadline) {
+        try {
+            while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+                Thread.sleep(POLL_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
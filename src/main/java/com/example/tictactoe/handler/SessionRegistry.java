@@ -0,0 +1,72 @@
+package com.example.tictactoe.handler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.CloseStatus;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks open WebSocket sessions, pings the ones that have been quiet for a ping interval
+ * and closes the ones that have not answered within the idle timeout. Closing a session
+ * completes its handler, which releases its game subscriptions.
+ */
+@Slf4j
+@Component
+public class SessionRegistry {
+
+    private final Set<ClientSession> sessions = ConcurrentHashMap.newKeySet();
+    private final WebSocketProperties props;
+    private final Counter idleClosed;
+
+    public SessionRegistry(WebSocketProperties props, MeterRegistry registry) {
+        this.props = props;
+        this.idleClosed = Counter.builder("tictactoe.websocket.idle-closed")
+                .description("Sessions closed after missing heartbeats")
+                .register(registry);
+        Gauge.builder("tictactoe.websocket.sessions", sessions, Set::size)
+                .description("Open WebSocket sessions")
+                .register(registry);
+    }
+
+    void register(ClientSession client) {
+        sessions.add(client);
+    }
+
+    void unregister(ClientSession client) {
+        sessions.remove(client);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    Collection<ClientSession> all() {
+        return List.copyOf(sessions);
+    }
+
+    @Scheduled(fixedDelayString = "${tictactoe.websocket.ping-interval}")
+    public void sweep() {
+        long now = System.nanoTime();
+        long pingAfter = props.pingInterval().toNanos();
+        long closeAfter = props.idleTimeout().toNanos();
+        for (ClientSession client : sessions) {
+            long idle = client.idleNanos(now);
+            if (idle >= closeAfter) {
+                log.debug("Closing idle WebSocket session {}", client.getSession().getId());
+                idleClosed.increment();
+                sessions.remove(client);
+                client.getSession().close(CloseStatus.GOING_AWAY.withReason("Idle timeout")).subscribe();
+            } else if (idle >= pingAfter) {
+                client.ping();
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.tictactoe.handler;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param maxSubscriptions games one session may follow at a time, and so list in a {@code resume}
+ */
+@ConfigurationProperties(prefix = "tictactoe.websocket")
+public record WebSocketProperties(
+        int outboundBuffer,
+        Duration pingInterval,
+        Duration idleTimeout,
+        int maxSubscriptions
+) {}
@@ -0,0 +1,11 @@
+package com.example.tictactoe.id;
+
+import java.util.UUID;
+
+/**
+ * Source of primary keys for new games, players and moves. Selected with
+ * {@code tictactoe.ids.strategy}.
+ */
+public interface IdGenerator {
+    UUID next();
+}
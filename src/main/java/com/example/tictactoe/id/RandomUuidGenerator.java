@@ -0,0 +1,19 @@
+package com.example.tictactoe.id;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Version 4 UUIDs, as the service used before {@link UuidV7Generator}. Kept for comparison and
+ * as a fallback ({@code tictactoe.ids.strategy: random}).
+ */
+@Component
+@ConditionalOnProperty(prefix = "tictactoe.ids", name = "strategy", havingValue = "random")
+public class RandomUuidGenerator implements IdGenerator {
+    @Override
+    public UUID next() {
+        return UUID.randomUUID();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.tictactoe.idempotency;
+
+/**
+ * Outcome of a game command: its result and the {@code seq} of the event it published.
+ * {@code replayed} marks a retry answered from {@link RecentCommands}; its event went out with
+ * the original command, so callers resend it to the retrying client themselves.
+ */
+public record CommandResult<T>(T value, long seq, boolean replayed) {
+
+    public static <T> CommandResult<T> executed(T value, long seq) {
+        return new CommandResult<>(value, seq, false);
+    }
+
+    public CommandResult<T> asReplay() {
+        return new CommandResult<>(value, seq, true);
+    }
+}
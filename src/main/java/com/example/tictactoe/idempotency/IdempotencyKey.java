@@ -0,0 +1,31 @@
+package com.example.tictactoe.idempotency;
+
+import com.example.tictactoe.dto.MoveRequest;
+
+import java.util.UUID;
+
+/**
+ * A client's idempotency key, scoped to whoever sent it, with a fingerprint of the request it
+ * came with. Two clients picking the same key do not see each other's results, and a key
+ * reused for a different request is rejected instead of answered with the first one's result.
+ */
+public record IdempotencyKey(String scope, String key, String fingerprint) {
+
+    /**
+     * A join, scoped to the game since the joining player has no id yet; null without a key.
+     * Nothing ties the key to one connection, so a join retried after a reconnect is still
+     * recognised; the key's length is what keeps two joiners from picking the same one.
+     */
+    public static IdempotencyKey join(UUID gameId, String key, String name) {
+        return key != null ? new IdempotencyKey(gameId.toString(), key, String.valueOf(name)) : null;
+    }
+
+    /**
+     * A move, scoped to the moving player; null without a key.
+     */
+    public static IdempotencyKey move(MoveRequest req, String key) {
+        return key != null
+                ? new IdempotencyKey(String.valueOf(req.playerId()), key, req.playerId() + ":" + req.row() + ":" + req.col())
+                : null;
+    }
+}
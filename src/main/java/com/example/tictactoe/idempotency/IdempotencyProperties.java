@@ -0,0 +1,14 @@
+package com.example.tictactoe.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "tictactoe.idempotency")
+public record IdempotencyProperties(
+        Duration window,
+        long maxEntries,
+        int maxKeyLength,
+        // a join's key is shared by everyone joining the game, so it has to be hard to guess
+        int minJoinKeyLength
+) {}
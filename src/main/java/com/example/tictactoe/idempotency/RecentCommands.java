@@ -0,0 +1,108 @@
+package com.example.tictactoe.idempotency;
+
+import com.example.tictactoe.exception.IdempotencyConflictException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Results of recently completed commands, by the client's idempotency key, so that a retried
+ * {@code join} or {@code move} is answered with the original result instead of running again.
+ * <p>
+ * Entries are keyed by a 64-bit hash of game, command, scope and key, and carry all of them so
+ * that a hash collision is detected and treated as a miss. They also carry the request's
+ * fingerprint: a key that comes back with a different request is rejected. They expire after a fixed window and the
+ * cache is size-bounded, so eviction is Caffeine's amortized O(1) maintenance. Only successful
+ * commands are remembered: a rejected command can simply be rejected again.
+ */
+@Component
+public class RecentCommands {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Cache<Long, Entry> entries;
+    private final MeterRegistry registry;
+
+    public RecentCommands(IdempotencyProperties props, MeterRegistry registry) {
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(props.window())
+                .maximumSize(props.maxEntries())
+                .recordStats()
+                .build();
+        this.registry = registry;
+        // same tag keys as the managed caches: Prometheus drops meters whose keys differ by name
+        CaffeineCacheMetrics.monitor(registry, entries, "idempotency", "cache.manager", "none");
+    }
+
+    /**
+     * Returns the remembered result of the command, or null. A null key never matches.
+     *
+     * @throws IdempotencyConflictException if the key was used for a different request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CommandResult<T> find(UUID gameId, String command, IdempotencyKey key) {
+        if (key == null) {
+            return null;
+        }
+        Entry entry = entries.getIfPresent(hash(gameId, command, key));
+        if (entry == null || !entry.matches(gameId, command, key)) {
+            return null;
+        }
+        if (!entry.key().fingerprint().equals(key.fingerprint())) {
+            registry.counter("tictactoe.idempotency.conflicts", "command", command).increment();
+            throw new IdempotencyConflictException("requestId already used for a different request");
+        }
+        registry.counter("tictactoe.idempotency.replays", "command", command).increment();
+        return (CommandResult<T>) entry.result().asReplay();
+    }
+
+    /**
+     * Runs the command unless it already completed under the same key. Callers serialize
+     * commands per game, so a retry racing its original sees the original's result here.
+     */
+    public <T> CommandResult<T> run(UUID gameId, String command, IdempotencyKey key, Supplier<CommandResult<T>> action) {
+        CommandResult<T> previous = find(gameId, command, key);
+        if (previous != null) {
+            return previous;
+        }
+        CommandResult<T> result = action.get();
+        if (key != null) {
+            entries.put(hash(gameId, command, key), new Entry(gameId, command, key, result));
+        }
+        return result;
+    }
+
+    static long hash(UUID gameId, String command, IdempotencyKey key) {
+        long h = FNV_OFFSET;
+        for (String part : new String[]{command, key.scope(), key.key()}) {
+            for (byte b : part.getBytes(StandardCharsets.UTF_8)) {
+                h = (h ^ b) * FNV_PRIME;
+            }
+            // separator, so that moving bytes between parts changes the hash
+            h = (h ^ 0xff) * FNV_PRIME;
+        }
+        h ^= gameId.getMostSignificantBits() * 0x9e3779b97f4a7c15L;
+        h ^= Long.rotateLeft(gameId.getLeastSignificantBits(), 31);
+        // fmix64 finalizer, so that nearby keys spread over the whole table
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private record Entry(UUID gameId, String command, IdempotencyKey key, CommandResult<?> result) {
+        boolean matches(UUID gameId, String command, IdempotencyKey key) {
+            return this.gameId.equals(gameId) && this.command.equals(command)
+                    && this.key.scope().equals(key.scope()) && this.key.key().equals(key.key());
+        }
+    }
+}
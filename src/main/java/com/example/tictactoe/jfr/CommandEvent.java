@@ -0,0 +1,25 @@
+package com.example.tictactoe.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * One socket command, from its parsed payload until the last reply is sent.
+ */
+@Name(CommandEvent.NAME)
+@Label("Game Command")
+@Category({"Tic-Tac-Toe", "Commands"})
+@StackTrace(false)
+@Threshold("20 ms")
+public class CommandEvent extends Event {
+
+    public static final String NAME = "com.example.tictactoe.Command";
+
+    @Label("Action")
+    public String action;
+
+    @Label("Game Id")
+    public String gameId;
+
+    @Label("Outcome")
+    public String outcome;
+}
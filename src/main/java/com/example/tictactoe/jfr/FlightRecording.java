@@ -0,0 +1,88 @@
+package com.example.tictactoe.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps a flight recording named {@value #NAME} running for the life of the application: the
+ * JDK's {@code default} settings plus the command and phase events with the thresholds from
+ * {@code jfr/tictactoe.jfc}. Only the last {@code max-age} / {@code max-size} is kept on disk.
+ * Take a dump with {@code jcmd <pid> JFR.dump name=tictactoe filename=app.jfr} and summarize it
+ * with {@link PhaseSummary}.
+ * <p>
+ * {@code enabled} is read when the context starts, not as a bean condition, so that it still
+ * applies to an AOT-built application.
+ */
+@Slf4j
+@Component
+public class FlightRecording implements SmartLifecycle {
+
+    public static final String NAME = "tictactoe";
+    static final String SETTINGS = "jfr/tictactoe.jfc";
+
+    private final JfrProperties props;
+    private volatile Recording recording;
+
+    public FlightRecording(JfrProperties props) {
+        this.props = props;
+    }
+
+    @Override
+    public void start() {
+        if (!props.enabled()) {
+            return;
+        }
+        try {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration(props.settings()).getSettings());
+            settings.putAll(bundledSettings());
+            Recording r = new Recording(settings);
+            r.setName(NAME);
+            r.setToDisk(true);
+            r.setMaxAge(props.maxAge());
+            if (props.maxSize() != null) {
+                r.setMaxSize(props.maxSize().toBytes());
+            }
+            if (props.destination() != null) {
+                r.setDestination(props.destination());
+            }
+            r.start();
+            recording = r;
+            log.info("Flight recording '{}' started with {} settings, keeping {}", NAME, props.settings(), props.maxAge());
+        } catch (IOException | ParseException | RuntimeException e) {
+            log.warn("Could not start the flight recording: {}", e.toString());
+        }
+    }
+
+    static Map<String, String> bundledSettings() throws IOException, ParseException {
+        try (Reader reader = new InputStreamReader(
+                FlightRecording.class.getClassLoader().getResourceAsStream(SETTINGS), StandardCharsets.UTF_8)) {
+            return Configuration.create(reader).getSettings();
+        }
+    }
+
+    @Override
+    public void stop() {
+        Recording r = recording;
+        recording = null;
+        if (r != null) {
+            // with a destination set, closing writes the file
+            r.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recording != null;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.tictactoe.jfr;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * The always-on flight recording, see {@link FlightRecording}.
+ *
+ * @param settings    JDK configuration the bundled {@code jfr/tictactoe.jfc} is layered on
+ * @param destination file written when the application stops; empty keeps nothing
+ */
+@ConfigurationProperties(prefix = "tictactoe.jfr")
+public record JfrProperties(
+        boolean enabled,
+        String settings,
+        Duration maxAge,
+        DataSize maxSize,
+        Path destination
+) {
+    public JfrProperties {
+        if (settings == null) {
+            settings = "default";
+        }
+    }
+}
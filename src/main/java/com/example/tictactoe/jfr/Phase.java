@@ -0,0 +1,26 @@
+package com.example.tictactoe.jfr;
+
+import java.util.Locale;
+
+/**
+ * Where a command spends its time, in the order a move goes through them.
+ */
+public enum Phase {
+    /** Reading the JSON payload. */
+    PARSE,
+    /** Loading the game and the player. */
+    LOOKUP,
+    /** Turn, clock and cell checks, and the state transition after evaluation. */
+    VALIDATE,
+    /** Inserting the move, updating the game and flushing. */
+    PERSIST,
+    EVALUATE,
+    /** Entity to DTO. */
+    MAP,
+    /** Writing the reply or event frame. */
+    SERIALIZE;
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
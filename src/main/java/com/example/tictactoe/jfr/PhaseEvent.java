@@ -0,0 +1,42 @@
+package com.example.tictactoe.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * One phase of a command, see {@link Phase}. Phases of a move are committed together once
+ * the move is over, so that they carry its outcome.
+ */
+@Name(PhaseEvent.NAME)
+@Label("Command Phase")
+@Category({"Tic-Tac-Toe", "Commands"})
+@StackTrace(false)
+@Threshold("5 ms")
+public class PhaseEvent extends Event {
+
+    public static final String NAME = "com.example.tictactoe.Phase";
+
+    @Label("Action")
+    public String action;
+
+    @Label("Game Id")
+    public String gameId;
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Outcome")
+    public String outcome;
+
+    /**
+     * Commits the event if it is enabled and over its threshold; the caller has ended it.
+     */
+    public void commit(String action, Object gameId, Phase phase, String outcome) {
+        if (shouldCommit()) {
+            this.action = action;
+            this.gameId = gameId != null ? gameId.toString() : null;
+            this.phase = phase.label();
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
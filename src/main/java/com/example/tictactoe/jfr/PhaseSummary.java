@@ -0,0 +1,108 @@
+package com.example.tictactoe.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summarizes the command and phase events of a recording: per action and outcome how many
+ * slow commands there were, and per action and phase where their time went. Only depends on
+ * the JDK, so it also runs straight from source:
+ * <pre>
+ * java src/main/java/com/example/tictactoe/jfr/PhaseSummary.java app.jfr
+ * java -cp app.jar com.example.tictactoe.jfr.PhaseSummary app.jfr
+ * </pre>
+ * Events below their threshold are not in the recording, so the figures describe the slow
+ * tail, not all traffic.
+ */
+public final class PhaseSummary {
+
+    // no references to the event classes, so that the source launcher needs nothing but this file
+    private static final String COMMAND = "com.example.tictactoe.Command";
+    private static final String PHASE = "com.example.tictactoe.Phase";
+
+    private final Map<String, List<Long>> commands = new TreeMap<>();
+    private final Map<String, List<Long>> phases = new TreeMap<>();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: PhaseSummary <recording.jfr>...");
+            System.exit(2);
+        }
+        PhaseSummary summary = new PhaseSummary();
+        for (String file : args) {
+            summary.read(Path.of(file));
+        }
+        summary.print(System.out);
+    }
+
+    public void read(Path file) throws IOException {
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                add(recording.readEvent());
+            }
+        }
+    }
+
+    void add(RecordedEvent event) {
+        String name = event.getEventType().getName();
+        long nanos = event.getDuration().toNanos();
+        if (COMMAND.equals(name)) {
+            commands.computeIfAbsent(event.getString("action") + " " + event.getString("outcome"),
+                    k -> new ArrayList<>()).add(nanos);
+        } else if (PHASE.equals(name)) {
+            phases.computeIfAbsent(event.getString("action") + " " + event.getString("phase"),
+                    k -> new ArrayList<>()).add(nanos);
+        }
+    }
+
+    public void print(PrintStream out) {
+        out.println("Slow commands (action outcome)");
+        table(out, commands, false);
+        out.println();
+        out.println("Slow phases (action phase), share of the action's slow phase time");
+        table(out, phases, true);
+    }
+
+    private void table(PrintStream out, Map<String, List<Long>> rows, boolean shares) {
+        Map<String, Long> totals = new TreeMap<>();
+        rows.forEach((key, values) -> totals.merge(action(key), sum(values), Long::sum));
+        out.printf(Locale.ROOT, "  %-28s %8s %10s %7s %9s %9s %9s%n",
+                "", "count", "total ms", "share", "p50 ms", "p99 ms", "max ms");
+        rows.forEach((key, values) -> {
+            long[] sorted = values.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            long total = sum(values);
+            String share = shares ? String.format(Locale.ROOT, "%6.1f%%", 100.0 * total / totals.get(action(key))) : "";
+            out.printf(Locale.ROOT, "  %-28s %8d %10.1f %7s %9.2f %9.2f %9.2f%n",
+                    key, sorted.length, total / 1e6, share,
+                    percentile(sorted, 50) / 1e6, percentile(sorted, 99) / 1e6, sorted[sorted.length - 1] / 1e6);
+        });
+    }
+
+    private static String action(String key) {
+        return key.substring(0, key.indexOf(' '));
+    }
+
+    private static long sum(List<Long> values) {
+        long sum = 0;
+        for (long v : values) {
+            sum += v;
+        }
+        return sum;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.tictactoe.logging;
+
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.encoder.EncoderBase;
+import net.logstash.logback.encoder.LogstashEncoder;
+
+import java.nio.charset.Charset;
+
+/**
+ * Console encoder picked by {@code tictactoe.logging.format}: {@code json} writes one JSON object
+ * per line with the MDC correlation ids as top-level fields, {@code text} uses {@link #setPattern}.
+ * Logback resolves Spring properties too late to choose between two appenders, hence one encoder.
+ */
+public class ConsoleEncoder extends EncoderBase<ILoggingEvent> {
+
+    private String format = "json";
+    private String pattern;
+    private Charset charset;
+    private Encoder<ILoggingEvent> delegate;
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+    }
+
+    public void setCharset(Charset charset) {
+        this.charset = charset;
+    }
+
+    @Override
+    public void start() {
+        if ("text".equalsIgnoreCase(format)) {
+            PatternLayoutEncoder text = new PatternLayoutEncoder();
+            text.setPattern(pattern);
+            text.setCharset(charset);
+            delegate = text;
+        } else {
+            if (!"json".equalsIgnoreCase(format)) {
+                addWarn("Unknown log format '" + format + "', using json");
+            }
+            LogstashEncoder json = new LogstashEncoder();
+            json.setIncludeContext(false);
+            delegate = json;
+        }
+        delegate.setContext(getContext());
+        delegate.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        delegate.stop();
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return delegate.headerBytes();
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        return delegate.encode(event);
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return delegate.footerBytes();
+    }
+}
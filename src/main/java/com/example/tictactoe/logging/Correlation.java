@@ -0,0 +1,47 @@
+package com.example.tictactoe.logging;
+
+import io.micrometer.context.ContextRegistry;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.List;
+
+/**
+ * Correlation ids of the work being done, carried in the Reactor {@code Context} and mirrored
+ * into the MDC by {@link MdcAccessor} wherever Reactor restores thread locals. An HTTP request
+ * gets a {@link #REQUEST_ID}; a WebSocket message gets the connection's {@link #SESSION_ID}, its
+ * own {@link #MESSAGE_ID} and the {@link #GAME_ID} it addresses.
+ */
+public final class Correlation {
+
+    public static final String REQUEST_ID = "requestId";
+    public static final String SESSION_ID = "sessionId";
+    public static final String MESSAGE_ID = "messageId";
+    public static final String GAME_ID = "gameId";
+    // carries the id of a forwarded command to the owner node, which logs under the same id
+    public static final String HEADER = "X-Request-Id";
+
+    static final List<String> KEYS = List.of(REQUEST_ID, SESSION_ID, MESSAGE_ID, GAME_ID);
+
+    private Correlation() {}
+
+    static void register(ContextRegistry registry) {
+        KEYS.forEach(key -> registry.registerThreadLocalAccessor(new MdcAccessor(key)));
+    }
+
+    public static Context game(Context context, Object gameId) {
+        return gameId == null ? context : context.put(GAME_ID, gameId.toString());
+    }
+
+    /**
+     * Sends the message or request id along with calls to other nodes.
+     */
+    public static ExchangeFilterFunction forwarding() {
+        return (request, next) -> Mono.deferContextual(context -> {
+            String id = context.getOrDefault(MESSAGE_ID, context.getOrDefault(REQUEST_ID, null));
+            return next.exchange(id == null ? request : ClientRequest.from(request).header(HEADER, id).build());
+        });
+    }
+}
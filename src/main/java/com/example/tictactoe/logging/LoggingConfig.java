@@ -0,0 +1,18 @@
+package com.example.tictactoe.logging;
+
+import io.micrometer.context.ContextRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the MDC keys of {@link Correlation} with the context-propagation registry, which
+ * Reactor consults when {@code spring.reactor.context-propagation=auto} restores thread locals.
+ */
+@Configuration(proxyBeanMethods = false)
+public class LoggingConfig {
+
+    @PostConstruct
+    void registerCorrelation() {
+        Correlation.register(ContextRegistry.getInstance());
+    }
+}
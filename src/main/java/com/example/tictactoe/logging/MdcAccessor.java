@@ -0,0 +1,26 @@
+package com.example.tictactoe.logging;
+
+import io.micrometer.context.ThreadLocalAccessor;
+import org.slf4j.MDC;
+
+/**
+ * Bridges one MDC key to the Reactor {@code Context}: whenever Reactor restores thread locals
+ * from a context that holds the key, the value lands in the MDC and is removed again after.
+ */
+record MdcAccessor(String key) implements ThreadLocalAccessor<String> {
+
+    @Override
+    public String getValue() {
+        return MDC.get(key);
+    }
+
+    @Override
+    public void setValue(String value) {
+        MDC.put(key, value);
+    }
+
+    @Override
+    public void setValue() {
+        MDC.remove(key);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.tictactoe.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one in {@code rate} of the log lines marked {@link #SAMPLED}, before their message is
+ * formatted. The choice is made per game, from the {@code gameId} in the MDC, so a kept game is
+ * logged move by move; lines without a game fall back to a counter. WARN and above always pass.
+ */
+public class SampledLogFilter extends TurboFilter {
+
+    public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+    private final AtomicLong unkeyed = new AtomicLong();
+    private int rate = 1;
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (rate <= 1 || marker == null || level.isGreaterOrEqual(Level.WARN) || !marker.contains(SAMPLED)) {
+            return FilterReply.NEUTRAL;
+        }
+        String gameId = MDC.get(Correlation.GAME_ID);
+        long pick = gameId != null ? gameId.hashCode() * 0x9E3779B9L : unkeyed.getAndIncrement();
+        return Math.floorMod(pick, rate) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -10,9 +10,20 @@ import java.util.*;
 public interface GameMapper {
     @Mapping(target = "winner", source = "winner")
     @Mapping(target = "result", expression = "java(game.getResult())")
+    @Mapping(target = "clock", expression = "java(toClock(game))")
     GameDto toDto(Game game);
 
     PlayerDto toDto(Player player);
 
+    @Mapping(target = "playerId", source = "player.playerId")
     MoveDto toDto(Move move);
+
+    default ClockDto toClock(Game game) {
+        if (!game.isTimed()) {
+            return null;
+        }
+        return new ClockDto(game.getMoveTimeLimitMs(), game.getTotalTimeMs(),
+                game.getXTimeLeftMs(), game.getOTimeLeftMs(),
+                game.getTurnStartedAt(), game.getTurnDeadline());
+    }
 }
@@ -0,0 +1,8 @@
+package com.example.tictactoe.matchmaking;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "tictactoe.matchmaking")
+public record MatchmakingProperties(
+        int ratingBucketWidth
+) {}
@@ -0,0 +1,91 @@
+package com.example.tictactoe.matchmaking;
+
+import com.example.tictactoe.dto.TimeControl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory quickplay pairing. Each bucket (rating band plus time control) holds at most one
+ * waiting ticket: an arriving seeker either claims the waiting ticket with an atomic
+ * {@code remove(key, ticket)} or parks its own with {@code putIfAbsent}. Pairing never scans
+ * the database and a bucket disappears from the map as soon as it is empty.
+ */
+@Slf4j
+@Component
+public class MatchmakingQueue {
+
+    private final Map<Bucket, Ticket> waiting = new ConcurrentHashMap<>();
+    private final Map<Seeker, Ticket> queued = new ConcurrentHashMap<>();
+    private final MatchmakingProperties props;
+    private final Counter matches;
+    private final Timer waitTime;
+
+    public MatchmakingQueue(MatchmakingProperties props, MeterRegistry registry) {
+        this.props = props;
+        this.matches = Counter.builder("tictactoe.matchmaking.matches")
+                .description("Quickplay pairs formed")
+                .register(registry);
+        this.waitTime = Timer.builder("tictactoe.matchmaking.wait")
+                .description("Time the first seeker of a pair spent in the queue")
+                .register(registry);
+        Gauge.builder("tictactoe.matchmaking.waiting", queued, Map::size)
+                .description("Seekers waiting for a quickplay opponent")
+                .register(registry);
+    }
+
+    public Ticket ticket(Seeker seeker, String name, Integer rating, TimeControl timeControl) {
+        int band = rating == null || props.ratingBucketWidth() <= 0 ? -1 : Math.max(0, rating) / props.ratingBucketWidth();
+        return new Ticket(seeker, name, new Bucket(band, timeControl), System.nanoTime());
+    }
+
+    /**
+     * Pairs the ticket with the seeker waiting in the same bucket, or parks it there.
+     *
+     * @return the opponent's ticket, or {@code null} when the ticket is now waiting
+     * @throws IllegalStateException if the seeker is already queued
+     */
+    public Ticket enqueue(Ticket ticket) {
+        if (queued.putIfAbsent(ticket.seeker(), ticket) != null) {
+            throw new IllegalStateException("Already queued");
+        }
+        while (true) {
+            Ticket opponent = waiting.putIfAbsent(ticket.bucket(), ticket);
+            if (opponent == null) {
+                log.debug("Quickplay ticket of '{}' waiting in {}", ticket.name(), ticket.bucket());
+                return null;
+            }
+            if (!waiting.remove(ticket.bucket(), opponent)) {
+                continue;
+            }
+            queued.remove(opponent.seeker(), opponent);
+            if (!opponent.seeker().isActive()) {
+                continue;
+            }
+            queued.remove(ticket.seeker(), ticket);
+            matches.increment();
+            waitTime.record(System.nanoTime() - opponent.enqueuedNanos(), TimeUnit.NANOSECONDS);
+            return opponent;
+        }
+    }
+
+    public boolean cancel(Seeker seeker) {
+        Ticket ticket = queued.remove(seeker);
+        return ticket != null && waiting.remove(ticket.bucket(), ticket);
+    }
+
+    public boolean isQueued(Seeker seeker) {
+        return queued.containsKey(seeker);
+    }
+
+    public record Bucket(int ratingBand, TimeControl timeControl) {}
+
+    public record Ticket(Seeker seeker, String name, Bucket bucket, long enqueuedNanos) {}
+}
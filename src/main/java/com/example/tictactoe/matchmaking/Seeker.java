@@ -0,0 +1,5 @@
+package com.example.tictactoe.matchmaking;
+
+public interface Seeker {
+    boolean isActive();
+}
@@ -0,0 +1,94 @@
+package com.example.tictactoe.ratelimit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient-style concurrency limit: the limit shrinks when the short-term latency
+ * drifts above the long-term baseline and grows again while latency stays flat.
+ * Callers that cannot get a permit are rejected immediately instead of queueing.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_WINDOW = 0.1;
+    private static final double LONG_WINDOW = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean updating = new AtomicBoolean();
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long rttNanos) {
+        int inFlightAtRelease = inFlight.getAndDecrement();
+        // A sample that arrives while another thread is updating is simply skipped.
+        if (!updating.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            onSample(rttNanos, inFlightAtRelease);
+        } finally {
+            updating.set(false);
+        }
+    }
+
+    private void onSample(long rttNanos, int inFlightAtRelease) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+        shortRttNanos += (rttNanos - shortRttNanos) * SHORT_WINDOW;
+        longRttNanos += (rttNanos - longRttNanos) * LONG_WINDOW;
+        if (longRttNanos / shortRttNanos > 2) {
+            // Latency dropped sharply (e.g. after an incident); let the baseline catch up faster.
+            longRttNanos *= 0.95;
+        }
+        if (inFlightAtRelease < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+        double queueSize = Math.sqrt(estimatedLimit);
+        double newLimit = estimatedLimit * gradient + queueSize;
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.tictactoe.ratelimit;
+
+import com.example.tictactoe.exception.ThrottledException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class ClientRateLimiter {
+
+    private final RateLimitProperties props;
+    private final Cache<String, TokenBucket> addressBuckets;
+    private final Counter sessionRejections;
+    private final Counter addressRejections;
+
+    public ClientRateLimiter(RateLimitProperties props, MeterRegistry registry) {
+        this.props = props;
+        this.addressBuckets = Caffeine.newBuilder()
+                .expireAfterAccess(props.addressIdleExpiry())
+                .maximumSize(props.maxTrackedAddresses())
+                .build();
+        this.sessionRejections = rejections(registry, "session");
+        this.addressRejections = rejections(registry, "address");
+    }
+
+    public TokenBucket newSessionBucket() {
+        return new TokenBucket(props.session().permitsPerSecond(), props.session().burst(), System.nanoTime());
+    }
+
+    public void acquire(TokenBucket sessionBucket, String address) {
+        long now = System.nanoTime();
+        long wait = sessionBucket.tryAcquire(now);
+        if (wait > 0) {
+            sessionRejections.increment();
+            throw new ThrottledException("Rate limit exceeded", "RATE_LIMITED", TimeUnit.NANOSECONDS.toMillis(wait) + 1);
+        }
+        TokenBucket addressBucket = addressBuckets.get(address,
+                a -> new TokenBucket(props.address().permitsPerSecond(), props.address().burst(), now));
+        wait = addressBucket.tryAcquire(now);
+        if (wait > 0) {
+            addressRejections.increment();
+            throw new ThrottledException("Rate limit exceeded", "RATE_LIMITED", TimeUnit.NANOSECONDS.toMillis(wait) + 1);
+        }
+    }
+
+    static Counter rejections(MeterRegistry registry, String scope) {
+        return Counter.builder("tictactoe.ratelimit.rejected")
+                .description("Commands rejected before reaching GameService")
+                .tag("scope", scope)
+                .register(registry);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.tictactoe.ratelimit;
+
+import com.example.tictactoe.exception.ThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+
+@Component
+public class LoadShedder {
+
+    private static final long RETRY_AFTER_MILLIS = 100;
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Counter overloadRejections;
+
+    public LoadShedder(RateLimitProperties props, MeterRegistry registry) {
+        RateLimitProperties.Concurrency c = props.concurrency();
+        this.limiter = new AdaptiveConcurrencyLimiter(
+                c.initialLimit(), c.minLimit(), c.maxLimit(), c.tolerance(), c.smoothing());
+        this.overloadRejections = ClientRateLimiter.rejections(registry, "overload");
+        Gauge.builder("tictactoe.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(registry);
+        Gauge.builder("tictactoe.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(registry);
+    }
+
+    /**
+     * Runs a blocking {@code GameService} call off the event loop, or fails fast with
+     * {@link ThrottledException} when the adaptive limit is already reached.
+     */
+    public <T> Mono<T> execute(Callable<T> call) {
+        return Mono.defer(() -> {
+            if (!limiter.tryAcquire()) {
+                overloadRejections.increment();
+                return Mono.error(new ThrottledException("Server overloaded", "OVERLOADED", RETRY_AFTER_MILLIS));
+            }
+            long start = System.nanoTime();
+            return Mono.fromCallable(call)
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .doFinally(signal -> limiter.release(System.nanoTime() - start));
+        });
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.tictactoe.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "tictactoe.rate-limit")
+public record RateLimitProperties(
+        Bucket session,
+        Bucket address,
+        Duration addressIdleExpiry,
+        long maxTrackedAddresses,
+        Concurrency concurrency
+) {
+    public record Bucket(double permitsPerSecond, int burst) {}
+
+    public record Concurrency(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing) {}
+}
@@ -0,0 +1,40 @@
+package com.example.tictactoe.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole bucket state is a single
+ * "theoretical arrival time" that is advanced with one CAS per granted permit.
+ */
+public final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+        }
+        this.emissionIntervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * @return 0 when a permit was granted, otherwise the number of nanoseconds until one is available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long start = Math.max(tat, nowNanos);
+            long waitNanos = start - nowNanos - burstToleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(tat, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
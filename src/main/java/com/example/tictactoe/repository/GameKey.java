@@ -0,0 +1,10 @@
+package com.example.tictactoe.repository;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Position of a game in a {@code (status, timestamp)} index, used for keyset paging: {@code at}
+ * is the game's {@code created_at}, or its {@code last_activity_at} for idle games.
+ */
+public record GameKey(UUID gameId, OffsetDateTime at) {}
@@ -2,10 +2,97 @@ package com.example.tictactoe.repository;
 
 import com.example.tictactoe.domain.Game;
 import com.example.tictactoe.domain.GameStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface GameRepository extends JpaRepository<Game, UUID> {
-    List<Game> findByStatus(GameStatus status);
+    List<Game> findByStatusOrderByCreatedAtDesc(GameStatus status, Limit limit);
+
+    /**
+     * Loads the game for a join. The version is bumped at commit even if only a player row is
+     * inserted, so two first joins racing on different nodes cannot both take X.
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select g from Game g where g.gameId = :id")
+    Optional<Game> findForJoinById(@Param("id") UUID id);
+
+    /**
+     * One page of the ids of games with the given status and a running turn clock, in id order,
+     * continuing strictly after {@code afterId}.
+     */
+    @Query("select g.gameId from Game g where g.status = :status and g.turnStartedAt is not null " +
+            "and g.gameId > :afterId order by g.gameId")
+    List<UUID> findTimedIdsAfter(@Param("status") GameStatus status, @Param("afterId") UUID afterId, Pageable page);
+
+    /**
+     * One page of games with the given status created since {@code since}, newest first,
+     * continuing strictly after the game {@code (afterCreatedAt, afterId)}.
+     */
+    @Query("select new com.example.tictactoe.repository.GameKey(g.gameId, g.createdAt) from Game g " +
+            "where g.status = :status and g.createdAt >= :since " +
+            "and (g.createdAt < :afterCreatedAt or (g.createdAt = :afterCreatedAt and g.gameId < :afterId)) " +
+            "order by g.createdAt desc, g.gameId desc")
+    List<GameKey> findKeysBefore(@Param("status") GameStatus status,
+                                 @Param("since") OffsetDateTime since,
+                                 @Param("afterCreatedAt") OffsetDateTime afterCreatedAt,
+                                 @Param("afterId") UUID afterId,
+                                 Pageable page);
+
+    @Query("select g from Game g left join fetch g.players where g.gameId in :ids")
+    List<Game> findWithPlayersByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Run after {@link #findWithPlayersByIdIn} in the same transaction to fill in the moves;
+     * both bags cannot be fetched in one query.
+     */
+    @Query("select g from Game g left join fetch g.moves where g.gameId in :ids")
+    List<Game> findWithMovesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("select g.version from Game g where g.gameId = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    @Query("select new com.example.tictactoe.repository.GameVersion(g.gameId, g.version) from Game g where g.gameId in :ids")
+    List<GameVersion> findVersionsByIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("select new com.example.tictactoe.repository.StatusCount(g.status, count(g)) from Game g " +
+            "where g.status in :statuses group by g.status")
+    List<StatusCount> countByStatusIn(@Param("statuses") Collection<GameStatus> statuses);
+
+    /**
+     * One page of games with the given status, most recently active first, continuing strictly
+     * after the game {@code (afterActivityAt, afterId)}.
+     */
+    @Query("select new com.example.tictactoe.repository.GameKey(g.gameId, g.lastActivityAt) from Game g " +
+            "where g.status = :status " +
+            "and (g.lastActivityAt < :afterActivityAt or (g.lastActivityAt = :afterActivityAt and g.gameId < :afterId)) " +
+            "order by g.lastActivityAt desc, g.gameId desc")
+    List<GameKey> findIdleKeysBefore(@Param("status") GameStatus status,
+                                     @Param("afterActivityAt") OffsetDateTime afterActivityAt,
+                                     @Param("afterId") UUID afterId,
+                                     Pageable page);
+
+    /**
+     * Deletes those of the games that are still WAITING; returns the ids actually deleted.
+     */
+    @Query(value = "DELETE FROM game WHERE game_id IN (:ids) AND status = 'WAITING' RETURNING game_id",
+            nativeQuery = true)
+    List<UUID> deleteWaiting(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Finishes those of the games that are still IN_PROGRESS and idle since before {@code cutoff}
+     * as abandoned; returns the ids actually finished.
+     */
+    @Query(value = "UPDATE game SET status = 'FINISHED', next_turn = NULL, abandoned = TRUE, version = version + 1 " +
+            "WHERE game_id IN (:ids) AND status = 'IN_PROGRESS' AND last_activity_at < :cutoff RETURNING game_id",
+            nativeQuery = true)
+    List<UUID> abandonIdle(@Param("ids") Collection<UUID> ids, @Param("cutoff") OffsetDateTime cutoff);
 }
@@ -0,0 +1,8 @@
+package com.example.tictactoe.repository;
+
+import java.util.UUID;
+
+/**
+ * A game's id and optimistic-lock version, which is all an HTTP validator needs.
+ */
+public record GameVersion(UUID gameId, Long version) {}
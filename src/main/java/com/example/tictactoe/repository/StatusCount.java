@@ -0,0 +1,5 @@
+package com.example.tictactoe.repository;
+
+import com.example.tictactoe.domain.GameStatus;
+
+public record StatusCount(GameStatus status, Long games) {}
@@ -0,0 +1,14 @@
+package com.example.tictactoe.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "tictactoe.commands")
+public record CommandProperties(
+        int lockStripes,
+        Duration lockTimeout,
+        int maxAttempts,
+        Duration backoffInitial,
+        Duration backoffMax
+) {}
@@ -0,0 +1,123 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.exception.ThrottledException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Runs the commands of each game one at a time on this node, and retries those that still lose
+ * an optimistic-lock race to a commit on another node.
+ * <p>
+ * Games hash onto a fixed array of lock stripes, which bounds memory however many games are
+ * active; two games on one stripe merely wait for each other. A command runs in its own
+ * transaction inside the lock, so a double-click or a join racing a move now waits instead of
+ * failing at commit. Conflicts that remain (ownership handover, the reaper) are retried in a
+ * fresh transaction after an exponential backoff with full jitter. The lock is released for
+ * the backoff, so the stripe's other games, and other commands on the game, go ahead meanwhile.
+ */
+@Slf4j
+@Component
+public class GameCommandExecutor {
+
+    private static final long RETRY_AFTER_MILLIS = 100;
+
+    private final ReentrantLock[] stripes;
+    private final CommandProperties props;
+    private final MeterRegistry registry;
+
+    public GameCommandExecutor(CommandProperties props, MeterRegistry registry) {
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, props.lockStripes()) * 2 - 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.props = props;
+        this.registry = registry;
+    }
+
+    /**
+     * Runs {@code command}, which must open its own transaction, under the game's lock.
+     *
+     * @throws ThrottledException {@code CONTENDED} when the lock is not free within the lock
+     *                            timeout, {@code CONFLICT} when every attempt hit a conflict
+     */
+    public <T> T execute(UUID gameId, String name, Supplier<T> command) {
+        ReentrantLock lock = stripes[stripe(gameId)];
+        long start = lock(lock, name);
+        for (int attempt = 1; ; attempt++) {
+            if (attempt > 1) {
+                lock(lock, name);
+            }
+            try {
+                T result = command.get();
+                if (attempt > 1) {
+                    retryLatency(name, "succeeded").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+                return result;
+            } catch (OptimisticLockingFailureException ex) {
+                registry.counter("tictactoe.commands.conflicts", "command", name).increment();
+                if (attempt >= props.maxAttempts()) {
+                    retryLatency(name, "exhausted").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    log.warn("Command {} on game id={} still conflicting after {} attempts", name, gameId, attempt);
+                    throw new ThrottledException("Game busy", "CONFLICT", RETRY_AFTER_MILLIS);
+                }
+                log.debug("Command {} on game id={} hit a concurrent update, retrying (attempt {})", name, gameId, attempt);
+            } finally {
+                lock.unlock();
+            }
+            backoff(attempt);
+        }
+    }
+
+    /**
+     * Takes the stripe's lock within the lock timeout; returns when it was taken.
+     */
+    private long lock(ReentrantLock lock, String name) {
+        long waitStart = System.nanoTime();
+        try {
+            if (!lock.tryLock(props.lockTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                registry.counter("tictactoe.commands.lock-timeouts", "command", name).increment();
+                throw new ThrottledException("Game busy", "CONTENDED", RETRY_AFTER_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ThrottledException("Game busy", "CONTENDED", RETRY_AFTER_MILLIS);
+        }
+        long taken = System.nanoTime();
+        registry.timer("tictactoe.commands.lock-wait", "command", name).record(taken - waitStart, TimeUnit.NANOSECONDS);
+        return taken;
+    }
+
+    private Timer retryLatency(String name, String outcome) {
+        return Timer.builder("tictactoe.commands.retry.latency")
+                .description("Time spent on commands that needed a retry, including backoff")
+                .tag("command", name)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(props.backoffMax().toNanos(), props.backoffInitial().toNanos() << Math.min(attempt - 1, 20));
+        long sleep = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            TimeUnit.NANOSECONDS.sleep(sleep);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ThrottledException("Game busy", "CONFLICT", RETRY_AFTER_MILLIS);
+        }
+    }
+
+    private int stripe(UUID gameId) {
+        long h = gameId.getMostSignificantBits() ^ gameId.getLeastSignificantBits();
+        int spread = (int) (h ^ (h >>> 32));
+        return (spread ^ (spread >>> 16)) & (stripes.length - 1);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.cache.VersionedGameCache;
+import com.example.tictactoe.cluster.ClusterMembership;
+import com.example.tictactoe.domain.GameStatus;
+import com.example.tictactoe.event.GameEventHub;
+import com.example.tictactoe.repository.GameKey;
+import com.example.tictactoe.repository.GameRepository;
+import com.example.tictactoe.repository.GameVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * Periodically removes games nobody will come back to: WAITING games older than their TTL are
+ * deleted, and IN_PROGRESS games without a join or move for theirs are finished as
+ * {@code ABANDONED}. Work is done in bounded batches, each in its own transaction, walking
+ * idx_game_status_created_at and idx_game_status_last_activity_at respectively. Subscribers
+ * are told about the games that were actually removed or finished, not about every candidate.
+ * <p>
+ * With clustering enabled every node reaps only the games it owns, so that the owner's cache
+ * and event sequence stay the only ones for a game.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "tictactoe.reaper", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class GameReaper {
+
+    private static final OffsetDateTime EPOCH = OffsetDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC);
+    private static final UUID MAX_UUID = new UUID(-1L, -1L);
+
+    private final GameRepository gameRepo;
+    private final GameEventHub hub;
+    private final CacheManager cacheManager;
+    private final VersionedGameCache gameCache;
+    private final TransactionTemplate tx;
+    private final ReaperProperties props;
+    private final ObjectProvider<ClusterMembership> membership;
+
+    public GameReaper(GameRepository gameRepo, GameEventHub hub, CacheManager cacheManager,
+                      VersionedGameCache gameCache, PlatformTransactionManager txManager,
+                      ReaperProperties props, ObjectProvider<ClusterMembership> membership) {
+        this.gameRepo = gameRepo;
+        this.hub = hub;
+        this.cacheManager = cacheManager;
+        this.gameCache = gameCache;
+        this.tx = new TransactionTemplate(txManager);
+        this.props = props;
+        this.membership = membership;
+    }
+
+    @Scheduled(fixedDelayString = "${tictactoe.reaper.interval}", initialDelayString = "${tictactoe.reaper.interval}")
+    public void reap() {
+        int deleted = reap(GameStatus.WAITING, props.waitingTtl(), (ids, cutoff) -> gameRepo.deleteWaiting(ids).stream()
+                .map(gameId -> new GameVersion(gameId, VersionedGameCache.DELETED))
+                .toList());
+        int finished = reap(GameStatus.IN_PROGRESS, props.inProgressTtl(), this::abandon);
+        if (deleted > 0 || finished > 0) {
+            log.info("Reaped abandoned games: deleted {} waiting, finished {} in progress", deleted, finished);
+        }
+    }
+
+    /**
+     * Hands the candidates this node owns to {@code action}, which returns those it changed
+     * along with the version they were left at.
+     */
+    int reap(GameStatus status, Duration ttl, BiFunction<List<UUID>, OffsetDateTime, List<GameVersion>> action) {
+        PageRequest page = PageRequest.of(0, props.batchSize());
+        ClusterMembership cluster = membership.getIfAvailable();
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(ttl);
+        // newest first from the cutoff, past the games other nodes own
+        OffsetDateTime afterAt = cutoff;
+        UUID afterId = MAX_UUID;
+        int total = 0;
+        for (int batch = 0; batch < props.maxBatchesPerRun(); batch++) {
+            OffsetDateTime cursorAt = afterAt;
+            UUID cursorId = afterId;
+            List<GameKey> keys = tx.execute(s -> status == GameStatus.IN_PROGRESS
+                    ? gameRepo.findIdleKeysBefore(status, cursorAt, cursorId, page)
+                    : gameRepo.findKeysBefore(status, EPOCH, cursorAt, cursorId, page));
+            if (keys == null || keys.isEmpty()) {
+                break;
+            }
+            afterAt = keys.getLast().at();
+            afterId = keys.getLast().gameId();
+            List<UUID> ids = keys.stream()
+                    .map(GameKey::gameId)
+                    .filter(gameId -> cluster == null || cluster.isLocal(gameId))
+                    .toList();
+            List<GameVersion> changed = ids.isEmpty() ? List.of() : tx.execute(s -> action.apply(ids, cutoff));
+            if (changed != null && !changed.isEmpty()) {
+                total += changed.size();
+                afterReap(status, changed, cluster != null);
+            }
+            if (keys.size() < props.batchSize()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private List<GameVersion> abandon(List<UUID> ids, OffsetDateTime cutoff) {
+        List<UUID> abandoned = gameRepo.abandonIdle(ids, cutoff);
+        return abandoned.isEmpty() ? List.of() : gameRepo.findVersionsByIds(abandoned);
+    }
+
+    private void afterReap(GameStatus status, List<GameVersion> changed, boolean clustered) {
+        changed.forEach(game -> gameCache.changed(game.gameId(), game.version()));
+        Cache lobby = cacheManager.getCache("lobby");
+        if (lobby != null) {
+            lobby.evict(status);
+            lobby.evict(GameStatus.FINISHED);
+        }
+        for (GameVersion game : changed) {
+            UUID gameId = game.gameId();
+            // subscribers on other nodes are only reached through the relay of a published event
+            if (clustered || hub.isSubscribed(gameId)) {
+                hub.publish(gameId, seq -> String.format(
+                        "{\"type\":\"abandoned\",\"gameId\":\"%s\",\"seq\":%d}", gameId, seq));
+            }
+        }
+    }
+}
@@ -1,21 +1,33 @@
 package com.example.tictactoe.service;
 
+import com.example.tictactoe.cache.CacheProperties;
+import com.example.tictactoe.cache.VersionedGameCache;
+import com.example.tictactoe.datasource.ReadYourWrites;
 import com.example.tictactoe.domain.*;
 import com.example.tictactoe.dto.*;
 import com.example.tictactoe.exception.*;
+import com.example.tictactoe.id.IdGenerator;
+import com.example.tictactoe.jfr.Phase;
 import com.example.tictactoe.mapper.GameMapper;
 import com.example.tictactoe.repository.*;
+import com.example.tictactoe.timer.GameClock;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.*;
 
+import static com.example.tictactoe.logging.SampledLogFilter.SAMPLED;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -26,28 +38,36 @@ public class GameService {
     private final MoveRepository moveRepo;
     private final GameMapper mapper;
     private final GameEvaluator evaluator;
+    private final GameClock clock;
+    private final ReadYourWrites readYourWrites;
+    private final IdGenerator ids;
+    private final MoveTimings timings;
+    private final VersionedGameCache gameCache;
+    private final CacheProperties cacheProps;
 
-    @CacheEvict(value = "games", allEntries = true)
+    @CacheEvict(value = "lobby", allEntries = true)
     @Transactional
     public UUID createGame() {
-        UUID newGameId = UUID.randomUUID();
-        log.info("Starting creation of new game with id={}", newGameId);
-        var game = Game.builder()
-                .gameId(newGameId)
-                .status(GameStatus.WAITING)
-                .nextTurn(Symbol.X)
-                .createdAt(OffsetDateTime.now())
-                .build();
+        return createGame(null);
+    }
+
+    @CacheEvict(value = "lobby", allEntries = true)
+    @Transactional
+    public UUID createGame(TimeControl timeControl) {
+        UUID newGameId = ids.next();
+        log.info("Starting creation of new game with id={}, timeControl={}", newGameId, timeControl);
+        var game = newGame(newGameId, timeControl);
         gameRepo.save(game);
+        readYourWrites.wrote(newGameId);
         log.debug("Game persisted: {}", game);
         return newGameId;
     }
 
-    @CacheEvict(value = "games", allEntries = true)
+    @CacheEvict(value = "lobby", allEntries = true)
     @Transactional
     public PlayerDto joinGame(UUID gameId, String name) {
         log.info("Attempting to join game id={} as player='{}'", gameId, name);
-        var game = gameRepo.findById(gameId)
+        var game = gameRepo.findForJoinById(gameId)
                 .orElseThrow(() -> {
                     log.error("Game not found: id={}", gameId);
                     return new GameNotFoundException(gameId);
@@ -62,7 +82,7 @@ public class GameService {
         log.debug("Assigned symbol={} to new player in game id={}", symbol, gameId);
 
         var player = Player.builder()
-                .playerId(UUID.randomUUID())
+                .playerId(ids.next())
                 .name(name)
                 .symbol(symbol)
                 .joinedAt(OffsetDateTime.now())
@@ -70,29 +90,87 @@ public class GameService {
                 .build();
 
         playerRepo.save(player);
+        readYourWrites.wrote(gameId);
         log.debug("Player persisted: {}", player);
 
         game.getPlayers().add(player);
+        game.setLastActivityAt(player.getJoinedAt());
         if (game.getPlayers().size() == 2) {
             game.setStatus(GameStatus.IN_PROGRESS);
+            if (game.isTimed()) {
+                game.setTurnStartedAt(OffsetDateTime.now());
+                clock.schedule(gameId, game.getTurnDeadline());
+            }
             gameRepo.save(game);
             log.info("Game id={} status changed to IN_PROGRESS", gameId);
         }
+        // flush so that other nodes are told the version this join produced
+        gameRepo.flush();
+        gameCache.changed(gameId, game.getVersion());
 
         PlayerDto dto = mapper.toDto(player);
         log.info("Player joined successfully: gameId={}, playerId={}, symbol={}", gameId, dto.playerId(), dto.symbol());
         return dto;
     }
 
-    @CacheEvict(value = "games", allEntries = true)
+    /**
+     * Creates an already started game for a quickplay pair; {@code nameX} moves first. The id
+     * is chosen by the caller, so that the game is created on, and its clock armed by, its owner.
+     */
+    @Caching(put = @CachePut(value = "games", key = "#p0"),
+            evict = @CacheEvict(value = "lobby", allEntries = true))
+    @Transactional
+    public GameDto createMatchedGame(UUID gameId, String nameX, String nameO, TimeControl timeControl) {
+        var game = newGame(gameId, timeControl);
+        var now = OffsetDateTime.now();
+        game.setStatus(GameStatus.IN_PROGRESS);
+        if (game.isTimed()) {
+            game.setTurnStartedAt(now);
+            clock.schedule(gameId, game.getTurnDeadline());
+        }
+        gameRepo.save(game);
+        for (var entry : List.of(Map.entry(Symbol.X, nameX), Map.entry(Symbol.O, nameO))) {
+            var player = Player.builder()
+                    .playerId(ids.next())
+                    .name(entry.getValue())
+                    .symbol(entry.getKey())
+                    .joinedAt(now)
+                    .game(game)
+                    .build();
+            playerRepo.save(player);
+            game.getPlayers().add(player);
+        }
+        readYourWrites.wrote(gameId);
+        log.info("Quickplay game id={} started: X='{}', O='{}'", gameId, nameX, nameO);
+        return mapper.toDto(game);
+    }
+
+    @Caching(put = @CachePut(value = "games", key = "#p0"),
+            evict = @CacheEvict(value = "lobby", allEntries = true))
     @Transactional
     public GameDto makeMove(UUID gameId, MoveRequest req) {
-        log.info("Player {} is attempting move on game id={} at row={}, col={}", req.playerId(), gameId, req.row(), req.col());
+        var laps = timings.start("move", gameId);
+        String failure = "error";
+        try {
+            GameDto dto = makeMove(gameId, req, laps);
+            failure = null;
+            return dto;
+        } catch (InvalidMoveException | GameNotFoundException ex) {
+            failure = "rejected";
+            throw ex;
+        } finally {
+            laps.finish(failure);
+        }
+    }
+
+    private GameDto makeMove(UUID gameId, MoveRequest req, MoveTimings.Laps laps) {
+        log.info(SAMPLED, "Player {} is attempting move on game id={} at row={}, col={}", req.playerId(), gameId, req.row(), req.col());
         var game = gameRepo.findById(gameId)
                 .orElseThrow(() -> {
                     log.error("Game not found for move: id={}", gameId);
                     return new GameNotFoundException(gameId);
                 });
+        laps.lap(Phase.LOOKUP);
         if (game.getStatus() != GameStatus.IN_PROGRESS) {
             log.warn("Invalid move: game id={} is not in progress but {}", gameId, game.getStatus());
             throw new InvalidMoveException("Game is not in progress");
@@ -102,6 +180,7 @@ public class GameService {
                     log.error("Player not found: id={}", req.playerId());
                     return new InvalidMoveException("Player not found");
                 });
+        laps.lap(Phase.LOOKUP);
         if (!player.getGame().getGameId().equals(gameId)) {
             log.warn("Invalid move: player {} does not belong to game {}", req.playerId(), gameId);
             throw new InvalidMoveException("Player not in this game");
@@ -110,32 +189,50 @@ public class GameService {
             log.warn("Invalid move: not {}'s turn in game id={}", player.getSymbol(), gameId);
             throw new InvalidMoveException("Not your turn");
         }
-        for (var m : game.getMoves()) {
-            if (m.getRow() == req.row() && m.getCol() == req.col()) {
-                log.warn("Invalid move: cell {}x{} already occupied in game id={}", req.row(), req.col(), gameId);
-                throw new InvalidMoveException("Cell already occupied");
+        var now = OffsetDateTime.now();
+        if (game.isTimed()) {
+            if (!now.isBefore(game.getTurnDeadline())) {
+                log.info("Move rejected: {} ran out of time in game id={}", player.getSymbol(), gameId);
+                laps.outcome("lost-on-time");
+                return finishOnTime(game, now);
+            }
+            Long bank = game.getTimeLeftMs(player.getSymbol());
+            if (bank != null) {
+                game.setTimeLeftMs(player.getSymbol(), bank - Duration.between(game.getTurnStartedAt(), now).toMillis());
             }
         }
+        if (!Board.isOnBoard(req.row(), req.col())) {
+            log.warn("Invalid move: cell {}x{} is off the board in game id={}", req.row(), req.col(), gameId);
+            throw new InvalidMoveException("Cell is off the board");
+        }
+        if (!Board.isFree(Board.of(game.getMoves()), Board.cell(req.row(), req.col()))) {
+            log.warn("Invalid move: cell {}x{} already occupied in game id={}", req.row(), req.col(), gameId);
+            throw new InvalidMoveException("Cell already occupied");
+        }
 
         var move = Move.builder()
-                .moveId(UUID.randomUUID())
+                .moveId(ids.next())
                 .game(game)
                 .player(player)
                 .row(req.row())
                 .col(req.col())
-                .movedAt(OffsetDateTime.now())
+                .movedAt(now)
                 .build();
+        laps.lap(Phase.VALIDATE);
 
         try {
             moveRepo.save(move);
-            log.debug("Move persisted: {}", move);
+            log.debug(SAMPLED, "Move persisted: {}", move);
         } catch (DataIntegrityViolationException ex) {
             log.error("Database integrity violation on move: {}", move, ex);
             throw new InvalidMoveException("Cell already occupied");
         }
 
+        laps.lap(Phase.PERSIST);
+
         game.getMoves().add(move);
         Optional<Symbol> winnerOpt = evaluator.evaluate(game.getMoves());
+        laps.lap(Phase.EVALUATE);
         if (winnerOpt.isPresent()) {
             game.setStatus(GameStatus.FINISHED);
             game.setWinner(winnerOpt.get());
@@ -149,20 +246,94 @@ public class GameService {
         } else {
             Symbol next = game.getNextTurn() == Symbol.X ? Symbol.O : Symbol.X;
             game.setNextTurn(next);
-            log.debug("Next turn set to={} for game id={}", next, gameId);
+            log.debug(SAMPLED, "Next turn set to={} for game id={}", next, gameId);
+        }
+        if (game.isTimed()) {
+            if (game.getStatus() == GameStatus.IN_PROGRESS) {
+                game.setTurnStartedAt(now);
+                clock.schedule(gameId, game.getTurnDeadline());
+            } else {
+                clock.cancel(gameId);
+            }
         }
+        game.setLastActivityAt(now);
+        laps.lap(Phase.VALIDATE);
 
         gameRepo.save(game);
-        log.debug("Game state updated: {}", game);
+        readYourWrites.wrote(gameId);
+        // flush now so that the DTO, and the cache stamp taken from it, carry the new version
+        gameRepo.flush();
+        laps.lap(Phase.PERSIST);
+        log.debug(SAMPLED, "Game state updated: {}", game);
         GameDto dto = mapper.toDto(game);
-        log.info("Move processed successfully for game id={}, returning DTO", gameId);
+        laps.lap(Phase.MAP);
+        log.info(SAMPLED, "Move processed successfully for game id={}, returning DTO", gameId);
         return dto;
     }
 
-    @Cacheable("games")
+    /**
+     * Called by the game clock once a turn deadline has passed. Returns the finished game, or
+     * empty when the player moved in time after all or the game is no longer running.
+     */
+    @Caching(put = @CachePut(value = "games", key = "#p0", unless = "#result == null"),
+            evict = @CacheEvict(value = "lobby", allEntries = true))
+    @Transactional
+    public Optional<GameDto> expireTurn(UUID gameId) {
+        var game = gameRepo.findById(gameId).orElse(null);
+        if (game == null || game.getTurnDeadline() == null) {
+            return Optional.empty();
+        }
+        var now = OffsetDateTime.now();
+        if (now.isBefore(game.getTurnDeadline())) {
+            log.debug("Turn deadline of game id={} moved, rescheduling", gameId);
+            clock.schedule(gameId, game.getTurnDeadline());
+            return Optional.empty();
+        }
+        log.info("Game id={}: {} ran out of time", gameId, game.getNextTurn());
+        return Optional.of(finishOnTime(game, now));
+    }
+
+    private GameDto finishOnTime(Game game, OffsetDateTime now) {
+        Symbol loser = game.getNextTurn();
+        Long bank = game.getTimeLeftMs(loser);
+        if (bank != null) {
+            game.setTimeLeftMs(loser, Math.max(0, bank - Duration.between(game.getTurnStartedAt(), now).toMillis()));
+        }
+        game.setStatus(GameStatus.FINISHED);
+        game.setWinner(loser == Symbol.X ? Symbol.O : Symbol.X);
+        game.setNextTurn(null);
+        clock.cancel(game.getGameId());
+        gameRepo.save(game);
+        readYourWrites.wrote(game.getGameId());
+        gameRepo.flush();
+        log.info("Game id={} finished on time, winner={}", game.getGameId(), game.getWinner());
+        return mapper.toDto(game);
+    }
+
+    private Game newGame(UUID gameId, TimeControl timeControl) {
+        var now = OffsetDateTime.now();
+        var builder = Game.builder()
+                .gameId(gameId)
+                .status(GameStatus.WAITING)
+                .nextTurn(Symbol.X)
+                .createdAt(now)
+                .lastActivityAt(now)
+                .players(new ArrayList<>())
+                .moves(new ArrayList<>());
+        if (timeControl != null) {
+            builder.moveTimeLimitMs(timeControl.moveTimeMs())
+                    .totalTimeMs(timeControl.totalTimeMs())
+                    .xTimeLeftMs(timeControl.totalTimeMs())
+                    .oTimeLeftMs(timeControl.totalTimeMs());
+        }
+        return builder.build();
+    }
+
+    @Cacheable(value = "games", sync = true)
     @Transactional(readOnly = true)
     public GameDto getGame(UUID gameId) {
         log.debug("Fetching game state for id={}", gameId);
+        readYourWrites.reading(gameId);
         var game = gameRepo.findById(gameId)
                 .orElseThrow(() -> {
                     log.error("Game not found on getGame: id={}", gameId);
@@ -173,11 +344,23 @@ public class GameService {
         return dto;
     }
 
-    @Cacheable(value = "games", key = "#status")
+    /**
+     * The game's version, read without its players and moves; empty if there is no such game.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(UUID gameId) {
+        readYourWrites.reading(gameId);
+        return gameRepo.findVersionById(gameId);
+    }
+
+    /**
+     * The most recent {@code tictactoe.cache.lobby-limit} games with the given status.
+     */
+    @Cacheable(value = "lobby", key = "#p0")
     @Transactional(readOnly = true)
     public List<GameDto> listGames(GameStatus status) {
         log.debug("Listing games with status={}", status);
-        var games = gameRepo.findByStatus(status);
+        var games = gameRepo.findByStatusOrderByCreatedAtDesc(status, Limit.of(cacheProps.lobbyLimit()));
         List<GameDto> list = games.stream().map(mapper::toDto).toList();
         log.debug("Found {} games with status={}", list.size(), status);
         return list;
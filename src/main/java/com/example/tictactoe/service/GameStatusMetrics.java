@@ -0,0 +1,74 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.cluster.ClusterMembership;
+import com.example.tictactoe.domain.GameStatus;
+import com.example.tictactoe.repository.GameRepository;
+import com.example.tictactoe.repository.StatusCount;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes {@code tictactoe.games} for the open statuses, WAITING and IN_PROGRESS; finished
+ * games only ever grow in number and are not counted. The counts come from one grouped query
+ * over idx_game_status_created_at on a schedule rather than on scrape, and are cluster-wide.
+ * <p>
+ * With clustering enabled only the node that owns {@link #REPORTER_KEY} runs the query; the
+ * others report {@code NaN}, which {@code max} across nodes skips.
+ */
+@Slf4j
+@Component
+public class GameStatusMetrics {
+
+    static final Set<GameStatus> COUNTED = EnumSet.of(GameStatus.WAITING, GameStatus.IN_PROGRESS);
+    // not a game id: ids are UUIDv7 or v4, never all zeros
+    static final UUID REPORTER_KEY = new UUID(0L, 0L);
+
+    private final GameRepository gameRepo;
+    private final ObjectProvider<ClusterMembership> membership;
+    private final Map<GameStatus, AtomicLong> counts = new EnumMap<>(GameStatus.class);
+    private volatile boolean reporting = true;
+
+    public GameStatusMetrics(GameRepository gameRepo, ObjectProvider<ClusterMembership> membership, MeterRegistry registry) {
+        this.gameRepo = gameRepo;
+        this.membership = membership;
+        for (GameStatus status : COUNTED) {
+            AtomicLong count = new AtomicLong();
+            counts.put(status, count);
+            Gauge.builder("tictactoe.games", count, value -> reporting ? value.get() : Double.NaN)
+                    .description("Open games per status across the cluster, as of the last refresh")
+                    .tag("status", status.name())
+                    .register(registry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tictactoe.metrics.games-refresh-interval}")
+    public void refresh() {
+        ClusterMembership cluster = membership.getIfAvailable();
+        reporting = cluster == null || cluster.isLocal(REPORTER_KEY);
+        if (!reporting) {
+            return;
+        }
+        Map<GameStatus, Long> latest = new EnumMap<>(GameStatus.class);
+        try {
+            for (StatusCount row : gameRepo.countByStatusIn(COUNTED)) {
+                latest.put(row.status(), row.games());
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Could not refresh game counts: {}", ex.getMessage());
+            return;
+        }
+        counts.forEach((status, count) -> count.set(latest.getOrDefault(status, 0L)));
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.jfr.Phase;
+import com.example.tictactoe.jfr.PhaseEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Where the time of a move goes. A move alternates between phases, so each {@link Laps} adds
+ * the time since its previous lap to the phase just finished. An accepted move records one
+ * {@code tictactoe.move.phase} sample per metric phase, where lookup and persist both count as
+ * {@code db}. Every move, accepted or not, commits a {@link PhaseEvent} for each lap that was
+ * over the event's threshold.
+ */
+@Component
+public class MoveTimings {
+
+    public static final String OK = "ok";
+
+    private static final String[] METRIC_PHASES = {"db", "validate", "evaluate", "map"};
+
+    private final Timer[] timers = new Timer[METRIC_PHASES.length];
+
+    public MoveTimings(MeterRegistry registry) {
+        for (int i = 0; i < METRIC_PHASES.length; i++) {
+            timers[i] = Timer.builder("tictactoe.move.phase")
+                    .description("Time spent per phase of an accepted move")
+                    .tag("phase", METRIC_PHASES[i])
+                    .register(registry);
+        }
+    }
+
+    public Laps start(String action, UUID gameId) {
+        return new Laps(action, gameId);
+    }
+
+    private static int metricOf(Phase phase) {
+        return switch (phase) {
+            case LOOKUP, PERSIST -> 0;
+            case VALIDATE -> 1;
+            case EVALUATE -> 2;
+            case MAP -> 3;
+            default -> -1;
+        };
+    }
+
+    public final class Laps {
+        private final String action;
+        private final UUID gameId;
+        private final long[] nanos = new long[timers.length];
+        private final List<PhaseEvent> events = new ArrayList<>(4);
+        private final List<Phase> eventPhases = new ArrayList<>(4);
+        private long last = System.nanoTime();
+        private PhaseEvent event = newEvent();
+        private String outcome = OK;
+
+        private Laps(String action, UUID gameId) {
+            this.action = action;
+            this.gameId = gameId;
+        }
+
+        public void lap(Phase phase) {
+            long now = System.nanoTime();
+            int metric = metricOf(phase);
+            if (metric >= 0) {
+                nanos[metric] += now - last;
+            }
+            last = now;
+            event.end();
+            if (event.shouldCommit()) {
+                events.add(event);
+                eventPhases.add(phase);
+            }
+            event = newEvent();
+        }
+
+        /**
+         * Marks a move that returned normally without being played, e.g. lost on time.
+         */
+        public void outcome(String outcome) {
+            this.outcome = outcome;
+        }
+
+        /**
+         * Ends the move, with the outcome set so far or {@code failure} when not null: commits
+         * the phase events and, for an accepted move, the metrics.
+         */
+        public void finish(String failure) {
+            String result = failure != null ? failure : outcome;
+            for (int i = 0; i < events.size(); i++) {
+                events.get(i).commit(action, gameId, eventPhases.get(i), result);
+            }
+            if (OK.equals(result)) {
+                for (int i = 0; i < timers.length; i++) {
+                    timers[i].record(nanos[i], TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+
+        private PhaseEvent newEvent() {
+            PhaseEvent e = new PhaseEvent();
+            e.begin();
+            return e;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.tictactoe.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "tictactoe.reaper")
+public record ReaperProperties(
+        boolean enabled,
+        Duration interval,
+        Duration waitingTtl,
+        Duration inProgressTtl,
+        int batchSize,
+        int maxBatchesPerRun
+) {}
@@ -0,0 +1,41 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.cluster.GameCommandRouter;
+import com.example.tictactoe.exception.ThrottledException;
+import com.example.tictactoe.logging.Correlation;
+import com.example.tictactoe.timer.GameClock;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Finishes games whose turn deadline fired and publishes the result like any other update.
+ * The expiry runs on the node that owns the game, wherever the deadline was armed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TurnTimeoutListener {
+    private final GameClock clock;
+    private final GameCommandRouter commands;
+
+    @PostConstruct
+    void register() {
+        clock.onExpiry(this::expired);
+    }
+
+    void expired(UUID gameId) {
+        // runs on the clock's own threads, which bound how many expiries are in flight
+        try {
+            commands.expire(gameId).contextWrite(context -> Correlation.game(context, gameId)).block();
+        } catch (ThrottledException ex) {
+            // the game kept changing under us; whoever changed it rescheduled or cancelled the deadline
+            log.debug("Turn expiry of game id={} gave up: {}", gameId, ex.getCode());
+        } catch (RuntimeException ex) {
+            log.error("Turn expiry failed for game id={}", gameId, ex);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.tictactoe.simulation;
+
+import com.example.tictactoe.domain.Board;
+import com.example.tictactoe.domain.Symbol;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The usual rules of thumb, in order: complete a line, block the opponent's line, take the
+ * centre, take a corner, take anything. Beatable by forks.
+ */
+final class HeuristicStrategy implements Strategy {
+
+    static final HeuristicStrategy INSTANCE = new HeuristicStrategy();
+
+    private static final int CENTRE = 1 << 4;
+    private static final int CORNERS = 0b101_000_101;
+
+    @Override
+    public int choose(int board, RandomGenerator rng) {
+        Symbol me = Board.toMove(board);
+        int free = Board.free(board);
+        int win = completing(Board.cells(board, me), free);
+        if (win >= 0) {
+            return win;
+        }
+        int block = completing(Board.cells(board, me == Symbol.X ? Symbol.O : Symbol.X), free);
+        if (block >= 0) {
+            return block;
+        }
+        if ((free & CENTRE) != 0) {
+            return 4;
+        }
+        return Strategy.anyOf((free & CORNERS) != 0 ? free & CORNERS : free, rng);
+    }
+
+    private static int completing(int cells, int free) {
+        for (int rest = free; rest != 0; rest &= rest - 1) {
+            int cell = Integer.numberOfTrailingZeros(rest);
+            if (Board.completesLine(cells | 1 << cell)) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "heuristic";
+    }
+}
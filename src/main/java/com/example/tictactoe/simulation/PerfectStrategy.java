@@ -0,0 +1,67 @@
+package com.example.tictactoe.simulation;
+
+import com.example.tictactoe.domain.Board;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Minimax play from a table of every reachable board, solved once when the class loads. Among
+ * equally good cells it picks at random, wins as fast and loses as slowly as it can. Never loses.
+ */
+final class PerfectStrategy implements Strategy {
+
+    static final PerfectStrategy INSTANCE = new PerfectStrategy();
+
+    // BEST[board] is the set of cells that keep the best outcome for the side to move
+    private static final char[] BEST = new char[1 << 2 * Board.CELLS];
+
+    static {
+        byte[] scores = new byte[BEST.length];
+        Arrays.fill(scores, Byte.MIN_VALUE);
+        solve(Board.EMPTY, scores);
+    }
+
+    /**
+     * Negamax score for the side to move: positive when it wins, higher the sooner.
+     */
+    private static int solve(int board, byte[] scores) {
+        if (scores[board] != Byte.MIN_VALUE) {
+            return scores[board];
+        }
+        int free = Board.free(board);
+        int score;
+        if (Board.winner(board) != null) {
+            // the previous move completed a line
+            score = -1 - Integer.bitCount(free);
+        } else if (free == 0) {
+            score = 0;
+        } else {
+            score = Integer.MIN_VALUE;
+            int best = 0;
+            for (int rest = free; rest != 0; rest &= rest - 1) {
+                int cell = Integer.numberOfTrailingZeros(rest);
+                int child = -solve(Board.play(board, cell), scores);
+                if (child > score) {
+                    score = child;
+                    best = 1 << cell;
+                } else if (child == score) {
+                    best |= 1 << cell;
+                }
+            }
+            BEST[board] = (char) best;
+        }
+        scores[board] = (byte) score;
+        return score;
+    }
+
+    @Override
+    public int choose(int board, RandomGenerator rng) {
+        return Strategy.anyOf(BEST[board], rng);
+    }
+
+    @Override
+    public String toString() {
+        return "perfect";
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.tictactoe.simulation;
+
+import com.example.tictactoe.domain.Board;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Any free cell, uniformly.
+ */
+final class RandomStrategy implements Strategy {
+
+    static final RandomStrategy INSTANCE = new RandomStrategy();
+
+    @Override
+    public int choose(int board, RandomGenerator rng) {
+        return Strategy.anyOf(Board.free(board), rng);
+    }
+
+    @Override
+    public String toString() {
+        return "random";
+    }
+}
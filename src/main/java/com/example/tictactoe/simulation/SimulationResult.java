@@ -0,0 +1,66 @@
+package com.example.tictactoe.simulation;
+
+import com.example.tictactoe.domain.Symbol;
+
+import java.io.PrintStream;
+import java.time.Duration;
+
+/**
+ * Outcome counts of one simulation run. {@code plies[n]} counts the games that ended after
+ * {@code n} moves; {@code samples} holds the first games of each thread, packed as by
+ * {@link Simulator#play}.
+ */
+public record SimulationResult(
+        String x,
+        String o,
+        int threads,
+        long games,
+        long xWins,
+        long oWins,
+        long draws,
+        long[] plies,
+        long[] samples,
+        Duration elapsed
+) {
+
+    public double gamesPerSecond() {
+        return games / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%s (X) vs %s (O): %,d games on %d thread%s in %.3f s, %,.0f games/s%n",
+                x, o, games, threads, threads == 1 ? "" : "s", elapsed.toNanos() / 1e9, gamesPerSecond());
+        line(out, "X wins", xWins);
+        line(out, "O wins", oWins);
+        line(out, "draws", draws);
+        out.print("  length ");
+        for (int n = 5; n < plies.length; n++) {
+            out.printf(" %d: %.2f%%", n, percent(plies[n]));
+        }
+        out.println();
+    }
+
+    private void line(PrintStream out, String label, long count) {
+        out.printf("  %-7s %,15d %7.2f%%%n", label, count, percent(count));
+    }
+
+    private double percent(long count) {
+        return games == 0 ? 0 : 100.0 * count / games;
+    }
+
+    /**
+     * A packed game as its cells in the order played, then the winner, e.g. {@code 4,1,8,2,0 X}.
+     */
+    public static String describe(long game) {
+        int plies = Simulator.plies(game);
+        StringBuilder sb = new StringBuilder(2 * plies + 4);
+        for (int ply = 0; ply < plies; ply++) {
+            if (ply > 0) {
+                sb.append(',');
+            }
+            sb.append(Simulator.cell(game, ply));
+        }
+        Symbol winner = Simulator.winner(game);
+        return sb.append(' ').append(winner == null ? "draw" : winner.name()).toString();
+    }
+}
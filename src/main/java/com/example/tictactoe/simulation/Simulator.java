@@ -0,0 +1,205 @@
+package com.example.tictactoe.simulation;
+
+import com.example.tictactoe.domain.Board;
+import com.example.tictactoe.domain.Symbol;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+
+/**
+ * Self-play between two {@link Strategy strategies} on the rules of {@link Board}, without Spring,
+ * the web stack or the database. Games are split evenly across threads; each thread has its own
+ * {@link SplittableRandom}, split from the seed, and its own counters, merged once at the end.
+ * A game is packed into one {@code long}, so the playing loop allocates nothing.
+ * <p>
+ * Run with {@code java -cp target/classes com.example.tictactoe.simulation.Simulator
+ * x=perfect o=random games=10000000 [threads=N] [seed=S] [warmup=G] [samples=K out=games.txt]}.
+ */
+public final class Simulator {
+
+    // packed game: 4 bits per cell played from bit 0, the number of plies, then the winner
+    private static final int PLIES_SHIFT = 36;
+    private static final int WINNER_SHIFT = 40;
+    private static final long X_WON = 1;
+    private static final long O_WON = 2;
+
+    private final Strategy x;
+    private final Strategy o;
+    private final int threads;
+    private final int samples;
+
+    public Simulator(Strategy x, Strategy o, int threads, int samples) {
+        this.x = x;
+        this.o = o;
+        this.threads = threads;
+        this.samples = samples;
+    }
+
+    public SimulationResult run(long games, long seed) throws InterruptedException {
+        SplittableRandom root = new SplittableRandom(seed);
+        List<Callable<Tally>> parts = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            long share = games / threads + (i < games % threads ? 1 : 0);
+            int keep = samples / threads + (i < samples % threads ? 1 : 0);
+            SplittableRandom rng = root.split();
+            parts.add(() -> play(share, keep, rng));
+        }
+        long start = System.nanoTime();
+        List<Future<Tally>> futures;
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "simulation");
+            t.setDaemon(true);
+            return t;
+        })) {
+            futures = pool.invokeAll(parts);
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        Tally total = new Tally(samples);
+        for (Future<Tally> future : futures) {
+            try {
+                total.add(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Simulation thread failed", e.getCause());
+            }
+        }
+        return new SimulationResult(x.toString(), o.toString(), threads, games,
+                total.xWins, total.oWins, total.draws, total.plies,
+                Arrays.copyOf(total.samples, total.sampled), elapsed);
+    }
+
+    private Tally play(long games, int keep, RandomGenerator rng) {
+        Tally tally = new Tally(keep);
+        for (long i = 0; i < games; i++) {
+            tally.record(play(x, o, rng));
+        }
+        return tally;
+    }
+
+    /**
+     * Plays one game, X first, and returns it packed.
+     *
+     * @throws IllegalArgumentException if a strategy picks a cell that is not free
+     */
+    static long play(Strategy x, Strategy o, RandomGenerator rng) {
+        int board = Board.EMPTY;
+        long game = 0;
+        for (int ply = 0; ply < Board.CELLS; ply++) {
+            Symbol mover = (ply & 1) == 0 ? Symbol.X : Symbol.O;
+            int cell = (mover == Symbol.X ? x : o).choose(board, rng);
+            board = Board.play(board, cell);
+            game |= (long) cell << 4 * ply;
+            if (Board.completesLine(Board.cells(board, mover))) {
+                return game | (long) (ply + 1) << PLIES_SHIFT | (mover == Symbol.X ? X_WON : O_WON) << WINNER_SHIFT;
+            }
+        }
+        return game | (long) Board.CELLS << PLIES_SHIFT;
+    }
+
+    static int plies(long game) {
+        return (int) (game >>> PLIES_SHIFT) & 0xF;
+    }
+
+    static int cell(long game, int ply) {
+        return (int) (game >>> 4 * ply) & 0xF;
+    }
+
+    static Symbol winner(long game) {
+        long winner = game >>> WINNER_SHIFT & 3;
+        return winner == X_WON ? Symbol.X : winner == O_WON ? Symbol.O : null;
+    }
+
+    private static final class Tally {
+        long xWins;
+        long oWins;
+        long draws;
+        final long[] plies = new long[Board.CELLS + 1];
+        final long[] samples;
+        int sampled;
+
+        Tally(int keep) {
+            samples = new long[keep];
+        }
+
+        void record(long game) {
+            long winner = game >>> WINNER_SHIFT;
+            if (winner == X_WON) {
+                xWins++;
+            } else if (winner == O_WON) {
+                oWins++;
+            } else {
+                draws++;
+            }
+            plies[plies(game)]++;
+            if (sampled < samples.length) {
+                samples[sampled++] = game;
+            }
+        }
+
+        void add(Tally other) {
+            xWins += other.xWins;
+            oWins += other.oWins;
+            draws += other.draws;
+            for (int n = 0; n < plies.length; n++) {
+                plies[n] += other.plies[n];
+            }
+            for (int i = 0; i < other.sampled; i++) {
+                samples[sampled++] = other.samples[i];
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                System.err.println("Arguments are key=value: x, o, games, threads, seed, warmup, samples, out");
+                System.exit(2);
+            }
+            opts.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        Strategy x = Strategy.named(opts.getOrDefault("x", "perfect"));
+        Strategy o = Strategy.named(opts.getOrDefault("o", "random"));
+        long games = Long.parseLong(opts.getOrDefault("games", "10000000"));
+        int threads = Integer.parseInt(opts.getOrDefault("threads",
+                Integer.toString(Runtime.getRuntime().availableProcessors())));
+        long seed = Long.parseLong(opts.getOrDefault("seed", Long.toString(System.nanoTime())));
+        long warmup = Long.parseLong(opts.getOrDefault("warmup", Long.toString(Math.min(games / 10, 2_000_000))));
+        int samples = Integer.parseInt(opts.getOrDefault("samples", "0"));
+
+        if (warmup > 0) {
+            new Simulator(x, o, threads, 0).run(warmup, ~seed);
+        }
+        SimulationResult result = new Simulator(x, o, threads, samples).run(games, seed);
+        result.print(System.out);
+        if (samples > 0) {
+            Path out = Path.of(opts.getOrDefault("out", "games.txt"));
+            write(out, result.samples());
+            System.out.printf("Wrote %,d games to %s%n", result.samples().length, out);
+        }
+    }
+
+    private static void write(Path out, long[] games) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(out))) {
+            for (long game : games) {
+                writer.println(SimulationResult.describe(game));
+            }
+        }
+    }
+}
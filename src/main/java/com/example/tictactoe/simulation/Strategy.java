@@ -0,0 +1,48 @@
+package com.example.tictactoe.simulation;
+
+import com.example.tictactoe.domain.Board;
+import com.example.tictactoe.tablebase.Tablebase;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.random.RandomGenerator;
+
+/**
+ * Picks the next cell for the side to move on a {@link Board}. Strategies are shared by all
+ * simulation threads, so they keep no mutable state and draw randomness only from {@code rng}.
+ */
+@FunctionalInterface
+public interface Strategy {
+
+    int choose(int board, RandomGenerator rng);
+
+    /**
+     * {@code random}, {@code heuristic}, {@code perfect} or {@code tablebase:<file>}.
+     */
+    static Strategy named(String name) {
+        if (name.startsWith("tablebase:")) {
+            try {
+                return new TablebaseStrategy(Tablebase.open(Path.of(name.substring("tablebase:".length()))));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return switch (name) {
+            case "random" -> RandomStrategy.INSTANCE;
+            case "heuristic" -> HeuristicStrategy.INSTANCE;
+            case "perfect" -> PerfectStrategy.INSTANCE;
+            default -> throw new IllegalArgumentException("Unknown strategy '" + name + "'");
+        };
+    }
+
+    /**
+     * One of the cells in {@code cells}, uniformly.
+     */
+    static int anyOf(int cells, RandomGenerator rng) {
+        for (int skip = rng.nextInt(Integer.bitCount(cells)); skip > 0; skip--) {
+            cells &= cells - 1;
+        }
+        return Integer.numberOfTrailingZeros(cells);
+    }
+}
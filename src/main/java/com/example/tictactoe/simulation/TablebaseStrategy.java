@@ -0,0 +1,31 @@
+package com.example.tictactoe.simulation;
+
+import com.example.tictactoe.tablebase.Tablebase;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Any of the cells a 3×3 {@link Tablebase} rates best, uniformly. Plays like
+ * {@link PerfectStrategy} without its preference for quick wins.
+ */
+final class TablebaseStrategy implements Strategy {
+
+    private final Tablebase tablebase;
+
+    TablebaseStrategy(Tablebase tablebase) {
+        if (tablebase.variant().size() != 3 || tablebase.variant().line() != 3) {
+            throw new IllegalArgumentException("Simulations are 3x3/3, the tablebase solves " + tablebase.variant());
+        }
+        this.tablebase = tablebase;
+    }
+
+    @Override
+    public int choose(int board, RandomGenerator rng) {
+        return Strategy.anyOf((int) tablebase.bestCells(board), rng);
+    }
+
+    @Override
+    public String toString() {
+        return "tablebase";
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.tictactoe.tablebase;
+
+import com.example.tictactoe.domain.Board;
+import com.example.tictactoe.domain.Symbol;
+import com.example.tictactoe.dto.GameDto;
+import com.example.tictactoe.dto.MoveDto;
+import com.example.tictactoe.dto.PlayerDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What perfect play makes of a game for the side to move, and the cells that get there.
+ */
+public record Hint(
+        Symbol toMove,
+        Outcome outcome,
+        List<Cell> cells
+) {
+    public record Cell(int row, int col) {}
+
+    /**
+     * @throws IllegalArgumentException if the moves of the game cannot come from legal play
+     */
+    public static Hint of(Tablebase tablebase, GameDto game) {
+        long position = Board.EMPTY;
+        for (MoveDto move : game.moves()) {
+            Symbol symbol = game.players().stream()
+                    .filter(player -> player.playerId().equals(move.playerId()))
+                    .map(PlayerDto::symbol)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Move by unknown player " + move.playerId()));
+            int cell = Board.cell(move.row(), move.col());
+            position |= 1L << (symbol == Symbol.X ? cell : cell + Board.CELLS);
+        }
+        if (!tablebase.variant().isPlausible(position)) {
+            throw new IllegalArgumentException("Position cannot come from legal play");
+        }
+        List<Cell> cells = new ArrayList<>();
+        for (long best = tablebase.bestCells(position); best != 0; best &= best - 1) {
+            int cell = Long.numberOfTrailingZeros(best);
+            cells.add(new Cell(cell / 3, cell % 3));
+        }
+        return new Hint(Board.toMove((int) position), tablebase.outcome(position), cells);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.tictactoe.tablebase;
+
+/**
+ * Result of perfect play from a position, for the side to move. Stored as a 2-bit code.
+ */
+public enum Outcome {
+    WIN(1), DRAW(2), LOSS(3);
+
+    private final int code;
+
+    Outcome(int code) {
+        this.code = code;
+    }
+
+    int code() {
+        return code;
+    }
+
+    static Outcome of(int code) {
+        return switch (code) {
+            case 1 -> WIN;
+            case 2 -> DRAW;
+            case 3 -> LOSS;
+            default -> throw new IllegalStateException("No outcome stored (code " + code + ")");
+        };
+    }
+}
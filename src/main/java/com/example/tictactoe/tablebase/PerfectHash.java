@@ -0,0 +1,133 @@
+package com.example.tictactoe.tablebase;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Minimal perfect hash over a fixed set of distinct {@code long} keys, in the manner of BBHash:
+ * level {@code l} is a bit array of about twice as many bits as keys left. A key that is alone on
+ * its bit at some level owns that bit, the others go on to the next level. A key's index is the
+ * number of owned bits before its own, taken from a rank per 64-bit word.
+ * <p>
+ * Lookups read the bit arrays straight from the buffer the hash was built into or mapped from.
+ * A key outside the set gets an arbitrary index or -1. Layout: {@code int levels},
+ * {@code int words[levels]}, {@code long bits[total]}, {@code int ranks[total]}.
+ */
+final class PerfectHash {
+
+    private static final double GAMMA = 2.0;
+    private static final int MAX_LEVELS = 64;
+
+    private final ByteBuffer buffer;
+    private final int bitsOffset;
+    private final int ranksOffset;
+    private final int byteSize;
+    private final long[] levelStart;
+    private final long[] levelBits;
+
+    private PerfectHash(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        int levels = buffer.getInt(offset);
+        levelStart = new long[levels];
+        levelBits = new long[levels];
+        long words = 0;
+        for (int level = 0; level < levels; level++) {
+            int levelWords = buffer.getInt(offset + 4 + 4 * level);
+            levelStart[level] = words * 64;
+            levelBits[level] = levelWords * 64L;
+            words += levelWords;
+        }
+        bitsOffset = offset + 4 + 4 * levels;
+        ranksOffset = Math.toIntExact(bitsOffset + 8 * words);
+        byteSize = Math.toIntExact(ranksOffset + 4 * words - offset);
+    }
+
+    /**
+     * The hash stored at {@code offset} of {@code buffer}.
+     */
+    static PerfectHash at(ByteBuffer buffer, int offset) {
+        return new PerfectHash(buffer, offset);
+    }
+
+    int byteSize() {
+        return byteSize;
+    }
+
+    /**
+     * The key's index in {@code [0, keys)}.
+     */
+    long index(long key) {
+        for (int level = 0; level < levelBits.length; level++) {
+            long bit = levelStart[level] + Math.unsignedMultiplyHigh(hash(key, level), levelBits[level]);
+            int word = (int) (bit >>> 6);
+            long bits = buffer.getLong(bitsOffset + 8 * word);
+            if ((bits & 1L << bit) != 0) {
+                return buffer.getInt(ranksOffset + 4 * word) + Long.bitCount(bits & (1L << bit) - 1);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Builds the hash of {@code keys} into a heap buffer in the stored layout.
+     */
+    static ByteBuffer build(long[] keys) {
+        List<long[]> levels = new ArrayList<>();
+        long[] remaining = keys;
+        while (remaining.length > 0) {
+            if (levels.size() == MAX_LEVELS) {
+                throw new IllegalArgumentException("Keys are not distinct");
+            }
+            int level = levels.size();
+            int words = (int) Math.max(1, ((long) Math.ceil(remaining.length * GAMMA) + 63) / 64);
+            long bitCount = words * 64L;
+            long[] owned = new long[words];
+            long[] collided = new long[words];
+            for (long key : remaining) {
+                long bit = Math.unsignedMultiplyHigh(hash(key, level), bitCount);
+                int word = (int) (bit >>> 6);
+                if ((owned[word] & 1L << bit) != 0) {
+                    collided[word] |= 1L << bit;
+                } else {
+                    owned[word] |= 1L << bit;
+                }
+            }
+            long[] next = new long[remaining.length];
+            int left = 0;
+            for (long key : remaining) {
+                long bit = Math.unsignedMultiplyHigh(hash(key, level), bitCount);
+                if ((collided[(int) (bit >>> 6)] & 1L << bit) != 0) {
+                    next[left++] = key;
+                }
+            }
+            for (int w = 0; w < words; w++) {
+                owned[w] &= ~collided[w];
+            }
+            levels.add(owned);
+            remaining = Arrays.copyOf(next, left);
+        }
+
+        int total = levels.stream().mapToInt(level -> level.length).sum();
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 4 * levels.size() + 12 * total);
+        buffer.putInt(levels.size());
+        levels.forEach(level -> buffer.putInt(level.length));
+        levels.forEach(level -> Arrays.stream(level).forEach(buffer::putLong));
+        int rank = 0;
+        for (long[] level : levels) {
+            for (long word : level) {
+                buffer.putInt(rank);
+                rank += Long.bitCount(word);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static long hash(long key, int level) {
+        long z = key + (level + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+        return z ^ z >>> 31;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.tictactoe.tablebase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Solved positions of one {@link Variant}, as written by {@link TablebaseGenerator}: a header, a
+ * {@link PerfectHash} over the canonical positions and a 2-bit {@link Outcome} per position.
+ * <p>
+ * {@link #open} maps the file read-only and queries it in place, so opening costs nothing,
+ * only the pages touched are read, and every JVM on the host shares them through the page
+ * cache. Positions must come from legal play; others get arbitrary answers.
+ */
+public final class Tablebase {
+
+    static final int MAGIC = 0x54544231; // "TTB1"
+    static final int HEADER_BYTES = 24;
+
+    private final Variant variant;
+    private final long positions;
+    private final PerfectHash index;
+    private final ByteBuffer buffer;
+    private final int outcomesOffset;
+
+    Tablebase(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a tablebase file");
+        }
+        this.variant = new Variant(buffer.getInt(4), buffer.getInt(8));
+        this.positions = buffer.getLong(16);
+        this.index = PerfectHash.at(buffer, HEADER_BYTES);
+        this.buffer = buffer;
+        this.outcomesOffset = HEADER_BYTES + index.byteSize();
+        if (buffer.capacity() < outcomesOffset + (positions + 3) / 4) {
+            throw new IllegalArgumentException("Tablebase file is truncated");
+        }
+    }
+
+    public static Tablebase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping outlives the channel
+            return new Tablebase(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public Variant variant() {
+        return variant;
+    }
+
+    public long positions() {
+        return positions;
+    }
+
+    public Outcome outcome(long position) {
+        long i = index.index(variant.canonical(position));
+        if (i < 0 || i >= positions) {
+            throw new IllegalArgumentException("Position is not in the tablebase");
+        }
+        int bits = buffer.get(outcomesOffset + (int) (i >>> 2)) >>> 2 * (i & 3) & 3;
+        return Outcome.of(bits);
+    }
+
+    /**
+     * The free cells that keep {@link #outcome} for the side to move, as a mask; empty once the
+     * game is over.
+     */
+    public long bestCells(long position) {
+        if (variant.isWon(position)) {
+            return 0;
+        }
+        long best = 0;
+        // the opponent's outcome after our move: LOSS is best for us, WIN worst
+        int bestCode = 0;
+        for (long free = variant.free(position); free != 0; free &= free - 1) {
+            int cell = Long.numberOfTrailingZeros(free);
+            int code = outcome(variant.play(position, cell)).code();
+            if (code > bestCode) {
+                bestCode = code;
+                best = 1L << cell;
+            } else if (code == bestCode) {
+                best |= 1L << cell;
+            }
+        }
+        return best;
+    }
+}
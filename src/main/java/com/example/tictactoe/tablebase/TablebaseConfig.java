@@ -0,0 +1,31 @@
+package com.example.tictactoe.tablebase;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+public class TablebaseConfig {
+
+    /**
+     * The mapped tablebase, or null (no bean) without a path. Decided here rather than with a
+     * condition, which an AOT build would fix before the image's path is set.
+     */
+    @Bean
+    public Tablebase tablebase(TablebaseProperties props) throws IOException {
+        if (props.path() == null) {
+            log.info("No tablebase configured: hints are off");
+            return null;
+        }
+        Tablebase tablebase = Tablebase.open(props.path());
+        Variant variant = tablebase.variant();
+        if (variant.size() != 3 || variant.line() != 3) {
+            throw new IllegalStateException("Tablebase " + props.path() + " solves " + variant + ", games here are 3x3/3");
+        }
+        log.info("Tablebase {} mapped: {} positions", props.path(), tablebase.positions());
+        return tablebase;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.tictactoe.tablebase;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline solver that writes a {@link Tablebase}. Every move adds a stone, so the positions fall
+ * into layers by ply. The layers are first enumerated forwards from the empty board, keeping
+ * one canonical position per symmetry class and not expanding won positions. They are then
+ * solved backwards (retrograde) from the last layer, each position from its successors in the
+ * layer after it.
+ * <p>
+ * Run with {@code java -cp target/classes com.example.tictactoe.tablebase.TablebaseGenerator
+ * size=4 line=4 out=tablebase-4x4.ttb}. 3×3 takes milliseconds and 4×4 seconds. 5×5 does not
+ * fit in memory with this approach.
+ */
+public final class TablebaseGenerator {
+
+    private final Variant variant;
+    private final PrintStream log;
+
+    public TablebaseGenerator(Variant variant, PrintStream log) {
+        this.variant = variant;
+        this.log = log;
+    }
+
+    public void generate(Path out) throws IOException {
+        long start = System.nanoTime();
+        List<long[]> layers = enumerate();
+        byte[][] codes = solve(layers);
+
+        long positions = layers.stream().mapToLong(layer -> layer.length).sum();
+        long[] keys = new long[Math.toIntExact(positions)];
+        int at = 0;
+        for (long[] layer : layers) {
+            System.arraycopy(layer, 0, keys, at, layer.length);
+            at += layer.length;
+        }
+        ByteBuffer hash = PerfectHash.build(keys);
+        PerfectHash index = PerfectHash.at(hash, 0);
+        ByteBuffer outcomes = ByteBuffer.allocate(Math.toIntExact((positions + 3) / 4));
+        for (int ply = 0; ply < layers.size(); ply++) {
+            long[] layer = layers.get(ply);
+            for (int i = 0; i < layer.length; i++) {
+                int slot = Math.toIntExact(index.index(layer[i]));
+                outcomes.put(slot >>> 2, (byte) (outcomes.get(slot >>> 2) | codes[ply][i] << 2 * (slot & 3)));
+            }
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(Tablebase.HEADER_BYTES)
+                .putInt(Tablebase.MAGIC)
+                .putInt(variant.size())
+                .putInt(variant.line())
+                .putInt(0)
+                .putLong(positions)
+                .flip();
+        try (FileChannel channel = FileChannel.open(out, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (ByteBuffer part : new ByteBuffer[]{header, hash.rewind(), outcomes}) {
+                while (part.hasRemaining()) {
+                    channel.write(part);
+                }
+            }
+        }
+
+        long bytes = Tablebase.HEADER_BYTES + hash.capacity() + outcomes.capacity();
+        log.printf("%s: %,d positions up to symmetry, first player %s, %,d bytes (%.2f bits per position) in %.1f s%n",
+                variant, positions, Outcome.of(codes[0][0]), bytes, 8.0 * bytes / positions,
+                (System.nanoTime() - start) / 1e9);
+    }
+
+    private List<long[]> enumerate() {
+        List<long[]> layers = new ArrayList<>();
+        long[] layer = {variant.canonical(0)};
+        while (layer.length > 0) {
+            layers.add(layer);
+            long[] next = new long[16];
+            int count = 0;
+            for (long position : layer) {
+                if (variant.isWon(position)) {
+                    continue;
+                }
+                for (long free = variant.free(position); free != 0; free &= free - 1) {
+                    if (count == next.length) {
+                        next = Arrays.copyOf(next, count * 2);
+                    }
+                    next[count++] = variant.canonical(variant.play(position, Long.numberOfTrailingZeros(free)));
+                }
+            }
+            layer = distinct(next, count);
+            if (layer.length > 0) {
+                log.printf("  ply %2d: %,d positions%n", layers.size(), layer.length);
+            }
+        }
+        return layers;
+    }
+
+    private byte[][] solve(List<long[]> layers) {
+        byte[][] codes = new byte[layers.size()][];
+        for (int ply = layers.size() - 1; ply >= 0; ply--) {
+            long[] layer = layers.get(ply);
+            byte[] layerCodes = new byte[layer.length];
+            for (int i = 0; i < layer.length; i++) {
+                layerCodes[i] = (byte) solve(layer[i], layers, codes, ply).code();
+            }
+            codes[ply] = layerCodes;
+        }
+        return codes;
+    }
+
+    private Outcome solve(long position, List<long[]> layers, byte[][] codes, int ply) {
+        if (variant.isWon(position)) {
+            return Outcome.LOSS;
+        }
+        long free = variant.free(position);
+        if (free == 0) {
+            return Outcome.DRAW;
+        }
+        Outcome result = Outcome.LOSS;
+        for (; free != 0; free &= free - 1) {
+            long child = variant.canonical(variant.play(position, Long.numberOfTrailingZeros(free)));
+            Outcome reply = Outcome.of(codes[ply + 1][Arrays.binarySearch(layers.get(ply + 1), child)]);
+            if (reply == Outcome.LOSS) {
+                return Outcome.WIN;
+            }
+            if (reply == Outcome.DRAW) {
+                result = Outcome.DRAW;
+            }
+        }
+        return result;
+    }
+
+    private static long[] distinct(long[] values, int count) {
+        Arrays.sort(values, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || values[i] != values[unique - 1]) {
+                values[unique++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, unique);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                System.err.println("Arguments are key=value: size, line, out");
+                System.exit(2);
+            }
+            opts.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        int size = Integer.parseInt(opts.getOrDefault("size", "3"));
+        int line = Integer.parseInt(opts.getOrDefault("line", Integer.toString(size)));
+        Path out = Path.of(opts.getOrDefault("out", "tablebase-" + size + "x" + size + ".ttb"));
+        new TablebaseGenerator(new Variant(size, line), System.out).generate(out);
+        System.out.println("Wrote " + out);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.tictactoe.tablebase;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * @param path 3×3 tablebase written by {@link TablebaseGenerator}; hints are off without one
+ */
+@ConfigurationProperties(prefix = "tictactoe.tablebase")
+public record TablebaseProperties(
+        Path path
+) {}
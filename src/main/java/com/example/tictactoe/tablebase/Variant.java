@@ -0,0 +1,189 @@
+package com.example.tictactoe.tablebase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An {@code size}×{@code size} board won with {@code line} in a row, positions packed into one
+ * {@code long} like {@link com.example.tictactoe.domain.Board} packs 3×3: X's cells in the low
+ * {@code size²} bits, O's right above. Up to 5×5, so that a position fits.
+ * <p>
+ * {@link #canonical} maps a position to the smallest of its eight rotations and reflections,
+ * using one 256-entry table per symmetry and byte of the board.
+ */
+public final class Variant {
+
+    private static final int SYMMETRIES = 8;
+
+    private final int size;
+    private final int line;
+    private final int cells;
+    private final long allCells;
+    private final long[] lines;
+    // SPREAD[s][chunk][b]: the cells of byte b of chunk, moved by symmetry s
+    private final long[][][] spread;
+
+    public Variant(int size, int line) {
+        if (size < 3 || size > 5 || line < 3 || line > size) {
+            throw new IllegalArgumentException("Unsupported variant " + size + "x" + size + " with " + line + " in a row");
+        }
+        this.size = size;
+        this.line = line;
+        this.cells = size * size;
+        this.allCells = (1L << cells) - 1;
+        this.lines = lines(size, line);
+        this.spread = spread(size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int line() {
+        return line;
+    }
+
+    public int cells() {
+        return cells;
+    }
+
+    public int cell(int row, int col) {
+        return row * size + col;
+    }
+
+    public long xCells(long position) {
+        return position & allCells;
+    }
+
+    public long oCells(long position) {
+        return position >>> cells;
+    }
+
+    public long free(long position) {
+        return ~(xCells(position) | oCells(position)) & allCells;
+    }
+
+    public int plies(long position) {
+        return Long.bitCount(position);
+    }
+
+    public boolean xToMove(long position) {
+        return (plies(position) & 1) == 0;
+    }
+
+    /**
+     * The position after the side to move takes {@code cell}, which must be free.
+     */
+    public long play(long position, int cell) {
+        return position | 1L << (xToMove(position) ? cell : cell + cells);
+    }
+
+    public boolean completesLine(long playerCells) {
+        for (long l : lines) {
+            if ((playerCells & l) == l) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the player who moved last has completed a line, which ends the game.
+     */
+    public boolean isWon(long position) {
+        return completesLine(xToMove(position) ? oCells(position) : xCells(position));
+    }
+
+    /**
+     * Piece counts that alternating play from the empty board can produce, with no line for
+     * the side to move. Necessary for reachability, not sufficient.
+     */
+    public boolean isPlausible(long position) {
+        long x = xCells(position);
+        long o = oCells(position);
+        int diff = Long.bitCount(x) - Long.bitCount(o);
+        return (x & o) == 0 && o >>> cells == 0 && (diff == 0 || diff == 1)
+                && !completesLine(xToMove(position) ? x : o);
+    }
+
+    public long canonical(long position) {
+        long best = Long.MAX_VALUE;
+        for (int s = 0; s < SYMMETRIES; s++) {
+            long transformed = transform(s, xCells(position)) | transform(s, oCells(position)) << cells;
+            best = Math.min(best, transformed);
+        }
+        return best;
+    }
+
+    private long transform(int symmetry, long playerCells) {
+        long[][] chunks = spread[symmetry];
+        long result = 0;
+        for (int chunk = 0; playerCells != 0; chunk++, playerCells >>>= 8) {
+            result |= chunks[chunk][(int) (playerCells & 0xFF)];
+        }
+        return result;
+    }
+
+    private static long[] lines(int size, int line) {
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        List<Long> masks = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                for (int[] d : directions) {
+                    int endRow = row + d[0] * (line - 1);
+                    int endCol = col + d[1] * (line - 1);
+                    if (endRow < 0 || endRow >= size || endCol < 0 || endCol >= size) {
+                        continue;
+                    }
+                    long mask = 0;
+                    for (int i = 0; i < line; i++) {
+                        mask |= 1L << ((row + d[0] * i) * size + col + d[1] * i);
+                    }
+                    masks.add(mask);
+                }
+            }
+        }
+        return masks.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long[][][] spread(int size) {
+        int cells = size * size;
+        int chunks = (cells + 7) / 8;
+        long[][][] tables = new long[SYMMETRIES][chunks][256];
+        for (int s = 0; s < SYMMETRIES; s++) {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                for (int b = 0; b < 256; b++) {
+                    long mapped = 0;
+                    for (int bit = 0; bit < 8; bit++) {
+                        int cell = chunk * 8 + bit;
+                        if ((b & 1 << bit) != 0 && cell < cells) {
+                            mapped |= 1L << map(s, size, cell);
+                        }
+                    }
+                    tables[s][chunk][b] = mapped;
+                }
+            }
+        }
+        return tables;
+    }
+
+    // symmetries 0-3 rotate by 0, 90, 180 and 270 degrees; 4-7 do the same after a mirror
+    private static int map(int symmetry, int size, int cell) {
+        int row = cell / size;
+        int col = cell % size;
+        if (symmetry >= 4) {
+            col = size - 1 - col;
+        }
+        for (int r = 0; r < symmetry % 4; r++) {
+            int rotated = col;
+            col = size - 1 - row;
+            row = rotated;
+        }
+        return row * size + col;
+    }
+
+    @Override
+    public String toString() {
+        return size + "x" + size + "/" + line;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.tictactoe.timer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "tictactoe.clock")
+public record ClockProperties(
+        Duration tick,
+        int wheelBits,
+        int levels,
+        int expiryThreads
+) {}
@@ -0,0 +1,113 @@
+package com.example.tictactoe.timer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Turn deadlines of all timed games on this node, kept in one {@link HierarchicalTimingWheel}.
+ * Expired game ids are handed to the registered listener on a small executor so that the
+ * wheel thread never waits for the database.
+ */
+@Slf4j
+@Component
+public class GameClock implements SmartLifecycle {
+
+    private final HierarchicalTimingWheel<UUID> wheel;
+    private final Map<UUID, HierarchicalTimingWheel.Timeout<UUID>> deadlines = new ConcurrentHashMap<>();
+    private final ExecutorService expiryExecutor;
+    private volatile Consumer<UUID> listener = gameId -> {};
+    private volatile boolean running;
+
+    public GameClock(ClockProperties props, MeterRegistry registry) {
+        this.wheel = new HierarchicalTimingWheel<>(
+                props.tick().toNanos(), TimeUnit.NANOSECONDS, props.wheelBits(), props.levels(), this::expired);
+        this.expiryExecutor = Executors.newFixedThreadPool(props.expiryThreads(), r -> {
+            Thread t = new Thread(r, "game-clock-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        Gauge.builder("tictactoe.clock.scheduled", wheel, HierarchicalTimingWheel::size)
+                .description("Turn deadlines currently scheduled")
+                .register(registry);
+    }
+
+    public void onExpiry(Consumer<UUID> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Replaces the game's pending deadline. Inside a transaction this happens after commit,
+     * so a rolled-back move never moves the clock.
+     */
+    public void schedule(UUID gameId, OffsetDateTime deadline) {
+        afterCommit(() -> {
+            long delayNanos = Math.max(0, Duration.between(OffsetDateTime.now(), deadline).toNanos());
+            var timeout = wheel.schedule(gameId, delayNanos, TimeUnit.NANOSECONDS);
+            var previous = deadlines.put(gameId, timeout);
+            if (previous != null) {
+                previous.cancel();
+            }
+        });
+    }
+
+    public void cancel(UUID gameId) {
+        afterCommit(() -> {
+            var previous = deadlines.remove(gameId);
+            if (previous != null) {
+                previous.cancel();
+            }
+        });
+    }
+
+    private void expired(UUID gameId) {
+        deadlines.computeIfPresent(gameId, (id, timeout) -> timeout.isExpired() ? null : timeout);
+        try {
+            expiryExecutor.execute(() -> listener.accept(gameId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Dropping turn expiry for game id={}: clock is stopping", gameId);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @Override
+    public void start() {
+        wheel.start("game-clock");
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        wheel.stop();
+        expiryExecutor.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.tictactoe.timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (Varghese &amp; Lauck) driven by a single worker thread.
+ * <p>
+ * Level {@code l} has {@code 2^wheelBits} slots that each span {@code 2^(wheelBits*l)} ticks.
+ * A timeout sits in the coarsest level that still resolves its deadline and is cascaded down
+ * a level whenever the finer wheel below wraps around. Callers never touch the wheel itself:
+ * {@link #schedule} and {@link Timeout#cancel} only enqueue the request, so both are O(1) and
+ * lock-free, and the worker applies them on its next tick.
+ */
+@Slf4j
+public final class HierarchicalTimingWheel<T> {
+
+    private static final int WAITING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long tickNanos;
+    private final int wheelBits;
+    private final int mask;
+    private final Bucket<T>[][] levels;
+    private final Queue<Timeout<T>> pendingAdds = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout<T>> pendingCancels = new ConcurrentLinkedQueue<>();
+    private final Consumer<T> onExpiry;
+    private final long startNanos;
+    private final AtomicInteger size = new AtomicInteger();
+
+    private volatile Thread worker;
+    private volatile boolean running;
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tick, TimeUnit unit, int wheelBits, int levelCount, Consumer<T> onExpiry) {
+        this.tickNanos = unit.toNanos(tick);
+        this.wheelBits = wheelBits;
+        this.mask = (1 << wheelBits) - 1;
+        this.levels = new Bucket[levelCount][1 << wheelBits];
+        for (Bucket<T>[] level : levels) {
+            for (int i = 0; i < level.length; i++) {
+                level[i] = new Bucket<>();
+            }
+        }
+        this.onExpiry = onExpiry;
+        this.startNanos = System.nanoTime();
+    }
+
+    public Timeout<T> schedule(T payload, long delay, TimeUnit unit) {
+        long deadlineNanos = System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay));
+        return scheduleAtTick(payload, (deadlineNanos + tickNanos - 1) / tickNanos);
+    }
+
+    Timeout<T> scheduleAtTick(T payload, long deadlineTick) {
+        Timeout<T> timeout = new Timeout<>(this, payload, deadlineTick);
+        size.incrementAndGet();
+        pendingAdds.add(timeout);
+        return timeout;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public synchronized void start(String threadName) {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, threadName);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        Thread t = worker;
+        if (t != null) {
+            LockSupport.unpark(t);
+            try {
+                t.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        while (running) {
+            long nextTickAt = startNanos + (currentTick + 1) * tickNanos;
+            long sleep = nextTickAt - System.nanoTime();
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, sleep);
+                continue;
+            }
+            try {
+                advance();
+            } catch (RuntimeException e) {
+                log.error("Timing wheel tick failed", e);
+            }
+        }
+    }
+
+    /**
+     * Moves the wheel one tick forward. Package-private for tests, which drive it manually.
+     */
+    void advance() {
+        drainCancels();
+        currentTick++;
+        drainAdds();
+        for (int level = 1; level < levels.length; level++) {
+            if ((currentTick & ((1L << (wheelBits * level)) - 1)) != 0) {
+                break;
+            }
+            cascade(levels[level][(int) ((currentTick >>> (wheelBits * level)) & mask)]);
+        }
+        Bucket<T> due = levels[0][(int) (currentTick & mask)];
+        for (Timeout<T> timeout : due.drain()) {
+            if (timeout.deadlineTick <= currentTick) {
+                expire(timeout);
+            } else {
+                place(timeout);
+            }
+        }
+    }
+
+    private void drainAdds() {
+        Timeout<T> timeout;
+        while ((timeout = pendingAdds.poll()) != null) {
+            if (timeout.state.get() == WAITING) {
+                place(timeout);
+            }
+        }
+    }
+
+    private void drainCancels() {
+        Timeout<T> timeout;
+        while ((timeout = pendingCancels.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void cascade(Bucket<T> bucket) {
+        for (Timeout<T> timeout : bucket.drain()) {
+            place(timeout);
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        if (delta <= 0) {
+            expire(timeout);
+            return;
+        }
+        int level = 0;
+        while (level < levels.length - 1 && delta >= 1L << (wheelBits * (level + 1))) {
+            level++;
+        }
+        int slot = (int) ((timeout.deadlineTick >>> (wheelBits * level)) & mask);
+        levels[level][slot].add(timeout);
+    }
+
+    private void expire(Timeout<T> timeout) {
+        if (!timeout.state.compareAndSet(WAITING, EXPIRED)) {
+            return;
+        }
+        size.decrementAndGet();
+        try {
+            onExpiry.accept(timeout.payload);
+        } catch (RuntimeException e) {
+            log.error("Timeout callback failed for {}", timeout.payload, e);
+        }
+    }
+
+    public static final class Timeout<T> {
+        private final HierarchicalTimingWheel<T> wheel;
+        private final T payload;
+        private final long deadlineTick;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        // Intrusive list links, only touched by the worker thread.
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(HierarchicalTimingWheel<T> wheel, T payload, long deadlineTick) {
+            this.wheel = wheel;
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T payload() {
+            return payload;
+        }
+
+        public boolean cancel() {
+            if (!state.compareAndSet(WAITING, CANCELLED)) {
+                return false;
+            }
+            wheel.size.decrementAndGet();
+            wheel.pendingCancels.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+    }
+
+    private static final class Bucket<T> {
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        List<Timeout<T>> drain() {
+            List<Timeout<T>> drained = new ArrayList<>();
+            for (Timeout<T> t = head; t != null; ) {
+                Timeout<T> next = t.next;
+                t.bucket = null;
+                t.prev = null;
+                t.next = null;
+                drained.add(t);
+                t = next;
+            }
+            head = null;
+            tail = null;
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.tictactoe.warmup;
+
+import com.example.tictactoe.cache.VersionedGameCache;
+import com.example.tictactoe.cluster.ClusterMembership;
+import com.example.tictactoe.cluster.PgNotifyRelay;
+import com.example.tictactoe.domain.Game;
+import com.example.tictactoe.domain.GameStatus;
+import com.example.tictactoe.dto.GameDto;
+import com.example.tictactoe.mapper.GameMapper;
+import com.example.tictactoe.repository.GameKey;
+import com.example.tictactoe.repository.GameRepository;
+import com.example.tictactoe.timer.GameClock;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills the {@code games} cache with all IN_PROGRESS games and recent WAITING ones before the
+ * node takes traffic, and re-arms the turn deadlines of the timed ones.
+ * <p>
+ * Game ids are paged newest first over {@code idx_game_status_created_at} with a keyset, and
+ * each page is loaded with its players and moves on one of {@code workers} threads. As a
+ * health indicator ({@code cacheWarmUp}, part of the readiness group) it stays
+ * OUT_OF_SERVICE until the warm-up is over. A warm-up that fails or runs past {@code timeout}
+ * only leaves the cache cold, so readiness is released either way.
+ */
+@Slf4j
+@Component
+public class CacheWarmUp implements SmartLifecycle, HealthIndicator {
+
+    private static final UUID MAX_UUID = new UUID(-1L, -1L);
+
+    enum Phase { PENDING, LOADING, DONE, FAILED, TIMED_OUT }
+
+    private final GameRepository gameRepo;
+    private final GameMapper mapper;
+    private final VersionedGameCache gameCache;
+    private final GameClock clock;
+    private final TransactionTemplate tx;
+    private final WarmUpProperties props;
+    private final ObjectProvider<PgNotifyRelay> relay;
+    private final ObjectProvider<ClusterMembership> membership;
+    private final Timer duration;
+    private final AtomicLong loaded = new AtomicLong();
+    private final AtomicLong rearmed = new AtomicLong();
+    private volatile Phase phase = Phase.PENDING;
+    private volatile long startedAt;
+    private volatile long elapsedNanos = -1;
+    private volatile Thread worker;
+
+    public CacheWarmUp(GameRepository gameRepo, GameMapper mapper, VersionedGameCache gameCache, GameClock clock,
+                       PlatformTransactionManager txManager, WarmUpProperties props,
+                       ObjectProvider<PgNotifyRelay> relay, ObjectProvider<ClusterMembership> membership,
+                       MeterRegistry registry) {
+        this.gameRepo = gameRepo;
+        this.mapper = mapper;
+        this.gameCache = gameCache;
+        this.clock = clock;
+        this.tx = new TransactionTemplate(txManager);
+        this.tx.setReadOnly(true);
+        this.props = props;
+        this.relay = relay;
+        this.membership = membership;
+        this.duration = Timer.builder("tictactoe.warmup.duration")
+                .description("Time from startup until the game cache was warm")
+                .register(registry);
+        Gauge.builder("tictactoe.warmup.games", loaded, AtomicLong::get)
+                .description("Games loaded into the cache by the startup warm-up")
+                .register(registry);
+        Gauge.builder("tictactoe.warmup.done", this, w -> w.phase.ordinal() >= Phase.DONE.ordinal() ? 1 : 0)
+                .description("1 once the startup warm-up is over")
+                .register(registry);
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = phase.ordinal() >= Phase.DONE.ordinal() ? Health.up() : Health.outOfService();
+        health.withDetail("phase", phase)
+                .withDetail("games", loaded.get())
+                .withDetail("deadlines", rearmed.get());
+        long elapsed = elapsedNanos >= 0 ? elapsedNanos : startedAt > 0 ? System.nanoTime() - startedAt : 0;
+        return health.withDetail("elapsedMs", TimeUnit.NANOSECONDS.toMillis(elapsed)).build();
+    }
+
+    @Override
+    public void start() {
+        startedAt = System.nanoTime();
+        if (!props.enabled()) {
+            finish(Phase.DONE);
+            return;
+        }
+        worker = Thread.ofPlatform().daemon().name("cache-warm-up").start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        Thread t = worker;
+        if (t != null) {
+            t.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return startedAt > 0 && phase.ordinal() < Phase.DONE.ordinal();
+    }
+
+    private void run() {
+        long deadline = startedAt + props.timeout().toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(props.workers(),
+                Thread.ofPlatform().daemon().name("cache-warm-up-", 0).factory());
+        try {
+            // the relay's first LISTEN clears the cache, so anything loaded before it would be lost
+            PgNotifyRelay listening = relay.getIfAvailable();
+            if (listening != null) {
+                listening.listening().get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+            phase = Phase.LOADING;
+            Semaphore inFlight = new Semaphore(props.workers() * 2);
+            OffsetDateTime now = OffsetDateTime.now();
+            long budget = props.maxGames();
+            budget -= page(GameStatus.IN_PROGRESS, OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC),
+                    budget, deadline, workers, inFlight);
+            page(GameStatus.WAITING, now.minus(props.waitingMaxAge()), budget, deadline, workers, inFlight);
+            // every permit back means every submitted batch is done
+            if (!inFlight.tryAcquire(props.workers() * 2, deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                throw new TimeoutException();
+            }
+            finish(Phase.DONE);
+            log.info("Cache warm-up loaded {} games and re-armed {} turn deadlines in {} ms",
+                    loaded.get(), rearmed.get(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        } catch (TimeoutException e) {
+            finish(Phase.TIMED_OUT);
+            log.warn("Cache warm-up gave up after {} with {} games loaded", props.timeout(), loaded.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(Phase.FAILED);
+        } catch (Exception e) {
+            finish(Phase.FAILED);
+            log.error("Cache warm-up failed after {} games, continuing with a cold cache", loaded.get(), e);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Hands pages of at most {@code budget} games in total to the workers; returns how many.
+     */
+    private long page(GameStatus status, OffsetDateTime since, long budget, long deadline,
+                      ExecutorService workers, Semaphore inFlight) throws InterruptedException, TimeoutException {
+        OffsetDateTime afterCreatedAt = OffsetDateTime.now().plusYears(1);
+        UUID afterId = MAX_UUID;
+        long submitted = 0;
+        while (submitted < budget) {
+            int size = (int) Math.min(props.batchSize(), budget - submitted);
+            OffsetDateTime cursorCreatedAt = afterCreatedAt;
+            UUID cursorId = afterId;
+            List<GameKey> keys = tx.execute(s -> gameRepo.findKeysBefore(status, since, cursorCreatedAt, cursorId,
+                    PageRequest.of(0, size)));
+            if (keys == null || keys.isEmpty()) {
+                break;
+            }
+            if (!inFlight.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                throw new TimeoutException();
+            }
+            List<UUID> ids = keys.stream().map(GameKey::gameId).toList();
+            workers.execute(() -> {
+                try {
+                    load(ids);
+                } catch (RuntimeException e) {
+                    log.warn("Warm-up batch of {} {} games failed", ids.size(), status, e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+            submitted += keys.size();
+            GameKey last = keys.getLast();
+            afterCreatedAt = last.at();
+            afterId = last.gameId();
+            if (keys.size() < size) {
+                break;
+            }
+        }
+        return submitted;
+    }
+
+    private void load(List<UUID> ids) {
+        List<GameDto> games = tx.execute(s -> {
+            List<Game> found = gameRepo.findWithPlayersByIdIn(ids);
+            gameRepo.findWithMovesByIdIn(ids);
+            return found.stream().map(mapper::toDto).toList();
+        });
+        if (games == null) {
+            return;
+        }
+        ClusterMembership cluster = membership.getIfAvailable();
+        for (GameDto game : games) {
+            gameCache.fill(game);
+            OffsetDateTime deadline = game.clock() != null ? game.clock().turnDeadline() : null;
+            if (deadline != null && (cluster == null || cluster.isLocal(game.gameId()))) {
+                clock.schedule(game.gameId(), deadline);
+                rearmed.incrementAndGet();
+            }
+        }
+        loaded.addAndGet(games.size());
+    }
+
+    private void finish(Phase result) {
+        elapsedNanos = System.nanoTime() - startedAt;
+        duration.record(Duration.ofNanos(elapsedNanos));
+        phase = result;
+    }
+
+    /**
+     * Waits for a started warm-up to end. Package-private for tests.
+     */
+    void awaitDone() throws InterruptedException {
+        Thread t = worker;
+        if (t != null) {
+            t.join();
+        }
+    }
+}
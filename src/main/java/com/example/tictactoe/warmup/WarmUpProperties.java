@@ -0,0 +1,15 @@
+package com.example.tictactoe.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "tictactoe.warm-up")
+public record WarmUpProperties(
+        boolean enabled,
+        int batchSize,
+        int workers,
+        long maxGames,
+        Duration waitingMaxAge,
+        Duration timeout
+) {}
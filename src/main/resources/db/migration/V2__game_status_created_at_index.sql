@@ -0,0 +1,4 @@
+-- V2__game_status_created_at_index.sql
+
+-- lobby queries and the abandoned-game reaper both filter by status and age
+CREATE INDEX idx_game_status_created_at ON game (status, created_at);
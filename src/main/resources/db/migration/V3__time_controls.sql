@@ -0,0 +1,9 @@
+-- V3__time_controls.sql
+
+-- optional time controls: per-move limit and total time bank per player (NULL = untimed)
+ALTER TABLE game
+  ADD COLUMN move_time_limit_ms BIGINT,
+  ADD COLUMN total_time_ms      BIGINT,
+  ADD COLUMN x_time_left_ms     BIGINT,
+  ADD COLUMN o_time_left_ms     BIGINT,
+  ADD COLUMN turn_started_at    TIMESTAMPTZ;
@@ -0,0 +1,8 @@
+-- V4__cluster_nodes.sql
+
+-- live application nodes; each node upserts its row on every heartbeat
+CREATE TABLE cluster_node (
+  node_id      TEXT PRIMARY KEY,
+  url          TEXT NOT NULL,
+  heartbeat_at TIMESTAMPTZ NOT NULL
+);
@@ -0,0 +1,14 @@
+-- V5__game_activity.sql
+
+-- the reaper ages running games by their last join or move, not by when they were created
+ALTER TABLE game
+  ADD COLUMN last_activity_at TIMESTAMPTZ,
+  ADD COLUMN abandoned        BOOLEAN NOT NULL DEFAULT FALSE;
+
+UPDATE game g
+   SET last_activity_at = COALESCE((SELECT max(m.moved_at) FROM move m WHERE m.game_id = g.game_id),
+                                   g.turn_started_at, g.created_at);
+
+ALTER TABLE game ALTER COLUMN last_activity_at SET NOT NULL;
+
+CREATE INDEX idx_game_status_last_activity_at ON game (status, last_activity_at);
@@ -0,0 +1,51 @@
+package com.example.tictactoe.api;
+
+import com.example.tictactoe.domain.GameStatus;
+import com.example.tictactoe.domain.Symbol;
+import com.example.tictactoe.dto.GameDto;
+import com.example.tictactoe.dto.MoveDto;
+import com.example.tictactoe.dto.PlayerDto;
+import com.example.tictactoe.repository.GameVersion;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameReadHandlerTest {
+
+    private final UUID a = UUID.randomUUID();
+    private final UUID b = UUID.randomUUID();
+
+    @Test
+    void lobbyTag_ignoresOrderButNotVersionsOrMembers() {
+        String tag = GameReadHandler.lobbyTag(List.of(new GameVersion(a, 1L), new GameVersion(b, 3L)));
+
+        assertThat(GameReadHandler.lobbyTag(List.of(new GameVersion(b, 3L), new GameVersion(a, 1L)))).isEqualTo(tag);
+        assertThat(GameReadHandler.lobbyTag(List.of(new GameVersion(a, 2L), new GameVersion(b, 3L)))).isNotEqualTo(tag);
+        assertThat(GameReadHandler.lobbyTag(List.of(new GameVersion(a, 1L)))).isNotEqualTo(tag);
+        assertThat(tag).startsWith("\"2-").endsWith("\"");
+    }
+
+    @Test
+    void gameTag_isTheQuotedVersion() {
+        assertThat(GameReadHandler.gameTag(7L)).isEqualTo("\"7\"");
+        assertThat(GameReadHandler.gameTag(null)).isEqualTo("\"0\"");
+    }
+
+    @Test
+    void publicGame_namesPlayersBySymbolOnly() {
+        OffsetDateTime now = OffsetDateTime.now();
+        GameDto game = new GameDto(a, GameStatus.IN_PROGRESS, Symbol.O, now,
+                List.of(new PlayerDto(a, "alice", Symbol.X, now), new PlayerDto(b, "bob", Symbol.O, now)),
+                List.of(new MoveDto(UUID.randomUUID(), a, 1, 1, now)), null, null, null, 2L);
+
+        PublicGame view = PublicGame.of(game);
+
+        assertThat(view.players()).extracting(PublicGame.Player::name).containsExactly("alice", "bob");
+        assertThat(view.moves()).singleElement().extracting(PublicGame.Move::symbol).isEqualTo(Symbol.X);
+        assertThat(view.toString()).doesNotContain(b.toString());
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.tictactoe.cache;
+
+import com.example.tictactoe.domain.GameStatus;
+import com.example.tictactoe.domain.Symbol;
+import com.example.tictactoe.dto.ClockDto;
+import com.example.tictactoe.dto.GameDto;
+import com.example.tictactoe.dto.MoveDto;
+import com.example.tictactoe.dto.PlayerDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapGameStoreTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void finishedTimedGame_roundTripsThroughSlot() {
+        OffHeapGameStore store = store(16, 4);
+        OffsetDateTime t0 = OffsetDateTime.of(2024, 5, 1, 12, 0, 0, 123_456_000, ZoneOffset.ofHours(2));
+        var x = new PlayerDto(UUID.randomUUID(), "Zoë 😀", Symbol.X, t0.plusSeconds(1));
+        var o = new PlayerDto(UUID.randomUUID(), "O".repeat(GameSlotCodec.MAX_NAME_CHARS), Symbol.O, t0.plusSeconds(2));
+        List<MoveDto> moves = new ArrayList<>();
+        for (int i = 0; i < GameSlotCodec.MAX_MOVES; i++) {
+            moves.add(new MoveDto(UUID.randomUUID(), (i % 2 == 0 ? x : o).playerId(), i / 3, i % 3, t0.plusSeconds(10 + i)));
+        }
+        var clock = new ClockDto(30_000L, null, 12_000L, 9_500L, t0.plusSeconds(18), null);
+        var game = new GameDto(UUID.randomUUID(), GameStatus.FINISHED, Symbol.O, t0, List.of(x, o), moves,
+                "X", Symbol.X, clock, 12L);
+
+        store.put(game);
+
+        assertThat(store.get(game.gameId())).isEqualTo(game);
+    }
+
+    @Test
+    void waitingGameWithNulls_roundTripsThroughSlot() {
+        OffHeapGameStore store = store(16, 4);
+        var player = new PlayerDto(UUID.randomUUID(), null, null, null);
+        var game = new GameDto(UUID.randomUUID(), GameStatus.WAITING, null, null, List.of(player), List.of(),
+                null, null, null, null);
+
+        store.put(game);
+
+        assertThat(store.get(game.gameId())).isEqualTo(game);
+    }
+
+    @Test
+    void conditionalWrites_compareVersionsInSlot() {
+        OffHeapGameStore store = store(16, 1);
+        UUID id = UUID.randomUUID();
+        store.put(game(id, 3));
+
+        store.putIfNewer(game(id, 2));
+        assertThat(store.get(id).version()).isEqualTo(3);
+
+        store.removeIfOlder(id, 3);
+        assertThat(store.get(id)).isNotNull();
+
+        store.removeIfOlder(id, 4);
+        assertThat(store.get(id)).isNull();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void fullSegment_evictsGameNotReadSinceLastPass() {
+        OffHeapGameStore store = store(3, 1);
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        UUID d = UUID.randomUUID();
+        store.put(game(a, 1));
+        store.put(game(b, 1));
+        store.put(game(c, 1));
+        store.get(a);
+
+        store.put(game(d, 1));
+
+        assertThat(store.get(a)).isNotNull();
+        assertThat(store.get(b)).isNull();
+        assertThat(store.get(c)).isNotNull();
+        assertThat(store.get(d)).isNotNull();
+        assertThat(registry.get("cache.evictions").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void entries_expireAfterTtl() {
+        OffHeapGameStore store = store(16, 1);
+        UUID id = UUID.randomUUID();
+        store.put(game(id, 1));
+
+        now.addAndGet(Duration.ofMinutes(1).toMillis());
+
+        assertThat(store.get(id)).isNull();
+        assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void gameThatDoesNotFit_isNotStoredAndDropsOlderCopy() {
+        OffHeapGameStore store = store(16, 1);
+        UUID id = UUID.randomUUID();
+        store.put(game(id, 1));
+        var longName = new PlayerDto(UUID.randomUUID(), "n".repeat(GameSlotCodec.MAX_NAME_CHARS + 1), Symbol.X, null);
+
+        store.put(new GameDto(id, GameStatus.WAITING, null, null, List.of(longName), List.of(), null, null, null, 2L));
+
+        assertThat(store.get(id)).isNull();
+        assertThat(registry.get("tictactoe.cache.off-heap.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void randomInsertsAndRemovals_keepIndexConsistent() {
+        int capacity = 512;
+        OffHeapGameStore store = store(capacity, 1);
+        Map<UUID, Long> model = new HashMap<>();
+        List<UUID> ids = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < capacity; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        for (int step = 0; step < 50_000; step++) {
+            UUID id = ids.get(random.nextInt(ids.size()));
+            if (random.nextInt(3) == 0) {
+                store.remove(id);
+                model.remove(id);
+            } else {
+                long version = step;
+                store.put(game(id, version));
+                model.put(id, version);
+            }
+        }
+
+        assertThat(store.size()).isEqualTo(model.size());
+        for (UUID id : ids) {
+            GameDto stored = store.get(id);
+            assertThat(stored == null ? null : stored.version()).isEqualTo(model.get(id));
+        }
+    }
+
+    @Test
+    void stamps_onlyRiseAndOutliveTheirEntries() {
+        OffHeapGameStore store = store(16, 1);
+        UUID id = UUID.randomUUID();
+        store.put(game(id, 1));
+
+        store.stamp(id, 5);
+        store.stamp(id, 4);
+        store.remove(id);
+
+        assertThat(store.stamp(id)).isEqualTo(5);
+        assertThat(store.stamp(UUID.randomUUID())).isEqualTo(-1);
+
+        now.addAndGet(Duration.ofMinutes(2).toMillis());
+
+        assertThat(store.stamp(id)).isEqualTo(-1);
+        store.stamp(id, 2);
+        assertThat(store.stamp(id)).isEqualTo(2);
+    }
+
+    @Test
+    void fullStampTable_dropsTheStampTakenFirst() {
+        OffHeapGameStore store = store(2, 1);
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        for (UUID id : ids) {
+            store.stamp(id, 7);
+        }
+
+        assertThat(store.stamp(ids.getFirst())).isEqualTo(-1);
+        for (UUID id : ids.subList(1, ids.size())) {
+            assertThat(store.stamp(id)).isEqualTo(7);
+        }
+    }
+
+    @Test
+    void randomStamps_keepTableConsistent() {
+        int capacity = 64;
+        OffHeapGameStore store = store(capacity / 2, 1);
+        Map<UUID, Long> model = new LinkedHashMap<>();
+        List<UUID> ids = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 4 * capacity; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        for (int step = 0; step < 50_000; step++) {
+            UUID id = ids.get(random.nextInt(ids.size()));
+            long version = random.nextInt(1000);
+            store.stamp(id, version);
+            if (model.containsKey(id)) {
+                model.merge(id, version, Math::max);
+            } else {
+                if (model.size() == capacity) {
+                    model.remove(model.keySet().iterator().next());
+                }
+                model.put(id, version);
+            }
+        }
+
+        for (UUID id : ids) {
+            assertThat(store.stamp(id)).isEqualTo(model.getOrDefault(id, -1L));
+        }
+    }
+
+    private OffHeapGameStore store(int capacity, int segments) {
+        return new OffHeapGameStore(capacity, Duration.ofMinutes(1), segments, now::get, registry);
+    }
+
+    private static GameDto game(UUID id, long version) {
+        return new GameDto(id, GameStatus.IN_PROGRESS, Symbol.X, null, List.of(), List.of(), null, null, null, version);
+    }
+}
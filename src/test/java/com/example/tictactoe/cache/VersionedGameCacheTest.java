@@ -0,0 +1,146 @@
+package com.example.tictactoe.cache;
+
+import com.example.tictactoe.domain.GameStatus;
+import com.example.tictactoe.dto.GameDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionedGameCacheTest {
+
+    private final UUID gameId = UUID.randomUUID();
+    private final List<String> broadcasts = new ArrayList<>();
+    private SimpleMeterRegistry registry;
+    private VersionedGameCache cache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        var props = new CacheProperties(Duration.ofMinutes(1), 100, Duration.ofSeconds(1), 4, 100, CacheProperties.Store.HEAP);
+        cache = new VersionedGameCache(props, registry);
+        cache.setListener((id, version) -> broadcasts.add(id + "@" + version));
+    }
+
+    @Test
+    void put_storesAndBroadcastsVersion() {
+        cache.put(gameId, game(3));
+
+        assertThat(cache.getFresh(gameId).version()).isEqualTo(3);
+        assertThat(broadcasts).containsExactly(gameId + "@3");
+    }
+
+    @Test
+    void loaderFill_isNotBroadcast() {
+        GameDto loaded = cache.get(gameId, () -> game(1));
+
+        assertThat(loaded.version()).isEqualTo(1);
+        assertThat(cache.getFresh(gameId)).isSameAs(loaded);
+        assertThat(broadcasts).isEmpty();
+    }
+
+    @Test
+    void remoteInvalidation_hidesOlderEntry() {
+        cache.fill(game(1));
+
+        cache.invalidateRemote(gameId, 2);
+
+        assertThat(cache.get(gameId)).isNull();
+        assertThat(broadcasts).isEmpty();
+    }
+
+    @Test
+    void remoteInvalidation_keepsEntryAtSameVersion() {
+        cache.fill(game(2));
+
+        cache.invalidateRemote(gameId, 2);
+
+        assertThat(cache.getFresh(gameId).version()).isEqualTo(2);
+    }
+
+    @Test
+    void lateFill_olderThanStamp_isRejected() {
+        cache.invalidateRemote(gameId, 5);
+
+        cache.fill(game(4));
+
+        assertThat(cache.getFresh(gameId)).isNull();
+        assertThat(registry.get("tictactoe.cache.stale").tag("phase", "fill").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fill_neverReplacesNewerEntry() {
+        cache.fill(game(3));
+
+        cache.fill(game(2));
+
+        assertThat(cache.getFresh(gameId).version()).isEqualTo(3);
+    }
+
+    @Test
+    void evict_broadcastsUnknownVersion() {
+        cache.put(gameId, game(1));
+        broadcasts.clear();
+
+        cache.evict(gameId);
+
+        assertThat(cache.getFresh(gameId)).isNull();
+        assertThat(broadcasts).containsExactly(gameId + "@-1");
+    }
+
+    @Test
+    void changed_stampsAndBroadcastsVersion() {
+        cache.fill(game(1));
+
+        cache.changed(gameId, 2);
+        cache.fill(game(1));
+
+        assertThat(cache.getFresh(gameId)).isNull();
+        assertThat(broadcasts).containsExactly(gameId + "@2");
+    }
+
+    @Test
+    void writesInTransaction_waitForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.put(gameId, game(2));
+            cache.changed(gameId, 3);
+
+            assertThat(cache.getFresh(gameId)).isNull();
+            assertThat(broadcasts).isEmpty();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(broadcasts).containsExactly(gameId + "@2", gameId + "@3");
+    }
+
+    @Test
+    void writesInRolledBackTransaction_areDropped() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.put(gameId, game(2));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        cache.fill(game(1));
+
+        assertThat(cache.getFresh(gameId).version()).isEqualTo(1);
+        assertThat(broadcasts).isEmpty();
+    }
+
+    private GameDto game(long version) {
+        return new GameDto(gameId, GameStatus.IN_PROGRESS, null, null,
+                List.of(), List.of(), null, null, null, version);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.tictactoe.cluster;
+
+import com.example.tictactoe.dto.MoveRequest;
+import com.example.tictactoe.exception.GlobalExceptionHandler;
+import com.example.tictactoe.exception.ThrottledException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClusterClientTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ClusterProperties props = new ClusterProperties(true, "node", "http://localhost:8080",
+            "s3cret", Duration.ofSeconds(5), Duration.ofSeconds(15), 128, "game_events", Duration.ofSeconds(2));
+    private final ClusterMember owner = new ClusterMember("owner", "http://owner");
+
+    @Test
+    void throttledOwner_isRethrownWithItsCodeAndBackOff() throws Exception {
+        var response = new GlobalExceptionHandler()
+                .handleThrottled(new ThrottledException("Rate limit exceeded", "RATE_LIMITED", 2_500));
+        ClusterClient client = answering(response);
+
+        assertThatThrownBy(() -> client.move(owner, UUID.randomUUID(), new MoveRequest(UUID.randomUUID(), 0, 0), null).block())
+                .isInstanceOfSatisfying(ThrottledException.class, ex -> {
+                    assertThat(ex.getMessage()).isEqualTo("Rate limit exceeded");
+                    assertThat(ex.getCode()).isEqualTo("RATE_LIMITED");
+                    assertThat(ex.getRetryAfterMillis()).isEqualTo(2_500);
+                });
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+    }
+
+    // a client whose every call gets the owner's response, serialized as it would go over the wire
+    private ClusterClient answering(ResponseEntity<?> response) throws Exception {
+        String body = mapper.writeValueAsString(response.getBody());
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> Mono.just(
+                ClientResponse.create(response.getStatusCode())
+                        .headers(headers -> headers.addAll(response.getHeaders()))
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(body)
+                        .build()));
+        return new ClusterClient(builder, props, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.tictactoe.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClusterPropertiesTest {
+
+    @Test
+    void enabledClusterNeedsARealToken() {
+        assertThatThrownBy(() -> properties(true, "")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> properties(true, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> properties(true, "change-me")).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(properties(true, "s3cret").token()).isEqualTo("s3cret");
+    }
+
+    @Test
+    void disabledClusterNeedsNoToken() {
+        assertThat(properties(false, "").enabled()).isFalse();
+    }
+
+    private static ClusterProperties properties(boolean enabled, String token) {
+        return new ClusterProperties(enabled, "node", "http://localhost:8080", token,
+                Duration.ofSeconds(5), Duration.ofSeconds(15), 128, "game_events", Duration.ofSeconds(2));
+    }
+}
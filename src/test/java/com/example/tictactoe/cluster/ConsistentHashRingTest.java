@@ -0,0 +1,54 @@
+package com.example.tictactoe.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    private static final ClusterMember A = new ClusterMember("a", "http://a");
+    private static final ClusterMember B = new ClusterMember("b", "http://b");
+    private static final ClusterMember C = new ClusterMember("c", "http://c");
+
+    private final List<UUID> games = IntStream.range(0, 30_000).mapToObj(i -> UUID.randomUUID()).toList();
+
+    @Test
+    void spreadsGamesEvenlyOverMembers() {
+        var ring = new ConsistentHashRing(List.of(A, B, C), 128);
+
+        Map<ClusterMember, Integer> counts = new HashMap<>();
+        games.forEach(id -> counts.merge(ring.owner(id), 1, Integer::sum));
+
+        assertThat(counts).containsOnlyKeys(A, B, C);
+        assertThat(counts.values()).allSatisfy(n -> assertThat(n).isBetween(8_000, 12_000));
+    }
+
+    @Test
+    void addingMemberOnlyMovesGamesToIt() {
+        var before = new ConsistentHashRing(List.of(A, B), 128);
+        var after = new ConsistentHashRing(List.of(A, B, C), 128);
+
+        long moved = games.stream().filter(id -> !before.owner(id).equals(after.owner(id))).count();
+
+        assertThat(games).allSatisfy(id -> {
+            if (!before.owner(id).equals(after.owner(id))) {
+                assertThat(after.owner(id)).isEqualTo(C);
+            }
+        });
+        assertThat(moved).isBetween(7_000L, 13_000L);
+    }
+
+    @Test
+    void ownerIsIndependentOfMemberOrder() {
+        var one = new ConsistentHashRing(List.of(A, B, C), 64);
+        var other = new ConsistentHashRing(List.of(C, A, B), 64);
+
+        assertThat(games).allSatisfy(id -> assertThat(one.owner(id)).isEqualTo(other.owner(id)));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.tictactoe.cluster;
+
+import com.example.tictactoe.domain.Game;
+import com.example.tictactoe.domain.GameStatus;
+import com.example.tictactoe.domain.Symbol;
+import com.example.tictactoe.repository.GameRepository;
+import com.example.tictactoe.timer.GameClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadlineHandoverTest {
+
+    private final ClusterMember self = new ClusterMember("self", "http://self");
+    private final ClusterMember other = new ClusterMember("other", "http://other");
+    // every game moves from the other node to this one
+    private final OwnershipChangedEvent takeover = new OwnershipChangedEvent(self,
+            new ConsistentHashRing(List.of(other), 16), new ConsistentHashRing(List.of(self), 16));
+
+    @Mock
+    private GameRepository gameRepo;
+    @Mock
+    private GameClock clock;
+    @InjectMocks
+    private DeadlineHandover handover;
+
+    @AfterEach
+    void tearDown() {
+        handover.stop();
+    }
+
+    @Test
+    void handOver_pagesThroughTheRunningGames() {
+        List<UUID> first = ids(500);
+        List<UUID> second = ids(1);
+        when(gameRepo.findTimedIdsAfter(eq(GameStatus.IN_PROGRESS), eq(new UUID(0, 0)), any())).thenReturn(first);
+        when(gameRepo.findTimedIdsAfter(eq(GameStatus.IN_PROGRESS), eq(first.getLast()), any())).thenReturn(second);
+        when(gameRepo.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            return ids.stream().map(this::running).toList();
+        });
+
+        handover.handOver(takeover);
+
+        verify(gameRepo, times(2)).findTimedIdsAfter(any(), any(), any());
+        verify(clock, times(501)).schedule(any(), any());
+    }
+
+    @Test
+    void onOwnershipChanged_leavesTheHeartbeatThread() {
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        when(gameRepo.findTimedIdsAfter(any(), any(), any())).thenAnswer(invocation -> {
+            ranOn.set(Thread.currentThread());
+            return List.of();
+        });
+
+        handover.onOwnershipChanged(takeover);
+
+        verify(gameRepo, timeout(1000)).findTimedIdsAfter(any(), any(), any());
+        assertThat(ranOn.get()).isNotSameAs(Thread.currentThread());
+        verifyNoInteractions(clock);
+    }
+
+    private List<UUID> ids(int count) {
+        return IntStream.range(0, count).mapToObj(i -> UUID.randomUUID()).sorted().toList();
+    }
+
+    private Game running(UUID gameId) {
+        return Game.builder()
+                .gameId(gameId)
+                .status(GameStatus.IN_PROGRESS)
+                .nextTurn(Symbol.X)
+                .moveTimeLimitMs(30_000L)
+                .turnStartedAt(OffsetDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.tictactoe.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.ValidateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+
+import static org.mockito.Mockito.*;
+
+class FlywayStartupTest {
+
+    private final Flyway flyway = mock(Flyway.class);
+
+    @Test
+    void migrateMode_migratesDuringStartup() {
+        var startup = new FlywayStartup(new StartupProperties(null), new SimpleMeterRegistry());
+
+        startup.migrate(flyway);
+        startup.onApplicationEvent(mock(ApplicationReadyEvent.class));
+
+        verify(flyway).migrate();
+        verify(flyway, never()).validateWithResult();
+    }
+
+    @Test
+    void validateAfterReadyMode_leavesSchemaAloneUntilReady() {
+        when(flyway.validateWithResult()).thenReturn(mock(ValidateResult.class));
+        var startup = new FlywayStartup(new StartupProperties(StartupProperties.FlywayMode.VALIDATE_AFTER_READY),
+                new SimpleMeterRegistry());
+
+        startup.migrate(flyway);
+        verifyNoInteractions(flyway);
+
+        startup.onApplicationEvent(mock(ApplicationReadyEvent.class));
+
+        verify(flyway, timeout(5_000)).validateWithResult();
+        verify(flyway, never()).migrate();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.tictactoe.config;
+
+import com.example.tictactoe.cluster.ClusterClient;
+import com.example.tictactoe.cluster.ClusterProperties;
+import com.example.tictactoe.logging.Correlation;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestIdFilterTest {
+
+    private final RequestIdFilter filter = new RequestIdFilter(new ClusterProperties(true, "node", "http://localhost:8080",
+            "s3cret", Duration.ofSeconds(5), Duration.ofSeconds(15), 128, "game_events", Duration.ofSeconds(2)));
+
+    @Test
+    void forwardedCallWithTheClusterToken_keepsItsRequestId() {
+        assertThat(requestId(MockServerHttpRequest.post("/internal/games/1/move")
+                .header(Correlation.HEADER, "r-forwarded")
+                .header(ClusterClient.TOKEN_HEADER, "s3cret"))).isEqualTo("r-forwarded");
+    }
+
+    @Test
+    void requestIdFromAnyoneElse_isReplaced() {
+        assertThat(requestId(MockServerHttpRequest.get("/api/games")
+                .header(Correlation.HEADER, "r-spoofed")
+                .header(ClusterClient.TOKEN_HEADER, "s3cret"))).isNotEqualTo("r-spoofed");
+        assertThat(requestId(MockServerHttpRequest.post("/internal/games/1/move")
+                .header(Correlation.HEADER, "r-spoofed")
+                .header(ClusterClient.TOKEN_HEADER, "guess"))).isNotEqualTo("r-spoofed");
+    }
+
+    private String requestId(MockServerHttpRequest.BaseBuilder<?> request) {
+        AtomicReference<String> seen = new AtomicReference<>();
+        filter.filter(MockServerWebExchange.from(request), exchange -> Mono.deferContextual(context -> {
+            seen.set(context.get(Correlation.REQUEST_ID));
+            return Mono.empty();
+        })).block();
+        return seen.get();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.tictactoe.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final Connection primary = mock(Connection.class);
+    private final Connection replica0 = mock(Connection.class);
+    private final Connection replica1 = mock(Connection.class);
+    private final ReplicaProperties props = new ReplicaProperties(
+            List.of(new ReplicaProperties.Replica("jdbc:postgresql://replica/db", null, null)),
+            Duration.ofMillis(500), Duration.ofMillis(500));
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", dataSource(replica0));
+        replicas.put("replica-1", dataSource(replica1));
+        routing = new ReplicaRoutingDataSource(dataSource(primary), replicas, props.maxLag(), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void usesPrimaryUntilReplicasHaveBeenChecked() throws SQLException {
+        assertThat(routing.getConnection()).isSameAs(primary);
+    }
+
+    @Test
+    void spreadsReadsOverReplicasWithinLag() throws SQLException {
+        routing.updateLag("replica-0", 0);
+        routing.updateLag("replica-1", 100);
+
+        assertThat(List.of(routing.getConnection(), routing.getConnection(), routing.getConnection(), routing.getConnection()))
+                .containsOnly(replica0, replica1)
+                .contains(replica0, replica1);
+    }
+
+    @Test
+    void skipsLaggingAndUnreachableReplicas() throws SQLException {
+        routing.updateLag("replica-0", 2_000);
+        routing.updateLag("replica-1", 0);
+
+        assertThat(routing.getConnection()).isSameAs(replica1);
+        assertThat(routing.getConnection()).isSameAs(replica1);
+
+        routing.updateLag("replica-1", -1);
+
+        assertThat(routing.getConnection()).isSameAs(primary);
+    }
+
+    @Test
+    void readAfterOwnWriteIsPinnedToPrimaryForTheTransaction() throws SQLException {
+        routing.updateLag("replica-0", 0);
+        routing.updateLag("replica-1", 0);
+        var readYourWrites = new ReadYourWrites(props);
+        UUID written = UUID.randomUUID();
+        readYourWrites.wrote(written);
+
+        TransactionSynchronizationManager.initSynchronization();
+        readYourWrites.reading(UUID.randomUUID());
+        assertThat(routing.getConnection()).isNotSameAs(primary);
+
+        readYourWrites.reading(written);
+        assertThat(routing.getConnection()).isSameAs(primary);
+
+        tearDown();
+        assertThat(routing.getConnection()).isNotSameAs(primary);
+    }
+
+    private static DataSource dataSource(Connection connection) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.tictactoe.domain;
+
+import com.example.tictactoe.dto.TimeControl;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameTest {
+
+    private final OffsetDateTime started = OffsetDateTime.parse("2024-01-01T12:00:00Z");
+
+    @Test
+    void turnDeadline_withLongestBank_doesNotOverflow() {
+        Game game = running(null, TimeControl.MAX_MS);
+
+        assertThat(game.getTurnDeadline()).isEqualTo(started.plusDays(1));
+    }
+
+    @Test
+    void turnDeadline_isTheEarlierOfMoveLimitAndBank() {
+        Game game = running(Duration.ofSeconds(30).toMillis(), Duration.ofMinutes(5).toMillis());
+
+        assertThat(game.getTurnDeadline()).isEqualTo(started.plusSeconds(30));
+
+        game.setTimeLeftMs(Symbol.X, 10_000L);
+
+        assertThat(game.getTurnDeadline()).isEqualTo(started.plusSeconds(10));
+    }
+
+    private Game running(Long moveTimeMs, Long totalTimeMs) {
+        return Game.builder()
+                .status(GameStatus.IN_PROGRESS)
+                .nextTurn(Symbol.X)
+                .moveTimeLimitMs(moveTimeMs)
+                .totalTimeMs(totalTimeMs)
+                .xTimeLeftMs(totalTimeMs)
+                .oTimeLeftMs(totalTimeMs)
+                .turnStartedAt(started)
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.tictactoe.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameEventHubTest {
+
+    private GameEventHub hub;
+    private UUID gameId;
+    private List<GameEvent> received;
+    private GameEventSubscriber subscriber;
+
+    @BeforeEach
+    void setUp() {
+        hub = new GameEventHub(new GameEventProperties(4, Duration.ofMinutes(1), 100));
+        gameId = UUID.randomUUID();
+        received = new ArrayList<>();
+        subscriber = received::add;
+    }
+
+    @Test
+    void publish_deliversToSubscribersInSequenceOrder() {
+        long start = hub.subscribe(gameId, subscriber);
+
+        hub.publish(gameId, seq -> "a");
+        hub.publish(gameId, seq -> "b");
+
+        assertThat(received).extracting(GameEvent::frame).containsExactly("a", "b");
+        assertThat(received).extracting(GameEvent::seq).containsExactly(start + 1, start + 2);
+    }
+
+    @Test
+    void unsubscribe_stopsDelivery() {
+        hub.subscribe(gameId, subscriber);
+        hub.unsubscribe(gameId, subscriber);
+
+        hub.publish(gameId, seq -> "a");
+
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    void resume_replaysMissedEventsWithinCapacity() {
+        long seen = hub.subscribe(gameId, e -> {});
+        hub.publish(gameId, seq -> "a");
+        hub.publish(gameId, seq -> "b");
+        hub.publish(gameId, seq -> "c");
+
+        var result = hub.resume(gameId, subscriber, seen + 1);
+
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.events()).isEqualTo(2);
+        assertThat(received).extracting(GameEvent::frame).containsExactly("b", "c");
+    }
+
+    @Test
+    void resume_fallsBackToSnapshotWhenGapExceedsCapacity() {
+        long seen = hub.subscribe(gameId, e -> {});
+        for (int i = 0; i < 5; i++) {
+            hub.publish(gameId, seq -> "e");
+        }
+
+        var result = hub.resume(gameId, subscriber, seen);
+
+        assertThat(result.replayed()).isFalse();
+        assertThat(result.seq()).isEqualTo(seen + 5);
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    void resume_fallsBackToSnapshotForUnknownSequence() {
+        hub.publish(gameId, seq -> "a");
+
+        assertThat(hub.resume(gameId, subscriber, 0).replayed()).isFalse();
+        assertThat(hub.resume(UUID.randomUUID(), subscriber, 42).replayed()).isFalse();
+    }
+
+    @Test
+    void publishRelayed_keepsOwnerSequenceAndDropsDuplicates() {
+        var owner = new GameEventHub(new GameEventProperties(4, Duration.ofMinutes(1), 100));
+        List<GameEvent> relayed = new ArrayList<>();
+        owner.relayTo(relayed::add);
+        long seen = owner.subscribe(gameId, e -> {});
+        owner.publish(gameId, seq -> "a");
+        owner.publish(gameId, seq -> "b");
+
+        hub.subscribe(gameId, subscriber);
+        relayed.forEach(hub::publishRelayed);
+        hub.publishRelayed(relayed.getLast());
+
+        assertThat(received).extracting(GameEvent::seq).containsExactly(seen + 1, seen + 2);
+        var result = hub.resume(gameId, e -> {}, seen + 1);
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.events()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.tictactoe.handler;
+
+import com.example.tictactoe.cluster.ClusterMembership;
+import com.example.tictactoe.cluster.PgNotifyRelay;
+import com.example.tictactoe.event.GameEvent;
+import com.example.tictactoe.event.GameEventHub;
+import com.example.tictactoe.event.GameEventProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class SessionDrainTest {
+
+    @Mock
+    private ObjectProvider<ClusterMembership> membership;
+    @Mock
+    private ObjectProvider<PgNotifyRelay> relay;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<Object> published = new ArrayList<>();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private GameEventHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new GameEventHub(new GameEventProperties(32, Duration.ofMinutes(1), 100));
+    }
+
+    @Test
+    void drain_waitsForRunningCommandsAndRefusesNewOnes() throws Exception {
+        SessionDrain drain = drain(Duration.ofSeconds(5));
+        assertThat(drain.enter()).isTrue();
+
+        CompletableFuture<Void> draining = CompletableFuture.runAsync(drain::drain);
+        while (!drain.isDraining()) {
+            Thread.onSpinWait();
+        }
+        assertThat(drain.enter()).isFalse();
+        Thread.sleep(100);
+        assertThat(draining).isNotDone();
+
+        drain.exit();
+        draining.get(2, TimeUnit.SECONDS);
+
+        assertThat(published).singleElement()
+                .extracting(event -> ((AvailabilityChangeEvent<?>) event).getState())
+                .isEqualTo(ReadinessState.REFUSING_TRAFFIC);
+        assertThat(dropped("refused")).isEqualTo(1);
+        assertThat(dropped("deadline")).isZero();
+        assertThat(registry.get("tictactoe.drain.duration").timer().totalTime(TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(100);
+    }
+
+    @Test
+    void drain_countsCommandsStillRunningAtTheDeadlineAsDropped() {
+        SessionDrain drain = drain(Duration.ofMillis(50));
+        drain.enter();
+        drain.enter();
+
+        drain.drain();
+
+        assertThat(dropped("deadline")).isEqualTo(2);
+        assertThat(registry.get("tictactoe.websocket.in-flight").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void reconnect_carriesTheResumeMessageForTheNextNode() throws Exception {
+        SessionDrain drain = drain(Duration.ofSeconds(5));
+        UUID played = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        GameEvent last = hub.publish(played, seq -> "{}");
+
+        JsonNode frame = mapper.readTree(drain.reconnect(List.of(played, unknown)));
+
+        assertThat(frame.path("type").asText()).isEqualTo("reconnect");
+        assertThat(frame.path("retryAfterMs").asLong()).isBetween(0L, 999L);
+        JsonNode resume = frame.path("resume");
+        assertThat(resume.path("action").asText()).isEqualTo("resume");
+        assertThat(resume.path("games").get(0).path("gameId").asText()).isEqualTo(played.toString());
+        assertThat(resume.path("games").get(0).path("lastSeq").asLong()).isEqualTo(last.seq());
+        assertThat(resume.path("games").get(1).path("lastSeq").asLong()).isZero();
+    }
+
+    private SessionDrain drain(Duration timeout) {
+        SessionRegistry sessions = new SessionRegistry(
+                new WebSocketProperties(16, Duration.ofSeconds(15), Duration.ofSeconds(45), 64), registry);
+        return new SessionDrain(sessions, hub, mapper, new DrainProperties(timeout, Duration.ofSeconds(1)),
+                published::add, membership, relay, registry);
+    }
+
+    private double dropped(String reason) {
+        return registry.get("tictactoe.drain.dropped-commands").tag("reason", reason).counter().count();
+    }
+}
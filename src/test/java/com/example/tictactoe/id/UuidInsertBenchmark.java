@@ -0,0 +1,122 @@
+package com.example.tictactoe.id;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Insert throughput into a large table keyed by random vs time-ordered UUIDs. Not part of the
+ * regular build (surefire only picks up {@code *Test}); run it explicitly:
+ * <pre>
+ * mvn test -Dtest=UuidInsertBenchmark -Dbench.rows=5000000 -Dbench.inserts=500000
+ * </pre>
+ * Postgres runs with a small {@code shared_buffers} so that the primary-key index of the
+ * preloaded table does not fit in memory, as on a long-lived production table. Set
+ * {@code -Dbench.jdbcUrl=...} to run against an existing database instead of a container.
+ */
+@Slf4j
+class UuidInsertBenchmark {
+
+    private static final int PRELOAD = Integer.getInteger("bench.rows", 2_000_000);
+    private static final int INSERTS = Integer.getInteger("bench.inserts", 200_000);
+    private static final int BATCH = 1_000;
+
+    private static PostgreSQLContainer<?> postgres;
+    private static String url;
+    private static String user;
+    private static String password;
+
+    @BeforeAll
+    static void startDatabase() {
+        url = System.getProperty("bench.jdbcUrl");
+        user = System.getProperty("bench.user", "postgres");
+        password = System.getProperty("bench.password", "postgres");
+        if (url == null) {
+            postgres = new PostgreSQLContainer<>("postgres:15")
+                    .withCommand("postgres", "-c", "shared_buffers=16MB", "-c", "fsync=off");
+            postgres.start();
+            url = postgres.getJdbcUrl();
+            user = postgres.getUsername();
+            password = postgres.getPassword();
+        }
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Test
+    void timeOrderedIdsInsertFasterAndKeepASmallerIndex() throws SQLException {
+        Result random = run("bench_random_ids", new RandomUuidGenerator());
+        Result v7 = run("bench_v7_ids", new UuidV7Generator());
+
+        log.info("random: {} rows/s, pkey {} MB", random.rowsPerSecond(), random.indexBytes() >> 20);
+        log.info("v7:     {} rows/s, pkey {} MB", v7.rowsPerSecond(), v7.indexBytes() >> 20);
+        // Appending at the right edge leaves leaf pages ~90% full; random inserts split them to ~70%
+        assertThat(v7.indexBytes()).isLessThan(random.indexBytes());
+    }
+
+    private Result run(String table, IdGenerator ids) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url + separator() + "reWriteBatchedInserts=true", user, password)) {
+            try (Statement st = conn.createStatement()) {
+                st.execute("DROP TABLE IF EXISTS " + table);
+                st.execute("CREATE TABLE " + table + " (id uuid PRIMARY KEY, created_at timestamptz NOT NULL DEFAULT now())");
+            }
+            insert(conn, table, ids, PRELOAD);
+            try (Statement st = conn.createStatement()) {
+                st.execute("CHECKPOINT");
+            }
+
+            long start = System.nanoTime();
+            insert(conn, table, ids, INSERTS);
+            long elapsed = System.nanoTime() - start;
+
+            long indexBytes;
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT pg_relation_size('" + table + "_pkey')")) {
+                rs.next();
+                indexBytes = rs.getLong(1);
+            }
+            try (Statement st = conn.createStatement()) {
+                st.execute("DROP TABLE " + table);
+            }
+            return new Result(INSERTS * 1_000_000_000L / elapsed, indexBytes);
+        }
+    }
+
+    private static void insert(Connection conn, String table, IdGenerator ids, int rows) throws SQLException {
+        conn.setAutoCommit(false);
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO " + table + " (id) VALUES (?)")) {
+            for (int i = 1; i <= rows; i++) {
+                ps.setObject(1, ids.next());
+                ps.addBatch();
+                if (i % BATCH == 0 || i == rows) {
+                    ps.executeBatch();
+                    conn.commit();
+                }
+            }
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static String separator() {
+        return url.contains("?") ? "&" : "?";
+    }
+
+    private record Result(long rowsPerSecond, long indexBytes) {}
+}
@@ -0,0 +1,87 @@
+package com.example.tictactoe.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void setsVersionVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = new UuidV7Generator().next();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, System.currentTimeMillis());
+    }
+
+    @Test
+    void idsIncreaseWithinOneMillisecondAndWhenClockStepsBack() {
+        AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+        var generator = new UuidV7Generator(clock::get);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                clock.addAndGet(-1_000);
+            }
+            ids.add(generator.next());
+        }
+
+        assertThat(ids).isSortedAccordingTo(UuidV7GeneratorTest::unsigned);
+    }
+
+    @Test
+    void idsAreUniqueAndPerThreadOrderedUnderContention() throws Exception {
+        var generator = new UuidV7Generator();
+        int threads = 8;
+        int perThread = 20_000;
+        var all = new ConcurrentLinkedQueue<UUID>();
+        var start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        List<Boolean> ordered = Collections.synchronizedList(new ArrayList<>());
+        for (int t = 0; t < threads; t++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                List<UUID> mine = new ArrayList<>(perThread);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    mine.add(generator.next());
+                }
+                boolean sorted = true;
+                for (int i = 1; i < mine.size(); i++) {
+                    sorted &= unsigned(mine.get(i - 1), mine.get(i)) < 0;
+                }
+                ordered.add(sorted);
+                all.addAll(mine);
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Set<UUID> unique = new HashSet<>(all);
+        assertThat(unique).hasSize(threads * perThread);
+        assertThat(ordered).hasSize(threads).containsOnly(true);
+    }
+
+    // UUID.compareTo compares signed longs, which misorders timestamps once the top bit is set
+    private static int unsigned(UUID a, UUID b) {
+        int msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return msb != 0 ? msb : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.tictactoe.idempotency;
+
+import com.example.tictactoe.dto.MoveRequest;
+import com.example.tictactoe.exception.IdempotencyConflictException;
+import com.example.tictactoe.exception.InvalidMoveException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecentCommandsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RecentCommands recent = new RecentCommands(
+            new IdempotencyProperties(Duration.ofMinutes(1), 100, 64, 16), registry);
+    private final UUID gameId = UUID.randomUUID();
+    private final AtomicInteger runs = new AtomicInteger();
+    private final UUID playerId = UUID.randomUUID();
+    private final IdempotencyKey r1 = IdempotencyKey.move(new MoveRequest(playerId, 1, 1), "r-1");
+
+    @Test
+    void retryWithSameKeyReturnsOriginalResultWithoutRunning() {
+        CommandResult<String> first = recent.run(gameId, "move", r1, this::execute);
+        CommandResult<String> retry = recent.run(gameId, "move", r1, this::execute);
+
+        assertThat(runs).hasValue(1);
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry).isEqualTo(new CommandResult<>("result-1", 41, true));
+        assertThat(registry.get("tictactoe.idempotency.replays").tag("command", "move").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void keyIsScopedToGameCommandAndSender() {
+        recent.run(gameId, "move", r1, this::execute);
+
+        assertThat(recent.<String>find(UUID.randomUUID(), "move", r1)).isNull();
+        assertThat(recent.<String>find(gameId, "join", r1)).isNull();
+        assertThat(recent.<String>find(gameId, "move", IdempotencyKey.move(new MoveRequest(playerId, 1, 1), "r-2"))).isNull();
+        assertThat(recent.<String>find(gameId, "move",
+                IdempotencyKey.move(new MoveRequest(UUID.randomUUID(), 1, 1), "r-1"))).isNull();
+    }
+
+    @Test
+    void keyReusedForDifferentRequestIsRejected() {
+        recent.run(gameId, "join", IdempotencyKey.join(gameId, "r-1", "alice"), this::execute);
+
+        assertThatThrownBy(() -> recent.run(gameId, "join", IdempotencyKey.join(gameId, "r-1", "bob"), this::execute))
+                .isInstanceOf(IdempotencyConflictException.class);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void commandsWithoutKeyAlwaysRun() {
+        recent.run(gameId, "move", null, this::execute);
+        recent.run(gameId, "move", null, this::execute);
+
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void rejectedCommandIsNotRemembered() {
+        assertThatThrownBy(() -> recent.run(gameId, "move", r1, () -> {
+            throw new InvalidMoveException("Not your turn");
+        })).isInstanceOf(InvalidMoveException.class);
+
+        assertThat(recent.run(gameId, "move", r1, this::execute).replayed()).isFalse();
+    }
+
+    @Test
+    void hashDependsOnEveryPart() {
+        long base = RecentCommands.hash(gameId, "move", new IdempotencyKey("s", "r-1", "f"));
+
+        assertThat(RecentCommands.hash(gameId, "move", new IdempotencyKey("s", "r-1", "other"))).isEqualTo(base);
+        assertThat(RecentCommands.hash(gameId, "join", new IdempotencyKey("s", "r-1", "f"))).isNotEqualTo(base);
+        assertThat(RecentCommands.hash(gameId, "move", new IdempotencyKey("s", "r-2", "f"))).isNotEqualTo(base);
+        assertThat(RecentCommands.hash(gameId, "move", new IdempotencyKey("t", "r-1", "f"))).isNotEqualTo(base);
+        assertThat(RecentCommands.hash(gameId, "move", new IdempotencyKey("sr", "-1", "f"))).isNotEqualTo(base);
+        assertThat(RecentCommands.hash(UUID.randomUUID(), "move", new IdempotencyKey("s", "r-1", "f"))).isNotEqualTo(base);
+    }
+
+    private CommandResult<String> execute() {
+        int run = runs.incrementAndGet();
+        return CommandResult.executed("result-" + run, 40 + run);
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.tictactoe.integration;
+
+import com.example.tictactoe.TicTacToeApplication;
+import com.example.tictactoe.cluster.ClusterMembership;
+import com.example.tictactoe.cluster.GameCommandRouter;
+import com.example.tictactoe.domain.GameStatus;
+import com.example.tictactoe.dto.MoveRequest;
+import com.example.tictactoe.dto.PlayerDto;
+import com.example.tictactoe.dto.TimeControl;
+import com.example.tictactoe.service.GameService;
+import com.example.tictactoe.timer.GameClock;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.Disposable;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application instances sharing one database: commands sent to either node run on the
+ * game's owner and the resulting events reach the clients of both nodes.
+ */
+@Testcontainers
+class ClusterIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("tictactoe")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    private static int portA;
+    private static int portB;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeAll
+    static void startNodes() throws Exception {
+        portA = freePort();
+        portB = freePort();
+        nodeA = start("node-a", portA);
+        nodeB = start("node-b", portB);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (nodeA.getBean(ClusterMembership.class).members().size() < 2
+                || nodeB.getBean(ClusterMembership.class).members().size() < 2) {
+            assertThat(System.nanoTime()).as("cluster formed").isLessThan(deadline);
+            Thread.sleep(100);
+        }
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String nodeId, int port) {
+        return new SpringApplicationBuilder(TicTacToeApplication.class).run(
+                "--server.port=" + port,
+                "--spring.datasource.url=" + postgres.getJdbcUrl() + "?stringtype=unspecified",
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--tictactoe.cluster.enabled=true",
+                "--tictactoe.cluster.token=integration-test",
+                "--tictactoe.cluster.node-id=" + nodeId,
+                "--tictactoe.cluster.advertised-url=http://localhost:" + port,
+                "--tictactoe.cluster.heartbeat-interval=PT0.2S");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Test
+    void commandsRunOnOwnerAndEventsReachBothNodes() throws Exception {
+        UUID gameId = nodeA.getBean(GameService.class).createGame();
+        String owner = nodeA.getBean(ClusterMembership.class).owner(gameId).nodeId();
+        assertThat(nodeB.getBean(ClusterMembership.class).owner(gameId).nodeId()).isEqualTo(owner);
+
+        try (var x = new Client(portA); var o = new Client(portB)) {
+            x.send("{\"action\":\"join\",\"gameId\":\"%s\",\"name\":\"Alice\"}".formatted(gameId));
+            JsonNode alice = x.next(f -> "joined".equals(f.path("type").asText())).path("player");
+            assertThat(alice.path("symbol").asText()).isEqualTo("X");
+
+            o.send("{\"action\":\"join\",\"gameId\":\"%s\",\"name\":\"Bob\"}".formatted(gameId));
+            Predicate<JsonNode> bobJoined = f -> "Bob".equals(f.path("player").path("name").asText());
+            assertThat(o.next(bobJoined).path("player").path("symbol").asText()).isEqualTo("O");
+            x.next(bobJoined);
+
+            x.send("{\"action\":\"move\",\"gameId\":\"%s\",\"move\":{\"playerId\":\"%s\",\"row\":1,\"col\":1}}"
+                    .formatted(gameId, alice.path("playerId").asText()));
+            Predicate<JsonNode> update = f -> "update".equals(f.path("type").asText());
+            JsonNode seenByX = x.next(update);
+            JsonNode seenByO = o.next(update);
+
+            assertThat(seenByX.path("seq").asLong()).isEqualTo(seenByO.path("seq").asLong());
+            assertThat(seenByO.path("game").path("moves")).hasSize(1);
+            assertThat(seenByO.path("game").path("nextTurn").asText()).isEqualTo("O");
+        }
+
+        var nonOwner = owner.equals("node-a") ? nodeB : nodeA;
+        assertThat(nonOwner.getBean(MeterRegistry.class).counter("tictactoe.cluster.forwarded", "action", "join").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void nonOwnerServesReadsFromNearCacheUntilGameChanges() throws Exception {
+        UUID gameId = nodeA.getBean(GameService.class).createGame();
+        boolean ownedByA = nodeA.getBean(ClusterMembership.class).isLocal(gameId);
+        var owner = ownedByA ? nodeA : nodeB;
+        var nonOwner = ownedByA ? nodeB : nodeA;
+        GameService service = owner.getBean(GameService.class);
+        PlayerDto alice = service.joinGame(gameId, "Alice");
+        service.joinGame(gameId, "Bob");
+        GameCommandRouter router = nonOwner.getBean(GameCommandRouter.class);
+        Counter forwardedGets = nonOwner.getBean(MeterRegistry.class)
+                .counter("tictactoe.cluster.forwarded", "action", "get");
+        double before = forwardedGets.count();
+
+        assertThat(router.get(gameId).block().players()).hasSize(2);
+        assertThat(router.get(gameId).block().players()).hasSize(2);
+        assertThat(forwardedGets.count()).isEqualTo(before + 1);
+
+        service.makeMove(gameId, new MoveRequest(alice.playerId(), 0, 0));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (router.get(gameId).block().moves().isEmpty()) {
+            assertThat(System.nanoTime()).as("invalidation received").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+        assertThat(forwardedGets.count()).isGreaterThanOrEqualTo(before + 2);
+    }
+
+    @Test
+    void retriedMoveThroughNonOwnerIsAnsweredByOwnerOnce() throws Exception {
+        UUID gameId = nodeA.getBean(GameService.class).createGame();
+        boolean ownedByA = nodeA.getBean(ClusterMembership.class).isLocal(gameId);
+        var owner = ownedByA ? nodeA : nodeB;
+        int nonOwnerPort = ownedByA ? portB : portA;
+        GameService service = owner.getBean(GameService.class);
+        PlayerDto alice = service.joinGame(gameId, "Alice");
+        service.joinGame(gameId, "Bob");
+        String move = "{\"action\":\"move\",\"gameId\":\"%s\",\"requestId\":\"m-1\",\"move\":{\"playerId\":\"%s\",\"row\":2,\"col\":2}}"
+                .formatted(gameId, alice.playerId());
+        Predicate<JsonNode> update = f -> "update".equals(f.path("type").asText());
+
+        try (var x = new Client(nonOwnerPort)) {
+            x.send(move);
+            JsonNode original = x.next(update);
+            x.send(move);
+            JsonNode replayed = x.next(update);
+
+            assertThat(replayed.path("seq").asLong()).isEqualTo(original.path("seq").asLong());
+            assertThat(replayed.path("game").path("moves")).hasSize(1);
+        }
+        assertThat(service.getGame(gameId).moves()).hasSize(1);
+    }
+
+    @Test
+    void turnDeadlineFiringOnNonOwnerFinishesGameOnOwner() throws Exception {
+        GameService anyNode = nodeA.getBean(GameService.class);
+        UUID gameId = anyNode.createGame(new TimeControl(60_000L, null));
+        boolean ownedByA = nodeA.getBean(ClusterMembership.class).isLocal(gameId);
+        var owner = ownedByA ? nodeA : nodeB;
+        var nonOwner = ownedByA ? nodeB : nodeA;
+        GameService service = owner.getBean(GameService.class);
+        service.joinGame(gameId, "Alice");
+        service.joinGame(gameId, "Bob");
+        // as if the turn had started while the other node owned the game
+        owner.getBean(GameClock.class).cancel(gameId);
+        nonOwner.getBean(GameClock.class).schedule(gameId, OffsetDateTime.now());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (nonOwner.getBean(MeterRegistry.class).counter("tictactoe.cluster.forwarded", "action", "expire").count() < 1) {
+            assertThat(System.nanoTime()).as("expiry forwarded").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+        // the turn of 60 s has not run out, so the owner keeps the game going and arms the deadline itself
+        assertThat(service.getGame(gameId).status()).isEqualTo(GameStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void quickplayGameIsCreatedOnItsOwner() {
+        GameCommandRouter router = nodeA.getBean(GameCommandRouter.class);
+        Counter forwarded = nodeA.getBean(MeterRegistry.class).counter("tictactoe.cluster.forwarded", "action", "matched");
+        double before = forwarded.count();
+        int remote = 0;
+        for (int i = 0; i < 8; i++) {
+            var game = router.createMatched("Alice", "Bob", new TimeControl(60_000L, null)).block();
+            if (!nodeA.getBean(ClusterMembership.class).isLocal(game.gameId())) {
+                remote++;
+            }
+            assertThat(game.status()).isEqualTo(GameStatus.IN_PROGRESS);
+            assertThat(game.clock().turnDeadline()).isNotNull();
+        }
+        assertThat(forwarded.count()).isEqualTo(before + remote);
+    }
+
+    private class Client implements AutoCloseable {
+        private final Sinks.Many<String> outgoing = Sinks.many().unicast().onBackpressureBuffer();
+        private final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+        private final Disposable connection;
+
+        Client(int port) {
+            connection = new ReactorNettyWebSocketClient()
+                    .execute(URI.create("ws://localhost:" + port + "/ws/games"), session -> session
+                            .send(outgoing.asFlux().map(session::textMessage))
+                            .and(session.receive().map(WebSocketMessage::getPayloadAsText).doOnNext(frames::add)))
+                    .subscribe();
+        }
+
+        void send(String frame) {
+            outgoing.tryEmitNext(frame);
+        }
+
+        JsonNode next(Predicate<JsonNode> matching) throws Exception {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (true) {
+                String frame = frames.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                assertThat(frame).as("expected frame").isNotNull();
+                JsonNode node = mapper.readTree(frame);
+                if (matching.test(node)) {
+                    return node;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            connection.dispose();
+        }
+    }
+}
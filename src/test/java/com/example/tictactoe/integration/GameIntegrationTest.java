@@ -7,16 +7,19 @@ import com.example.tictactoe.dto.MoveRequest;
 import com.example.tictactoe.dto.PlayerDto;
 import com.example.tictactoe.exception.GameNotFoundException;
 import com.example.tictactoe.exception.InvalidMoveException;
+import com.example.tictactoe.repository.GameRepository;
 import com.example.tictactoe.service.GameService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -44,6 +47,12 @@ class GameIntegrationTest {
     @Autowired
     private GameService gameService;
 
+    @Autowired
+    private GameRepository gameRepo;
+
+    @Autowired
+    private TransactionTemplate tx;
+
     @Test
     void joinNonExistingGame_throwsGameNotFound() {
         assertThrows(GameNotFoundException.class, () ->
@@ -143,4 +152,28 @@ class GameIntegrationTest {
         assertThat(finished.winner()).isEqualTo(Symbol.O);
         assertThat(finished.result()).isEqualTo("O");
     }
+
+    @Test
+    void reaping_changesOnlyGamesStillEligible() {
+        UUID waiting = gameService.createGame();
+        UUID running = gameService.createGame();
+        gameService.joinGame(running, "Alice");
+        gameService.joinGame(running, "Bob");
+        UUID moved = gameService.createGame();
+        PlayerDto p2 = gameService.joinGame(moved, "Carol");
+        gameService.joinGame(moved, "Dave");
+        OffsetDateTime cutoff = OffsetDateTime.now();
+        gameService.makeMove(moved, new MoveRequest(p2.playerId(), 0, 0));
+
+        List<UUID> deleted = tx.execute(s -> gameRepo.deleteWaiting(List.of(waiting, running)));
+        List<UUID> abandoned = tx.execute(s -> gameRepo.abandonIdle(List.of(waiting, running, moved), cutoff));
+
+        assertThat(deleted).containsExactly(waiting);
+        assertThat(abandoned).containsExactly(running);
+        assertThat(gameRepo.findById(running)).hasValueSatisfying(game -> {
+            assertThat(game.getStatus()).isEqualTo(GameStatus.FINISHED);
+            assertThat(game.getResult()).isEqualTo("ABANDONED");
+        });
+        assertThat(gameRepo.findById(moved).map(game -> game.getStatus())).hasValue(GameStatus.IN_PROGRESS);
+    }
 }
@@ -0,0 +1,119 @@
+package com.example.tictactoe.integration;
+
+import com.example.tictactoe.cluster.GameCommandRouter;
+import com.example.tictactoe.dto.GameDto;
+import com.example.tictactoe.service.GameService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+class ReadApiIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("tictactoe")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl() + "?stringtype=unspecified");
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private GameCommandRouter commands;
+
+    @Test
+    void game_isNotModifiedUntilItsVersionChanges() {
+        UUID gameId = gameService.createGame();
+
+        String etag = client.get().uri("/api/games/{id}", gameId).exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CacheControl.noCache())
+                .expectBody(GameDto.class).value(game -> assertThat(game.gameId()).isEqualTo(gameId))
+                .returnResult().getResponseHeaders().getETag();
+
+        client.get().uri("/api/games/{id}", gameId).header(HttpHeaders.IF_NONE_MATCH, etag).exchange()
+                .expectStatus().isNotModified();
+
+        gameService.joinGame(gameId, "Alice");
+
+        client.get().uri("/api/games/{id}", gameId).header(HttpHeaders.IF_NONE_MATCH, etag).exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ETAG, tag -> assertThat(tag).isNotEqualTo(etag));
+    }
+
+    @Test
+    void lobby_isNotModifiedUntilAGameChanges() {
+        gameService.createGame();
+        String etag = client.get().uri("/api/games?status=WAITING").exchange()
+                .expectStatus().isOk()
+                .returnResult(GameDto.class).getResponseHeaders().getETag();
+
+        client.get().uri("/api/games?status=WAITING").header(HttpHeaders.IF_NONE_MATCH, etag).exchange()
+                .expectStatus().isNotModified();
+
+        gameService.createGame();
+
+        client.get().uri("/api/games?status=WAITING").header(HttpHeaders.IF_NONE_MATCH, etag).exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void unknownGame_isNotFound() {
+        client.get().uri("/api/games/{id}", UUID.randomUUID()).exchange().expectStatus().isNotFound();
+        client.get().uri("/api/games/{id}/events", UUID.randomUUID()).exchange().expectStatus().isNotFound();
+        client.get().uri("/api/games/not-a-uuid").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void events_streamTheStateThenEachChange() {
+        UUID gameId = gameService.createGame();
+
+        List<ServerSentEvent<String>> events = client.get().uri("/api/games/{id}/events", gameId)
+                .accept(MediaType.TEXT_EVENT_STREAM).exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .getResponseBody()
+                .filter(event -> event.data() != null)
+                .take(2)
+                .doOnNext(event -> {
+                    if (event.data().contains("\"type\":\"state\"")) {
+                        commands.join(gameId, "Alice", null).subscribe();
+                    }
+                })
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(events).hasSize(2);
+        assertThat(events.get(1).data()).contains("\"type\":\"joined\"");
+        assertThat(Long.parseLong(events.get(1).id())).isEqualTo(Long.parseLong(events.get(0).id()) + 1);
+    }
+}
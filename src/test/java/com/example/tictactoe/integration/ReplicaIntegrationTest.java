@@ -0,0 +1,105 @@
+package com.example.tictactoe.integration;
+
+import com.example.tictactoe.service.GameService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A primary and a streaming replica: reads of a game just written stay on the primary, later
+ * reads are served by the replica once it has caught up.
+ */
+@SpringBootTest(properties = {
+        "tictactoe.datasource.max-lag=PT1S",
+        "tictactoe.datasource.lag-check-interval=PT0.2S"
+})
+@Testcontainers
+class ReplicaIntegrationTest {
+
+    private static final Network network = Network.newNetwork();
+
+    @Container
+    static GenericContainer<?> primary = new GenericContainer<>("bitnami/postgresql:15")
+            .withNetwork(network)
+            .withNetworkAliases("primary")
+            .withEnv("POSTGRESQL_REPLICATION_MODE", "master")
+            .withEnv("POSTGRESQL_REPLICATION_USER", "repl")
+            .withEnv("POSTGRESQL_REPLICATION_PASSWORD", "repl")
+            .withEnv("POSTGRESQL_PASSWORD", "postgres")
+            .withEnv("POSTGRESQL_DATABASE", "tictactoe")
+            .withExposedPorts(5432)
+            .waitingFor(Wait.forLogMessage(".*ready to accept connections.*", 1));
+
+    @Container
+    static GenericContainer<?> replica = new GenericContainer<>("bitnami/postgresql:15")
+            .withNetwork(network)
+            .withEnv("POSTGRESQL_REPLICATION_MODE", "slave")
+            .withEnv("POSTGRESQL_MASTER_HOST", "primary")
+            .withEnv("POSTGRESQL_MASTER_PORT_NUMBER", "5432")
+            .withEnv("POSTGRESQL_REPLICATION_USER", "repl")
+            .withEnv("POSTGRESQL_REPLICATION_PASSWORD", "repl")
+            .withEnv("POSTGRESQL_PASSWORD", "postgres")
+            .withExposedPorts(5432)
+            .dependsOn(primary)
+            .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*", 1));
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> jdbcUrl(primary));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("tictactoe.datasource.replicas[0].url", () -> jdbcUrl(replica));
+    }
+
+    private static String jdbcUrl(GenericContainer<?> container) {
+        return "jdbc:postgresql://%s:%d/tictactoe?stringtype=unspecified"
+                .formatted(container.getHost(), container.getMappedPort(5432));
+    }
+
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void readAfterOwnWriteUsesPrimaryThenReplicaServesReads() throws Exception {
+        UUID gameId = gameService.createGame();
+        gameService.joinGame(gameId, "Alice");
+        gameService.joinGame(gameId, "Bob");
+        double pinned = reads("read-your-writes");
+        double fromReplica = reads("lag-within-bounds");
+
+        cacheManager.getCache("games").clear();
+        assertThat(gameService.getGame(gameId).players()).hasSize(2);
+        assertThat(reads("read-your-writes")).isEqualTo(pinned + 1);
+        assertThat(reads("lag-within-bounds")).isEqualTo(fromReplica);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+        while (reads("lag-within-bounds") == fromReplica) {
+            assertThat(System.nanoTime()).as("read served by replica").isLessThan(deadline);
+            Thread.sleep(200);
+            cacheManager.getCache("games").clear();
+            assertThat(gameService.getGame(gameId).players()).hasSize(2);
+        }
+    }
+
+    private double reads(String reason) {
+        return registry.get("tictactoe.datasource.reads").tag("reason", reason).counter().count();
+    }
+}
@@ -18,6 +18,7 @@ import reactor.core.publisher.Flux;
 
 import java.net.URI;
 import java.time.Duration;
+import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -79,6 +80,30 @@ class WebSocketIntegrationTest {
         assertThat(state.get("game").get("status").asText()).isEqualTo("WAITING");
     }
 
+    @Test
+    void joinRetriedAfterReconnect_getsTheOriginalPlayer() throws Exception {
+        var responses = new CopyOnWriteArrayList<String>();
+
+        client.execute(URI.create(wsUri()), session -> session.send(Flux.just(session.textMessage("{\"action\":\"create\"}"))).thenMany(session.receive().map(WebSocketMessage::getPayloadAsText).take(1).doOnNext(responses::add)).then()).block(Duration.ofSeconds(5));
+        String gameId = mapper.readTree(responses.getFirst()).get("gameId").asText();
+
+        // the same join over two connections, as a client would resend it after losing the first
+        String joinJson = String.format("{\"action\":\"join\",\"gameId\":\"%s\",\"name\":\"Alice\",\"requestId\":\"%s\"}",
+                gameId, UUID.randomUUID());
+        responses.clear();
+        for (int connection = 0; connection < 2; connection++) {
+            client.execute(URI.create(wsUri()), session -> session.send(Flux.just(session.textMessage(joinJson))).thenMany(session.receive().map(WebSocketMessage::getPayloadAsText).take(1).doOnNext(responses::add)).then()).block(Duration.ofSeconds(5));
+        }
+
+        assertThat(responses).hasSize(2);
+        JsonNode first = mapper.readTree(responses.get(0));
+        JsonNode retry = mapper.readTree(responses.get(1));
+        assertThat(retry.get("type").asText()).isEqualTo("joined");
+        assertThat(retry.get("player")).isEqualTo(first.get("player"));
+        assertThat(retry.get("player").get("symbol").asText()).isEqualTo("X");
+        assertThat(retry.get("seq")).isEqualTo(first.get("seq"));
+    }
+
     @Test
     void invalidJson_yieldsErrorMessage() {
         var responses = new CopyOnWriteArrayList<String>();
@@ -0,0 +1,69 @@
+package com.example.tictactoe.jfr;
+
+import com.example.tictactoe.service.MoveTimings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhaseSummaryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void bundledSettingsEnableBothEventsWithThresholds() throws Exception {
+        Map<String, String> settings = FlightRecording.bundledSettings();
+
+        assertThat(settings)
+                .containsEntry(CommandEvent.NAME + "#enabled", "true")
+                .containsEntry(CommandEvent.NAME + "#threshold", "20 ms")
+                .containsEntry(PhaseEvent.NAME + "#threshold", "5 ms");
+    }
+
+    @Test
+    void summarizesRecordedPhasesPerActionWithTheMoveOutcome() throws Exception {
+        Map<String, String> settings = new HashMap<>(FlightRecording.bundledSettings());
+        settings.put(PhaseEvent.NAME + "#threshold", "0 ms");
+        settings.put(CommandEvent.NAME + "#threshold", "0 ms");
+        Path file = dir.resolve("test.jfr");
+        MoveTimings timings = new MoveTimings(new SimpleMeterRegistry());
+        try (Recording recording = new Recording(settings)) {
+            recording.start();
+            var accepted = timings.start("move", UUID.randomUUID());
+            accepted.lap(Phase.LOOKUP);
+            accepted.lap(Phase.VALIDATE);
+            accepted.finish(null);
+            var rejected = timings.start("move", UUID.randomUUID());
+            rejected.lap(Phase.LOOKUP);
+            rejected.finish("rejected");
+            CommandEvent command = new CommandEvent();
+            command.begin();
+            command.action = "move";
+            command.outcome = "ok";
+            command.commit();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        PhaseSummary summary = new PhaseSummary();
+        summary.read(file);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        summary.print(new PrintStream(out, true, StandardCharsets.UTF_8));
+
+        String report = out.toString(StandardCharsets.UTF_8);
+        assertThat(report).contains("move ok").contains("move validate");
+        assertThat(report.lines().filter(line -> line.contains("move lookup")))
+                .singleElement().satisfies(line -> assertThat(line.trim().split("\\s+")[2]).isEqualTo("2"));
+    }
+}
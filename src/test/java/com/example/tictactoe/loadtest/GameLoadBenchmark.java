@@ -0,0 +1,170 @@
+package com.example.tictactoe.loadtest;
+
+import com.example.tictactoe.TicTacToeApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plays complete games over {@code load.games * 2} concurrent sockets and reports throughput and
+ * latency percentiles per action, plus the node's own metrics. Not part of the regular build
+ * (surefire only picks up {@code *Test}); run it explicitly:
+ * <pre>
+ * mvn test -Dtest=GameLoadBenchmark -Dload.games=2000 -Dload.duration=2m -Dload.mode=poll
+ * </pre>
+ * Without {@code -Dload.url=ws://host:port/ws/games} the app is started in-process, with rate
+ * limits lifted, on a Postgres container or on {@code -Dload.jdbcUrl=...}. A remote node applies
+ * its own rate limits, which show up as throttled commands. See {@link LoadConfig} for all
+ * settings. The report and a full Prometheus scrape are written to {@code target/loadtest}.
+ */
+@Slf4j
+class GameLoadBenchmark {
+
+    private static final LoadConfig CONFIG = LoadConfig.fromSystemProperties();
+    private static final List<String> SERVER_METRICS = List.of(
+            "tictactoe_websocket_requests", "tictactoe_move_phase", "tictactoe_commands", "tictactoe_concurrency",
+            "tictactoe_ratelimit", "tictactoe_websocket_sessions", "tictactoe_games", "hikaricp_connections",
+            "cache_gets", "jvm_gc_pause", "process_cpu_usage");
+
+    private static PostgreSQLContainer<?> postgres;
+    private static ConfigurableApplicationContext app;
+    private static String url;
+
+    @BeforeAll
+    static void startApp() {
+        url = CONFIG.url();
+        if (url != null) {
+            return;
+        }
+        String jdbcUrl = CONFIG.jdbcUrl();
+        String user = CONFIG.user();
+        String password = CONFIG.password();
+        if (jdbcUrl == null) {
+            postgres = new PostgreSQLContainer<>("postgres:15").withCommand("postgres", "-c", "max_connections=200");
+            postgres.start();
+            jdbcUrl = postgres.getJdbcUrl();
+            user = postgres.getUsername();
+            password = postgres.getPassword();
+        }
+        Map<String, Object> props = new LinkedHashMap<>();
+        props.put("spring.datasource.url", jdbcUrl + (jdbcUrl.contains("?") ? "&" : "?") + "stringtype=unspecified");
+        props.put("spring.datasource.username", user);
+        props.put("spring.datasource.password", password);
+        // every socket comes from this host; per-address limits would only measure themselves
+        props.put("tictactoe.rate-limit.address.permits-per-second", 1_000_000);
+        props.put("tictactoe.rate-limit.address.burst", 1_000_000);
+        props.put("logging.level.com.example.tictactoe", "WARN");
+        props.put("server.port", 0);
+        // as arguments: default properties would lose to the placeholders in application.yml
+        app = new SpringApplicationBuilder(TicTacToeApplication.class).run(props.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new));
+        url = "ws://localhost:" + app.getEnvironment().getProperty("local.server.port") + "/ws/games";
+    }
+
+    @AfterAll
+    static void stopApp() {
+        if (app != null) {
+            app.close();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Test
+    void playGames() throws Exception {
+        LatencyReport report = new LatencyReport();
+        AtomicBoolean running = new AtomicBoolean(true);
+        HttpClient http = HttpClient.newConnection();
+        List<LoadClient> clients = new ArrayList<>();
+        List<GameSlot> slots = new ArrayList<>();
+        for (int i = 0; i < CONFIG.games(); i++) {
+            LoadClient x = new LoadClient("x-" + i, report, CONFIG.requestTimeout());
+            LoadClient o = new LoadClient("o-" + i, report, CONFIG.requestTimeout());
+            clients.add(x);
+            clients.add(o);
+            slots.add(new GameSlot(x, o, CONFIG, report, running::get));
+        }
+        log.info("Load: {} games ({} sockets) against {}, mode {}, think {}, get ratio {}",
+                CONFIG.games(), clients.size(), url, CONFIG.mode(), CONFIG.thinkTime(), CONFIG.getRatio());
+
+        long rampNanos = CONFIG.rampUp().toNanos();
+        for (int i = 0; i < slots.size(); i++) {
+            LoadClient x = clients.get(2 * i);
+            LoadClient o = clients.get(2 * i + 1);
+            GameSlot slot = slots.get(i);
+            Schedulers.parallel().schedule(() -> {
+                x.connect(http, url);
+                o.connect(http, url);
+                slot.start();
+            }, rampNanos * i / slots.size(), TimeUnit.NANOSECONDS);
+        }
+        Disposable timeouts = Flux.interval(Duration.ofMillis(500)).subscribe(t -> slots.forEach(GameSlot::expire));
+
+        Thread.sleep(CONFIG.rampUp().toMillis());
+        report.reset();
+        long start = System.nanoTime();
+        Thread.sleep(CONFIG.duration().toMillis());
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long games = report.gamesFinished();
+        String summary = report.summary(seconds);
+
+        running.set(false);
+        timeouts.dispose();
+        clients.forEach(LoadClient::close);
+
+        String scrape = scrape();
+        String serverSide = scrape.lines()
+                .filter(line -> !line.startsWith("#") && !line.contains("_bucket{"))
+                .filter(line -> SERVER_METRICS.stream().anyMatch(line::startsWith))
+                .collect(Collectors.joining("\n"));
+        log.info("Client side, {} s measured after {} ramp-up:\n{}", String.format("%.1f", seconds), CONFIG.rampUp(), summary);
+        log.info("Server side (cumulative since start):\n{}", serverSide);
+        write("report.txt", CONFIG + "\n\n" + summary + "\n" + serverSide + "\n");
+        write("prometheus.txt", scrape);
+
+        assertThat(games).as("games finished").isPositive();
+    }
+
+    private static String scrape() {
+        URI ws = URI.create(url);
+        String endpoint = (ws.getScheme().equals("wss") ? "https" : "http") + "://" + ws.getAuthority() + "/actuator/prometheus";
+        try {
+            return HttpClient.create().get().uri(endpoint).responseContent().aggregate().asString()
+                    .block(Duration.ofSeconds(10));
+        } catch (RuntimeException e) {
+            log.warn("Could not scrape {}: {}", endpoint, e.toString());
+            return "";
+        }
+    }
+
+    private static void write(String file, String content) throws IOException {
+        Path dir = Path.of("target", "loadtest");
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve(file), content);
+    }
+}
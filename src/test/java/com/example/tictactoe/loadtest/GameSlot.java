@@ -0,0 +1,190 @@
+package com.example.tictactoe.loadtest;
+
+import com.example.tictactoe.loadtest.LatencyReport.Action;
+import com.fasterxml.jackson.databind.JsonNode;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Two sockets playing one game after another: X creates and joins, O joins, and both move on
+ * random free cells until the game is over. Every game is a new round; callbacks of an earlier
+ * round, such as a late reply after a timeout, are ignored.
+ */
+final class GameSlot {
+
+    private final LoadClient x;
+    private final LoadClient o;
+    private final LoadConfig config;
+    private final LatencyReport report;
+    private final BooleanSupplier running;
+    private final Scheduler scheduler = Schedulers.parallel();
+    private final AtomicInteger round = new AtomicInteger();
+
+    GameSlot(LoadClient x, LoadClient o, LoadConfig config, LatencyReport report, BooleanSupplier running) {
+        this.x = x;
+        this.o = o;
+        this.config = config;
+        this.report = report;
+        this.running = running;
+    }
+
+    void start() {
+        newGame(round.get());
+    }
+
+    void expire() {
+        x.expire();
+        o.expire();
+    }
+
+    private void newGame(int r) {
+        if (!running.getAsBoolean()) {
+            return;
+        }
+        x.request(Action.CREATE, Map.of("action", "create"),
+                frame -> "created".equals(frame.path("type").asText()),
+                created -> {
+                    String gameId = created.path("gameId").asText();
+                    join(r, gameId, x, seatX -> join(r, gameId, o, seatO -> play(r, gameId, seatX, seatO)));
+                },
+                () -> abandon(r));
+    }
+
+    private void join(int r, String gameId, LoadClient client, Consumer<Seat> then) {
+        if (round.get() != r) {
+            return;
+        }
+        client.request(Action.JOIN, Map.of("action", "join", "gameId", gameId, "name", client.name()),
+                frame -> "joined".equals(frame.path("type").asText())
+                        && gameId.equals(frame.path("gameId").asText())
+                        && client.name().equals(frame.path("player").path("name").asText()),
+                joined -> then.accept(new Seat(client,
+                        joined.path("player").path("playerId").asText(),
+                        joined.path("player").path("symbol").asText())),
+                () -> abandon(r));
+    }
+
+    private void play(int r, String gameId, Seat seatX, Seat seatO) {
+        if (config.mode() == LoadConfig.Mode.POLL) {
+            poll(r, gameId, seatX);
+            poll(r, gameId, seatO);
+            return;
+        }
+        for (Seat seat : List.of(seatX, seatO)) {
+            seat.client().onPush(frame -> {
+                JsonNode game = frame.path("game");
+                if ("update".equals(frame.path("type").asText()) && gameId.equals(frame.path("gameId").asText())
+                        && "IN_PROGRESS".equals(game.path("status").asText())
+                        && seat.symbol().equals(game.path("nextTurn").asText())) {
+                    turn(r, gameId, seat, game);
+                }
+            });
+        }
+        turn(r, gameId, seatX, null);
+    }
+
+    /**
+     * Moves after the think time, reading the game first in {@code getRatio} of the turns.
+     */
+    private void turn(int r, String gameId, Seat seat, JsonNode game) {
+        afterThinking(r, () -> {
+            if (ThreadLocalRandom.current().nextDouble() < config.getRatio()) {
+                get(r, gameId, seat, state -> move(r, gameId, seat, state));
+            } else {
+                move(r, gameId, seat, game);
+            }
+        });
+    }
+
+    private void poll(int r, String gameId, Seat seat) {
+        afterThinking(r, () -> get(r, gameId, seat, game -> {
+            if (!"IN_PROGRESS".equals(game.path("status").asText())) {
+                finish(r);
+            } else if (seat.symbol().equals(game.path("nextTurn").asText())) {
+                move(r, gameId, seat, game);
+            } else {
+                poll(r, gameId, seat);
+            }
+        }));
+    }
+
+    private void get(int r, String gameId, Seat seat, Consumer<JsonNode> then) {
+        seat.client().request(Action.GET, Map.of("action", "get", "gameId", gameId),
+                frame -> "state".equals(frame.path("type").asText()) && gameId.equals(frame.path("gameId").asText()),
+                state -> {
+                    if (round.get() == r) {
+                        then.accept(state.path("game"));
+                    }
+                },
+                () -> abandon(r));
+    }
+
+    private void move(int r, String gameId, Seat seat, JsonNode game) {
+        boolean[] taken = new boolean[9];
+        int played = 0;
+        if (game != null) {
+            for (JsonNode m : game.path("moves")) {
+                taken[m.path("row").asInt() * 3 + m.path("col").asInt()] = true;
+                played++;
+            }
+        }
+        List<Integer> free = new ArrayList<>();
+        for (int cell = 0; cell < 9; cell++) {
+            if (!taken[cell]) {
+                free.add(cell);
+            }
+        }
+        int cell = free.get(ThreadLocalRandom.current().nextInt(free.size()));
+        int expectedMoves = played + 1;
+        seat.client().request(Action.MOVE,
+                Map.of("action", "move", "gameId", gameId,
+                        "move", Map.of("playerId", seat.playerId(), "row", cell / 3, "col", cell % 3)),
+                frame -> "update".equals(frame.path("type").asText()) && gameId.equals(frame.path("gameId").asText())
+                        && frame.path("game").path("moves").size() == expectedMoves,
+                update -> {
+                    if (!"IN_PROGRESS".equals(update.path("game").path("status").asText())) {
+                        finish(r);
+                    } else if (config.mode() == LoadConfig.Mode.POLL) {
+                        poll(r, gameId, seat);
+                    }
+                },
+                () -> abandon(r));
+    }
+
+    private void afterThinking(int r, Runnable action) {
+        long mean = config.thinkTime().toMillis();
+        long delay = mean == 0 ? 0 : ThreadLocalRandom.current().nextLong(mean / 2, mean + mean / 2 + 1);
+        scheduler.schedule(() -> {
+            if (round.get() == r) {
+                action.run();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void finish(int r) {
+        if (round.compareAndSet(r, r + 1)) {
+            report.gameFinished();
+            newGame(r + 1);
+        }
+    }
+
+    /**
+     * Gives up on the current game after a failed command and starts a fresh one.
+     */
+    private void abandon(int r) {
+        if (round.compareAndSet(r, r + 1)) {
+            afterThinking(r + 1, () -> newGame(r + 1));
+        }
+    }
+
+    private record Seat(LoadClient client, String playerId, String symbol) {}
+}
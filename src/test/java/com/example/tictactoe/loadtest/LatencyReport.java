@@ -0,0 +1,86 @@
+package com.example.tictactoe.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client-side latency per action, from sending a command to the frame that answers it, kept in
+ * HdrHistograms with microsecond resolution.
+ */
+final class LatencyReport {
+
+    enum Action { CREATE, JOIN, MOVE, GET }
+
+    enum Outcome { OK, ERROR, THROTTLED, TIMEOUT }
+
+    private final Map<Action, Recorder> latencies = new EnumMap<>(Action.class);
+    private final Map<Action, Map<Outcome, LongAdder>> outcomes = new EnumMap<>(Action.class);
+    private final LongAdder games = new LongAdder();
+
+    LatencyReport() {
+        for (Action action : Action.values()) {
+            latencies.put(action, new Recorder(3));
+            Map<Outcome, LongAdder> counts = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                counts.put(outcome, new LongAdder());
+            }
+            outcomes.put(action, counts);
+        }
+    }
+
+    void ok(Action action, long nanos) {
+        latencies.get(action).recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+        outcomes.get(action).get(Outcome.OK).increment();
+    }
+
+    void failed(Action action, Outcome outcome) {
+        outcomes.get(action).get(outcome).increment();
+    }
+
+    void gameFinished() {
+        games.increment();
+    }
+
+    long gamesFinished() {
+        return games.sum();
+    }
+
+    long count(Action action, Outcome outcome) {
+        return outcomes.get(action).get(outcome).sum();
+    }
+
+    /**
+     * Forgets everything recorded so far, at the end of the ramp-up.
+     */
+    void reset() {
+        latencies.values().forEach(Recorder::reset);
+        outcomes.values().forEach(counts -> counts.values().forEach(LongAdder::reset));
+        games.reset();
+    }
+
+    /**
+     * Ends the measurement and formats it; {@code seconds} is the length of the measured window.
+     */
+    String summary(double seconds) {
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT,
+                "%-7s %9s %9s %7s %9s %8s %9s %9s %9s %9s%n",
+                "action", "ok", "ok/s", "errors", "throttled", "timeouts", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (Action action : Action.values()) {
+            Histogram h = latencies.get(action).getIntervalHistogram();
+            out.append(String.format(Locale.ROOT, "%-7s %9d %9.1f %7d %9d %8d %9.2f %9.2f %9.2f %9.2f%n",
+                    action.name().toLowerCase(Locale.ROOT),
+                    count(action, Outcome.OK), count(action, Outcome.OK) / seconds,
+                    count(action, Outcome.ERROR), count(action, Outcome.THROTTLED), count(action, Outcome.TIMEOUT),
+                    h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(99) / 1000.0,
+                    h.getValueAtPercentile(99.9) / 1000.0, h.getMaxValue() / 1000.0));
+        }
+        out.append(String.format(Locale.ROOT, "games   %9d %9.1f%n", gamesFinished(), gamesFinished() / seconds));
+        return out.toString();
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.tictactoe.loadtest;
+
+import com.example.tictactoe.loadtest.LatencyReport.Action;
+import com.example.tictactoe.loadtest.LatencyReport.Outcome;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * One player socket. A command waits in {@code pending} until the frame that answers it
+ * arrives: the server answers a session's commands in order, error replies carry nothing but
+ * the error and so belong to the oldest pending command, and frames pushed for other players'
+ * commands are told apart by their content. Anything that answers nothing is handed to the
+ * push listener.
+ */
+@Slf4j
+final class LoadClient {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String name;
+    private final LatencyReport report;
+    private final Duration timeout;
+    private final Sinks.Many<String> outbound = Sinks.many().unicast().onBackpressureBuffer();
+    private final List<Pending> pending = new LinkedList<>();
+    private volatile Consumer<JsonNode> pushListener = frame -> {};
+    private Disposable connection;
+
+    LoadClient(String name, LatencyReport report, Duration timeout) {
+        this.name = name;
+        this.report = report;
+        this.timeout = timeout;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void connect(HttpClient http, String uri) {
+        connection = http.websocket().uri(uri)
+                .handle((in, out) -> out.sendString(outbound.asFlux()).then()
+                        .and(in.aggregateFrames().receive().asString().doOnNext(this::onFrame).then()))
+                .subscribe(null, e -> log.warn("Socket {} closed: {}", name, e.toString()));
+    }
+
+    void onPush(Consumer<JsonNode> listener) {
+        this.pushListener = listener;
+    }
+
+    /**
+     * Sends a command. {@code onReply} runs with the frame that {@code answers} it; {@code onFailure}
+     * runs when the command fails or times out. A throttled command is sent again once the
+     * server's {@code retryAfterMs} has passed.
+     */
+    void request(Action action, Object command, Predicate<JsonNode> answers,
+                 Consumer<JsonNode> onReply, Runnable onFailure) {
+        String json;
+        try {
+            json = JSON.writeValueAsString(command);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+        send(new Pending(action, json, answers, onReply, onFailure, System.nanoTime()));
+    }
+
+    private synchronized void send(Pending p) {
+        pending.add(p);
+        outbound.emitNext(p.json(), Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+    }
+
+    private void onFrame(String text) {
+        JsonNode frame;
+        try {
+            frame = JSON.readTree(text);
+        } catch (JsonProcessingException e) {
+            log.warn("Socket {} got unreadable frame {}", name, text);
+            return;
+        }
+        boolean error = frame.has("error");
+        Pending answered = null;
+        synchronized (this) {
+            for (Iterator<Pending> it = pending.iterator(); it.hasNext(); ) {
+                Pending p = it.next();
+                if (error || p.answers().test(frame)) {
+                    it.remove();
+                    answered = p;
+                    break;
+                }
+            }
+        }
+        if (answered == null) {
+            if (!error) {
+                pushListener.accept(frame);
+            }
+            return;
+        }
+        if (!error) {
+            report.ok(answered.action(), System.nanoTime() - answered.sentAt());
+            answered.onReply().accept(frame);
+        } else if (frame.has("retryAfterMs")) {
+            report.failed(answered.action(), Outcome.THROTTLED);
+            Pending retry = answered.resent();
+            Schedulers.parallel().schedule(() -> send(retry), frame.path("retryAfterMs").asLong(), TimeUnit.MILLISECONDS);
+        } else {
+            report.failed(answered.action(), Outcome.ERROR);
+            answered.onFailure().run();
+        }
+    }
+
+    /**
+     * Fails the commands that have waited longer than the request timeout.
+     */
+    void expire() {
+        long cutoff = System.nanoTime() - timeout.toNanos();
+        List<Pending> expired = new ArrayList<>();
+        synchronized (this) {
+            for (Iterator<Pending> it = pending.iterator(); it.hasNext(); ) {
+                Pending p = it.next();
+                if (p.sentAt() - cutoff < 0) {
+                    it.remove();
+                    expired.add(p);
+                }
+            }
+        }
+        for (Pending p : expired) {
+            report.failed(p.action(), Outcome.TIMEOUT);
+            p.onFailure().run();
+        }
+    }
+
+    void close() {
+        outbound.emitComplete(Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+        Mono.delay(Duration.ofSeconds(1)).subscribe(t -> {
+            if (connection != null) {
+                connection.dispose();
+            }
+        });
+    }
+
+    private record Pending(Action action, String json, Predicate<JsonNode> answers,
+                           Consumer<JsonNode> onReply, Runnable onFailure, long sentAt) {
+        Pending resent() {
+            return new Pending(action, json, answers, onReply, onFailure, System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.tictactoe.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+
+/**
+ * Settings of a load run, read from {@code load.*} system properties.
+ *
+ * @param url            socket endpoint of a running node; null starts the app in-process
+ * @param jdbcUrl        database for the in-process app; null starts a Postgres container
+ * @param games          games played concurrently, each by two sockets
+ * @param rampUp         time over which the games are started; not measured
+ * @param duration       measured time after the ramp-up
+ * @param thinkTime      mean pause of a player before each command, jittered by +-50%
+ * @param getRatio       chance that a player reads the game with {@code get} before moving
+ * @param mode           how players learn that it is their turn
+ * @param requestTimeout time after which an unanswered command counts as timed out
+ */
+record LoadConfig(
+        String url,
+        String jdbcUrl,
+        String user,
+        String password,
+        int games,
+        Duration rampUp,
+        Duration duration,
+        Duration thinkTime,
+        double getRatio,
+        Mode mode,
+        Duration requestTimeout
+) {
+
+    enum Mode {
+        /** React to the {@code update} frames pushed for the opponent's moves. */
+        PUSH,
+        /** Ignore pushed frames and poll with {@code get} every think time until it is our turn. */
+        POLL
+    }
+
+    static LoadConfig fromSystemProperties() {
+        return new LoadConfig(
+                System.getProperty("load.url"),
+                System.getProperty("load.jdbcUrl"),
+                System.getProperty("load.user", "postgres"),
+                System.getProperty("load.password", "postgres"),
+                Integer.getInteger("load.games", 500),
+                duration("load.rampUp", "10s"),
+                duration("load.duration", "60s"),
+                duration("load.thinkTime", "200ms"),
+                Double.parseDouble(System.getProperty("load.getRatio", "0.2")),
+                Mode.valueOf(System.getProperty("load.mode", "push").toUpperCase()),
+                duration("load.requestTimeout", "10s"));
+    }
+
+    private static Duration duration(String key, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(key, defaultValue));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.tictactoe.logging;
+
+import io.micrometer.context.ContextRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CorrelationTest {
+
+    @Test
+    void blockingCallOnAWorkerThreadSeesTheIdsOfItsContext() {
+        Correlation.register(ContextRegistry.getInstance());
+        UUID gameId = UUID.randomUUID();
+        Map<String, String> seen;
+        Hooks.enableAutomaticContextPropagation();
+        try {
+            seen = Mono.fromCallable(MDC::getCopyOfContextMap)
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .contextWrite(context -> Correlation.game(context, gameId))
+                    .contextWrite(Context.of(Correlation.SESSION_ID, "s1", Correlation.MESSAGE_ID, "s1-7"))
+                    .block();
+        } finally {
+            Hooks.disableAutomaticContextPropagation();
+        }
+
+        assertThat(seen).containsExactlyInAnyOrderEntriesOf(Map.of(
+                Correlation.SESSION_ID, "s1",
+                Correlation.MESSAGE_ID, "s1-7",
+                Correlation.GAME_ID, gameId.toString()));
+        assertThat(MDC.get(Correlation.GAME_ID)).isNull();
+    }
+
+    @Test
+    void leavesTheContextAloneWithoutAGame() {
+        Context context = Context.of(Correlation.REQUEST_ID, "r1");
+
+        assertThat(Correlation.game(context, null)).isSameAs(context);
+    }
+}
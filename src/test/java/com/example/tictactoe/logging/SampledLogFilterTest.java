@@ -0,0 +1,63 @@
+package com.example.tictactoe.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SampledLogFilterTest {
+
+    private final Logger logger = new LoggerContext().getLogger("test");
+    private final SampledLogFilter filter = new SampledLogFilter();
+
+    @AfterEach
+    void clearMdc() {
+        MDC.clear();
+    }
+
+    @Test
+    void passesUnmarkedLinesAndWarnings() {
+        filter.setRate(1_000_000);
+
+        assertThat(decide(null, Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide(SampledLogFilter.SAMPLED, Level.WARN)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide(SampledLogFilter.SAMPLED, Level.ERROR)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void keepsOrDropsEveryLineOfAGameAlike() {
+        filter.setRate(8);
+
+        long kept = IntStream.range(0, 4000).filter(i -> {
+            MDC.put(Correlation.GAME_ID, UUID.randomUUID().toString());
+            FilterReply first = decide(SampledLogFilter.SAMPLED, Level.INFO);
+            assertThat(decide(SampledLogFilter.SAMPLED, Level.DEBUG)).isEqualTo(first);
+            return first == FilterReply.NEUTRAL;
+        }).count();
+
+        assertThat(kept).isBetween(350L, 650L);
+    }
+
+    @Test
+    void keepsOneInRateOfTheLinesWithoutAGame() {
+        filter.setRate(4);
+
+        long kept = IntStream.range(0, 100)
+                .filter(i -> decide(SampledLogFilter.SAMPLED, Level.INFO) == FilterReply.NEUTRAL)
+                .count();
+
+        assertThat(kept).isEqualTo(25);
+    }
+
+    private FilterReply decide(org.slf4j.Marker marker, Level level) {
+        return filter.decide(marker, logger, level, "line", null, null);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.tictactoe.matchmaking;
+
+import com.example.tictactoe.dto.TimeControl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MatchmakingQueueTest {
+
+    private final MatchmakingQueue queue = new MatchmakingQueue(new MatchmakingProperties(200), new SimpleMeterRegistry());
+
+    private static class TestSeeker implements Seeker {
+        volatile boolean active = true;
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+    }
+
+    @Test
+    void pairsSecondSeekerWithFirst() {
+        var alice = new TestSeeker();
+        var bob = new TestSeeker();
+
+        assertThat(queue.enqueue(queue.ticket(alice, "alice", null, null))).isNull();
+        var opponent = queue.enqueue(queue.ticket(bob, "bob", null, null));
+
+        assertThat(opponent.seeker()).isSameAs(alice);
+        assertThat(queue.isQueued(alice)).isFalse();
+        assertThat(queue.isQueued(bob)).isFalse();
+    }
+
+    @Test
+    void onlyPairsWithinTheSameBucket() {
+        var low = new TestSeeker();
+        var high = new TestSeeker();
+        var blitz = new TestSeeker();
+
+        assertThat(queue.enqueue(queue.ticket(low, "low", 1010, null))).isNull();
+        assertThat(queue.enqueue(queue.ticket(high, "high", 1650, null))).isNull();
+        assertThat(queue.enqueue(queue.ticket(blitz, "blitz", 1020, new TimeControl(5000L, null)))).isNull();
+
+        var opponent = queue.enqueue(queue.ticket(new TestSeeker(), "near", 1190, null));
+        assertThat(opponent.seeker()).isSameAs(low);
+    }
+
+    @Test
+    void skipsSeekersThatCancelledOrDisconnected() {
+        var cancelled = new TestSeeker();
+        queue.enqueue(queue.ticket(cancelled, "cancelled", null, null));
+        assertThat(queue.cancel(cancelled)).isTrue();
+
+        var gone = new TestSeeker();
+        queue.enqueue(queue.ticket(gone, "gone", null, null));
+        gone.active = false;
+
+        var late = new TestSeeker();
+        assertThat(queue.enqueue(queue.ticket(late, "late", null, null))).isNull();
+        assertThat(queue.isQueued(late)).isTrue();
+    }
+
+    @Test
+    void rejectsSeekerThatIsAlreadyQueued() {
+        var alice = new TestSeeker();
+        queue.enqueue(queue.ticket(alice, "alice", null, null));
+
+        assertThatThrownBy(() -> queue.enqueue(queue.ticket(alice, "alice", null, null)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void concurrentBurstPairsEverySeekerExactlyOnce() throws Exception {
+        int seekers = 10_000;
+        var paired = ConcurrentHashMap.<Seeker>newKeySet();
+        var pairs = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int offset = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = offset; i < seekers; i += 8) {
+                    var seeker = new TestSeeker();
+                    var opponent = queue.enqueue(queue.ticket(seeker, "p" + i, null, null));
+                    if (opponent != null) {
+                        pairs.incrementAndGet();
+                        assertThat(paired.add(seeker)).isTrue();
+                        assertThat(paired.add(opponent.seeker())).isTrue();
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(pairs.get()).isEqualTo(seekers / 2);
+        assertThat(paired).hasSize(seekers);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.tictactoe.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void rejectsAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 1.5, 0.2);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(1_000_000);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 1, 200, 1.0, 0.5);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+        }
+        for (int i = 0; i < 50; i++) {
+            limiter.release(1_000_000);
+            limiter.tryAcquire();
+        }
+        int before = limiter.getLimit();
+
+        for (int i = 0; i < 50; i++) {
+            limiter.release(50_000_000);
+            limiter.tryAcquire();
+        }
+
+        assertThat(limiter.getLimit()).isLessThan(before);
+    }
+}
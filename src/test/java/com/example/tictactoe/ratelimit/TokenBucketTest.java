@@ -0,0 +1,42 @@
+package com.example.tictactoe.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void grantsBurstThenRejects() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire(0)).isZero();
+        }
+        assertThat(bucket.tryAcquire(0)).isPositive();
+    }
+
+    @Test
+    void refillsAtConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(10, 1, 0);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        long wait = bucket.tryAcquire(0);
+        assertThat(wait).isEqualTo(SECOND / 10);
+        assertThat(bucket.tryAcquire(wait)).isZero();
+    }
+
+    @Test
+    void idleTimeDoesNotAccumulateBeyondBurst() {
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+
+        long later = 60 * SECOND;
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isPositive();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.exception.InvalidMoveException;
+import com.example.tictactoe.exception.ThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GameCommandExecutorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GameCommandExecutor executor = new GameCommandExecutor(
+            new CommandProperties(16, Duration.ofMillis(200), 3, Duration.ofMillis(1), Duration.ofMillis(5)), registry);
+    private final UUID gameId = UUID.randomUUID();
+
+    @Test
+    void retriesConflictsUntilCommandSucceeds() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.execute(gameId, "move", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Game", gameId);
+            }
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(registry.get("tictactoe.commands.conflicts").tag("command", "move").counter().count()).isEqualTo(2);
+        assertThat(registry.get("tictactoe.commands.retry.latency").tag("outcome", "succeeded").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute(gameId, "move", () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Game", gameId);
+        }))
+                .isInstanceOf(ThrottledException.class)
+                .extracting("code").isEqualTo("CONFLICT");
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void doesNotRetryRejectedCommands() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute(gameId, "move", () -> {
+            attempts.incrementAndGet();
+            throw new InvalidMoveException("Not your turn");
+        })).isInstanceOf(InvalidMoveException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void releasesTheLockWhileBackingOff() throws Exception {
+        var patient = new GameCommandExecutor(
+                new CommandProperties(16, Duration.ofSeconds(1), 20, Duration.ofMillis(1), Duration.ofMillis(5)), registry);
+        CompletableFuture<String> other = new CompletableFuture<>();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // the retried command keeps conflicting until a second command on the game got through
+        String result = patient.execute(gameId, "move", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                Thread.startVirtualThread(() -> other.complete(patient.execute(gameId, "join", () -> "joined")));
+            }
+            if (!other.isDone()) {
+                throw new ObjectOptimisticLockingFailureException("Game", gameId);
+            }
+            return "moved";
+        });
+
+        assertThat(result).isEqualTo("moved");
+        assertThat(other.get(1, TimeUnit.SECONDS)).isEqualTo("joined");
+    }
+
+    @Test
+    void runsCommandsOfOneGameOneAtATime() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(pool.submit(() -> executor.execute(gameId, "move", () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleep(2);
+                    return running.decrementAndGet();
+                })));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(maxRunning).hasValue(1);
+    }
+
+    @Test
+    void rejectsCommandWhenGameStaysLocked() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> executor.execute(gameId, "move", () -> {
+            locked.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }));
+        holder.start();
+        locked.await();
+
+        assertThatThrownBy(() -> executor.execute(gameId, "join", () -> "joined"))
+                .isInstanceOf(ThrottledException.class)
+                .extracting("code").isEqualTo("CONTENDED");
+
+        release.countDown();
+        holder.join();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
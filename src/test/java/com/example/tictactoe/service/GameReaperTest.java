@@ -0,0 +1,160 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.cache.CacheProperties;
+import com.example.tictactoe.cache.VersionedGameCache;
+import com.example.tictactoe.cluster.ClusterMembership;
+import com.example.tictactoe.domain.GameStatus;
+import com.example.tictactoe.event.GameEventHub;
+import com.example.tictactoe.repository.GameKey;
+import com.example.tictactoe.repository.GameRepository;
+import com.example.tictactoe.repository.GameVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class GameReaperTest {
+
+    @Mock
+    private GameRepository gameRepo;
+    @Mock
+    private GameEventHub hub;
+    @Mock
+    private PlatformTransactionManager txManager;
+    @Mock
+    private ObjectProvider<ClusterMembership> membership;
+
+    private final List<String> broadcasts = new ArrayList<>();
+    private GameReaper reaper;
+
+    @BeforeEach
+    void setUp() {
+        var props = new ReaperProperties(true, Duration.ofMinutes(1), Duration.ofHours(1), Duration.ofHours(24), 2, 3);
+        var cacheProps = new CacheProperties(Duration.ofMinutes(1), 100, Duration.ofSeconds(1), 4, 100, CacheProperties.Store.HEAP);
+        var gameCache = new VersionedGameCache(cacheProps, new SimpleMeterRegistry());
+        gameCache.setListener((id, version) -> broadcasts.add(id + "@" + version));
+        reaper = new GameReaper(gameRepo, hub, new ConcurrentMapCacheManager("lobby"), gameCache, txManager, props, membership);
+    }
+
+    @Test
+    void reap_deletesWaitingGamesInBoundedBatches() {
+        List<GameKey> batch = keys(UUID.randomUUID(), UUID.randomUUID());
+        found(GameStatus.WAITING, batch);
+        idle(List.of());
+        when(gameRepo.deleteWaiting(ids(batch))).thenReturn(ids(batch));
+
+        reaper.reap();
+
+        verify(gameRepo, times(3)).deleteWaiting(ids(batch));
+        verify(gameRepo, never()).abandonIdle(any(), any());
+        assertThat(broadcasts).contains(batch.getFirst().gameId() + "@" + VersionedGameCache.DELETED);
+    }
+
+    @Test
+    void reap_finishesIdleGamesAndNotifiesSubscribers() {
+        UUID subscribed = UUID.randomUUID();
+        UUID unsubscribed = UUID.randomUUID();
+        found(GameStatus.WAITING, List.of());
+        idle(keys(subscribed, unsubscribed), List.of());
+        when(hub.isSubscribed(subscribed)).thenReturn(true);
+        when(gameRepo.abandonIdle(eq(List.of(subscribed, unsubscribed)), any())).thenReturn(List.of(subscribed, unsubscribed));
+        when(gameRepo.findVersionsByIds(List.of(subscribed, unsubscribed)))
+                .thenReturn(List.of(new GameVersion(subscribed, 7L), new GameVersion(unsubscribed, 3L)));
+
+        reaper.reap();
+
+        verify(gameRepo).abandonIdle(eq(List.of(subscribed, unsubscribed)), any());
+        verify(hub).publish(eq(subscribed), any());
+        verify(hub, never()).publish(eq(unsubscribed), any());
+        assertThat(broadcasts).containsExactly(subscribed + "@7", unsubscribed + "@3");
+    }
+
+    @Test
+    void reap_announcesOnlyGamesActuallyChanged() {
+        UUID movedMeanwhile = UUID.randomUUID();
+        UUID idle = UUID.randomUUID();
+        found(GameStatus.WAITING, List.of());
+        idle(keys(movedMeanwhile, idle), List.of());
+        when(hub.isSubscribed(any())).thenReturn(true);
+        when(gameRepo.abandonIdle(any(), any())).thenReturn(List.of(idle));
+        when(gameRepo.findVersionsByIds(List.of(idle))).thenReturn(List.of(new GameVersion(idle, 5L)));
+
+        reaper.reap();
+
+        verify(hub).publish(eq(idle), any());
+        verify(hub, never()).publish(eq(movedMeanwhile), any());
+        assertThat(broadcasts).containsExactly(idle + "@5");
+    }
+
+    @Test
+    void reap_stopsAfterPartialBatch() {
+        found(GameStatus.WAITING, keys(UUID.randomUUID()));
+
+        int reaped = reaper.reap(GameStatus.WAITING, Duration.ofHours(1), (ids, cutoff) -> versions(ids));
+
+        assertThat(reaped).isEqualTo(1);
+        verify(gameRepo, times(1)).findKeysBefore(any(), any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void reap_leavesGamesOfOtherNodesToTheirOwners() {
+        UUID local = UUID.randomUUID();
+        UUID remote = UUID.randomUUID();
+        ClusterMembership cluster = mock(ClusterMembership.class);
+        when(cluster.isLocal(local)).thenReturn(true);
+        when(membership.getIfAvailable()).thenReturn(cluster);
+        found(GameStatus.WAITING, keys(remote, local), keys(remote), List.of());
+
+        when(gameRepo.deleteWaiting(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        int reaped = reaper.reap(GameStatus.WAITING, Duration.ofHours(1), (ids, cutoff) -> versions(gameRepo.deleteWaiting(ids)));
+
+        assertThat(reaped).isEqualTo(1);
+        verify(gameRepo).deleteWaiting(List.of(local));
+        verify(gameRepo, never()).deleteWaiting(List.of(remote));
+    }
+
+    @SafeVarargs
+    private void found(GameStatus status, List<GameKey> first, List<GameKey>... next) {
+        when(gameRepo.findKeysBefore(eq(status), any(), any(), any(), any(Pageable.class))).thenReturn(first, next);
+    }
+
+    @SafeVarargs
+    private void idle(List<GameKey> first, List<GameKey>... next) {
+        when(gameRepo.findIdleKeysBefore(eq(GameStatus.IN_PROGRESS), any(), any(), any(Pageable.class))).thenReturn(first, next);
+    }
+
+    private static List<GameKey> keys(UUID... ids) {
+        OffsetDateTime createdAt = OffsetDateTime.now().minusDays(2);
+        return Arrays.stream(ids).map(id -> new GameKey(id, createdAt)).toList();
+    }
+
+    private static List<GameVersion> versions(List<UUID> ids) {
+        return ids.stream().map(id -> new GameVersion(id, 1L)).toList();
+    }
+
+    private static List<UUID> ids(List<GameKey> keys) {
+        return keys.stream().map(GameKey::gameId).toList();
+    }
+}
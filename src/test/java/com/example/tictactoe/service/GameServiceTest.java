@@ -1,10 +1,16 @@
 package com.example.tictactoe.service;
 
+import com.example.tictactoe.cache.CacheProperties;
+import com.example.tictactoe.cache.VersionedGameCache;
+import com.example.tictactoe.datasource.ReadYourWrites;
 import com.example.tictactoe.domain.*;
 import com.example.tictactoe.dto.*;
 import com.example.tictactoe.exception.*;
+import com.example.tictactoe.id.IdGenerator;
 import com.example.tictactoe.mapper.GameMapper;
 import com.example.tictactoe.repository.*;
+import com.example.tictactoe.timer.GameClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,7 +19,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.*;
 
@@ -35,6 +43,19 @@ class GameServiceTest {
     private GameMapper mapper;
     @Mock
     private GameEvaluator evaluator;
+    @Mock
+    private GameClock clock;
+    @Mock
+    private ReadYourWrites readYourWrites;
+    @Mock
+    private IdGenerator ids;
+    @Mock
+    private VersionedGameCache gameCache;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    @Spy
+    private MoveTimings timings = new MoveTimings(registry);
+    @Spy
+    private CacheProperties cacheProps = new CacheProperties(Duration.ofHours(1), 100, Duration.ofSeconds(2), 16, 50, null);
 
     @InjectMocks
     private GameService service;
@@ -72,6 +93,7 @@ class GameServiceTest {
         reqX = new MoveRequest(playerX.getPlayerId(), 0, 0);
         reqO = new MoveRequest(playerO.getPlayerId(), 1, 1);
 
+        when(ids.next()).thenAnswer(inv -> UUID.randomUUID());
         when(gameRepo.save(any(Game.class))).thenAnswer(inv -> inv.getArgument(0));
         when(playerRepo.save(any(Player.class))).thenAnswer(inv -> inv.getArgument(0));
         when(moveRepo.save(any(Move.class))).thenAnswer(inv -> inv.getArgument(0));
@@ -94,8 +116,8 @@ class GameServiceTest {
 
     @Test
     void joinGame_firstPlayer_assignsSymbolX_andKeepsWaiting() {
-        when(gameRepo.findById(gameId)).thenReturn(Optional.of(
-                Game.builder().gameId(gameId).players(new ArrayList<>()).build()
+        when(gameRepo.findForJoinById(gameId)).thenReturn(Optional.of(
+                Game.builder().gameId(gameId).version(1L).players(new ArrayList<>()).build()
         ));
         PlayerDto expectedDto = new PlayerDto(UUID.randomUUID(), "Alice", Symbol.X, OffsetDateTime.now());
         when(mapper.toDto(any(Player.class))).thenReturn(expectedDto);
@@ -113,8 +135,8 @@ class GameServiceTest {
     void joinGame_secondPlayer_assignsSymbolO_andStartsGame() {
         var players = new ArrayList<Player>();
         players.add(playerX);
-        when(gameRepo.findById(gameId)).thenReturn(Optional.of(
-                Game.builder().gameId(gameId).players(players).status(GameStatus.WAITING).build()
+        when(gameRepo.findForJoinById(gameId)).thenReturn(Optional.of(
+                Game.builder().gameId(gameId).version(2L).players(players).status(GameStatus.WAITING).build()
         ));
         PlayerDto expectedDto = new PlayerDto(UUID.randomUUID(), "Bob", Symbol.O, OffsetDateTime.now());
         when(mapper.toDto(any(Player.class))).thenReturn(expectedDto);
@@ -125,12 +147,13 @@ class GameServiceTest {
         ArgumentCaptor<Game> gameCap = ArgumentCaptor.forClass(Game.class);
         verify(gameRepo).save(gameCap.capture());
         assertThat(gameCap.getValue().getStatus()).isEqualTo(GameStatus.IN_PROGRESS);
+        verify(gameCache).changed(gameId, 2L);
     }
 
     @Test
     void joinGame_whenFull_throwsInvalidMove() {
         var players = List.of(playerX, playerO);
-        when(gameRepo.findById(gameId)).thenReturn(Optional.of(
+        when(gameRepo.findForJoinById(gameId)).thenReturn(Optional.of(
                 Game.builder().gameId(gameId).players(new ArrayList<>(players)).build()
         ));
 
@@ -152,6 +175,18 @@ class GameServiceTest {
                 .hasMessage("Cell already occupied");
     }
 
+    @Test
+    void makeMove_offBoard_throwsInvalidMove() {
+        when(gameRepo.findById(gameId)).thenReturn(Optional.of(game));
+        when(playerRepo.findById(playerX.getPlayerId())).thenReturn(Optional.of(playerX));
+        MoveRequest offBoard = new MoveRequest(playerX.getPlayerId(), 0, 3);
+
+        assertThatThrownBy(() -> service.makeMove(gameId, offBoard))
+                .isInstanceOf(InvalidMoveException.class)
+                .hasMessage("Cell is off the board");
+        verify(moveRepo, never()).save(any(Move.class));
+    }
+
     @Test
     void makeMove_onDataIntegrityViolation_throwsInvalidMove() {
         when(gameRepo.findById(gameId)).thenReturn(Optional.of(game));
@@ -182,10 +217,70 @@ class GameServiceTest {
         assertThat(saved.getNextTurn()).isNull();
     }
 
+    @Test
+    void makeMove_recordsEachPhaseOnceForAnAcceptedMove() {
+        when(gameRepo.findById(gameId)).thenReturn(Optional.of(game));
+        when(playerRepo.findById(playerX.getPlayerId())).thenReturn(Optional.of(playerX));
+        when(evaluator.evaluate(anyList())).thenReturn(Optional.empty());
+
+        service.makeMove(gameId, reqX);
+        assertThatThrownBy(() -> service.makeMove(gameId, reqX)).isInstanceOf(InvalidMoveException.class);
+
+        for (String phase : List.of("db", "validate", "evaluate", "map")) {
+            assertThat(registry.get("tictactoe.move.phase").tag("phase", phase).timer().count())
+                    .as(phase).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void makeMove_timedGame_deductsElapsedTimeAndReschedules() {
+        game.setTotalTimeMs(60_000L);
+        game.setXTimeLeftMs(60_000L);
+        game.setOTimeLeftMs(60_000L);
+        game.setTurnStartedAt(OffsetDateTime.now().minusSeconds(5));
+        when(gameRepo.findById(gameId)).thenReturn(Optional.of(game));
+        when(playerRepo.findById(playerX.getPlayerId())).thenReturn(Optional.of(playerX));
+        when(evaluator.evaluate(anyList())).thenReturn(Optional.empty());
+
+        service.makeMove(gameId, reqX);
+
+        assertThat(game.getXTimeLeftMs()).isBetween(50_000L, 55_000L);
+        assertThat(game.getOTimeLeftMs()).isEqualTo(60_000L);
+        assertThat(game.getNextTurn()).isEqualTo(Symbol.O);
+        verify(clock).schedule(eq(gameId), eq(game.getTurnDeadline()));
+    }
+
+    @Test
+    void makeMove_afterDeadline_losesOnTime() {
+        game.setMoveTimeLimitMs(10_000L);
+        game.setTurnStartedAt(OffsetDateTime.now().minusSeconds(11));
+        when(gameRepo.findById(gameId)).thenReturn(Optional.of(game));
+        when(playerRepo.findById(playerX.getPlayerId())).thenReturn(Optional.of(playerX));
+
+        service.makeMove(gameId, reqX);
+
+        verify(moveRepo, never()).save(any());
+        verify(clock).cancel(gameId);
+        assertThat(game.getStatus()).isEqualTo(GameStatus.FINISHED);
+        assertThat(game.getWinner()).isEqualTo(Symbol.O);
+    }
+
+    @Test
+    void expireTurn_beforeDeadline_reschedulesInsteadOfFinishing() {
+        game.setMoveTimeLimitMs(10_000L);
+        game.setTurnStartedAt(OffsetDateTime.now());
+        when(gameRepo.findById(gameId)).thenReturn(Optional.of(game));
+
+        assertThat(service.expireTurn(gameId)).isEmpty();
+
+        verify(clock).schedule(gameId, game.getTurnDeadline());
+        assertThat(game.getStatus()).isEqualTo(GameStatus.IN_PROGRESS);
+    }
+
     @Test
     void getGame_returnsMappedDto() {
         GameDto expected = new GameDto(gameId, GameStatus.IN_PROGRESS, Symbol.X,
-                OffsetDateTime.now(), List.of(), List.of(), null, null);
+                OffsetDateTime.now(), List.of(), List.of(), null, null, null, null);
         when(gameRepo.findById(gameId)).thenReturn(Optional.of(game));
         when(mapper.toDto(game)).thenReturn(expected);
 
@@ -197,9 +292,9 @@ class GameServiceTest {
     void listGames_returnsMappedDtos() {
         Game g1 = Game.builder().gameId(UUID.randomUUID()).build();
         Game g2 = Game.builder().gameId(UUID.randomUUID()).build();
-        when(gameRepo.findByStatus(GameStatus.WAITING)).thenReturn(List.of(g1, g2));
-        when(mapper.toDto(g1)).thenReturn(new GameDto(g1.getGameId(), null, null, null, List.of(), List.of(), null, null));
-        when(mapper.toDto(g2)).thenReturn(new GameDto(g2.getGameId(), null, null, null, List.of(), List.of(), null, null));
+        when(gameRepo.findByStatusOrderByCreatedAtDesc(GameStatus.WAITING, Limit.of(50))).thenReturn(List.of(g1, g2));
+        when(mapper.toDto(g1)).thenReturn(new GameDto(g1.getGameId(), null, null, null, List.of(), List.of(), null, null, null, null));
+        when(mapper.toDto(g2)).thenReturn(new GameDto(g2.getGameId(), null, null, null, List.of(), List.of(), null, null, null, null));
 
         var list = service.listGames(GameStatus.WAITING);
         assertThat(list).hasSize(2)
@@ -0,0 +1,59 @@
+package com.example.tictactoe.service;
+
+import com.example.tictactoe.cluster.ClusterMembership;
+import com.example.tictactoe.domain.GameStatus;
+import com.example.tictactoe.repository.GameRepository;
+import com.example.tictactoe.repository.StatusCount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameStatusMetricsTest {
+
+    @Mock
+    private GameRepository gameRepo;
+    @Mock
+    private ObjectProvider<ClusterMembership> membership;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void refresh_countsOpenGamesOnly() {
+        when(gameRepo.countByStatusIn(GameStatusMetrics.COUNTED))
+                .thenReturn(List.of(new StatusCount(GameStatus.IN_PROGRESS, 4L)));
+        var metrics = new GameStatusMetrics(gameRepo, membership, registry);
+
+        metrics.refresh();
+
+        assertThat(gauge(GameStatus.WAITING)).isZero();
+        assertThat(gauge(GameStatus.IN_PROGRESS)).isEqualTo(4);
+        assertThat(registry.find("tictactoe.games").tag("status", GameStatus.FINISHED.name()).gauge()).isNull();
+    }
+
+    @Test
+    void refresh_leavesTheCountToTheReportingNode() {
+        ClusterMembership cluster = mock(ClusterMembership.class);
+        when(membership.getIfAvailable()).thenReturn(cluster);
+        when(cluster.isLocal(GameStatusMetrics.REPORTER_KEY)).thenReturn(false);
+        var metrics = new GameStatusMetrics(gameRepo, membership, registry);
+
+        metrics.refresh();
+
+        verify(gameRepo, never()).countByStatusIn(any());
+        assertThat(gauge(GameStatus.WAITING)).isNaN();
+    }
+
+    private double gauge(GameStatus status) {
+        return registry.get("tictactoe.games").tag("status", status.name()).gauge().value();
+    }
+}
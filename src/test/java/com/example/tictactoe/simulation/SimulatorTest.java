@@ -0,0 +1,68 @@
+package com.example.tictactoe.simulation;
+
+import com.example.tictactoe.domain.Move;
+import com.example.tictactoe.domain.Player;
+import com.example.tictactoe.domain.Symbol;
+import com.example.tictactoe.domain.impl.StandardGameEvaluator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SimulatorTest {
+
+    @Test
+    void perfectPlayNeverLoses() throws Exception {
+        var both = new Simulator(PerfectStrategy.INSTANCE, PerfectStrategy.INSTANCE, 2, 0).run(20_000, 1);
+        var asX = new Simulator(PerfectStrategy.INSTANCE, RandomStrategy.INSTANCE, 2, 0).run(20_000, 2);
+        var asO = new Simulator(HeuristicStrategy.INSTANCE, PerfectStrategy.INSTANCE, 2, 0).run(20_000, 3);
+
+        assertThat(both.draws()).isEqualTo(20_000);
+        assertThat(asX.oWins()).isZero();
+        assertThat(asX.xWins()).isGreaterThan(asX.draws());
+        assertThat(asO.xWins()).isZero();
+    }
+
+    @Test
+    void randomPlayMatchesTheKnownOutcomeShares() throws Exception {
+        var result = new Simulator(RandomStrategy.INSTANCE, RandomStrategy.INSTANCE, 3, 0).run(300_000, 4);
+
+        assertThat(result.xWins() + result.oWins() + result.draws()).isEqualTo(300_000);
+        assertThat(result.plies()[5] + result.plies()[6] + result.plies()[7] + result.plies()[8] + result.plies()[9])
+                .isEqualTo(300_000);
+        // exact shares over all 255,168 games weighted by probability: 58.5%, 28.8%, 12.7%
+        assertThat(result.xWins() / 300_000.0).isCloseTo(0.585, within(0.01));
+        assertThat(result.oWins() / 300_000.0).isCloseTo(0.288, within(0.01));
+        assertThat(result.draws() / 300_000.0).isCloseTo(0.127, within(0.01));
+    }
+
+    @Test
+    void sameSeedAndThreadsReplayTheSameGames() throws Exception {
+        var simulator = new Simulator(HeuristicStrategy.INSTANCE, RandomStrategy.INSTANCE, 2, 50);
+
+        assertThat(simulator.run(1_000, 7).samples()).containsExactly(simulator.run(1_000, 7).samples());
+    }
+
+    @Test
+    void winnersAgreeWithTheServiceEvaluator() throws Exception {
+        var evaluator = new StandardGameEvaluator();
+        Player x = Player.builder().symbol(Symbol.X).build();
+        Player o = Player.builder().symbol(Symbol.O).build();
+        var result = new Simulator(RandomStrategy.INSTANCE, RandomStrategy.INSTANCE, 1, 2_000).run(2_000, 8);
+
+        for (long game : result.samples()) {
+            List<Move> moves = new ArrayList<>();
+            for (int ply = 0; ply < Simulator.plies(game); ply++) {
+                int cell = Simulator.cell(game, ply);
+                moves.add(Move.builder().player(ply % 2 == 0 ? x : o).row(cell / 3).col(cell % 3).build());
+            }
+            assertThat(evaluator.evaluate(moves))
+                    .as(SimulationResult.describe(game))
+                    .isEqualTo(Optional.ofNullable(Simulator.winner(game)));
+        }
+    }
+}
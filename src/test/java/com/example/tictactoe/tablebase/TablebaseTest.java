@@ -0,0 +1,106 @@
+package com.example.tictactoe.tablebase;
+
+import com.example.tictactoe.domain.Board;
+import com.example.tictactoe.domain.GameStatus;
+import com.example.tictactoe.domain.Symbol;
+import com.example.tictactoe.dto.GameDto;
+import com.example.tictactoe.dto.MoveDto;
+import com.example.tictactoe.dto.PlayerDto;
+import com.example.tictactoe.simulation.Simulator;
+import com.example.tictactoe.simulation.Strategy;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TablebaseTest {
+
+    @TempDir
+    static Path dir;
+
+    static Path file;
+    static Tablebase tablebase;
+
+    @BeforeAll
+    static void generate() throws Exception {
+        file = dir.resolve("3x3.ttb");
+        new TablebaseGenerator(new Variant(3, 3), new PrintStream(new ByteArrayOutputStream())).generate(file);
+        tablebase = Tablebase.open(file);
+    }
+
+    @Test
+    void solvesTheKnownPositionsOfThreeByThree() {
+        assertThat(tablebase.positions()).isEqualTo(765);
+        assertThat(tablebase.outcome(Board.EMPTY)).isEqualTo(Outcome.DRAW);
+        assertThat(tablebase.bestCells(Board.EMPTY)).isEqualTo(Board.ALL_CELLS);
+        // X in a corner, O on an edge next to it: X wins
+        int board = Board.play(Board.play(Board.EMPTY, 0), 1);
+        assertThat(tablebase.outcome(board)).isEqualTo(Outcome.WIN);
+        assertThat(tablebase.outcome(Board.play(board, 4))).isEqualTo(Outcome.LOSS);
+    }
+
+    @Test
+    void playsLikeThePerfectStrategy() throws Exception {
+        Strategy tablebaseStrategy = Strategy.named("tablebase:" + file);
+
+        var vsPerfect = new Simulator(tablebaseStrategy, Strategy.named("perfect"), 1, 0).run(5_000, 1);
+        var vsRandom = new Simulator(Strategy.named("random"), tablebaseStrategy, 1, 0).run(5_000, 2);
+
+        assertThat(vsPerfect.draws()).isEqualTo(5_000);
+        assertThat(vsRandom.xWins()).isZero();
+    }
+
+    @Test
+    void hintsTheSideToMoveOfAGame() {
+        UUID x = UUID.randomUUID();
+        UUID o = UUID.randomUUID();
+        GameDto game = new GameDto(UUID.randomUUID(), GameStatus.IN_PROGRESS, Symbol.X, null,
+                List.of(new PlayerDto(x, "x", Symbol.X, null), new PlayerDto(o, "o", Symbol.O, null)),
+                List.of(move(x, 1, 1), move(o, 0, 0), move(x, 2, 2)),
+                null, null, null, 3L);
+
+        Hint hint = Hint.of(tablebase, game);
+
+        // only another corner holds the draw, an edge lets X fork
+        assertThat(hint.toMove()).isEqualTo(Symbol.O);
+        assertThat(hint.outcome()).isEqualTo(Outcome.DRAW);
+        assertThat(hint.cells()).containsExactlyInAnyOrder(new Hint.Cell(0, 2), new Hint.Cell(2, 0));
+    }
+
+    @Test
+    void perfectHashMapsKeysOntoDistinctIndexes() {
+        long[] keys = new SplittableRandom(5).longs(100_000).distinct().toArray();
+        PerfectHash hash = PerfectHash.at(PerfectHash.build(keys), 0);
+
+        long[] indexes = Arrays.stream(keys).map(hash::index).sorted().toArray();
+
+        assertThat(indexes[0]).isZero();
+        assertThat(indexes[indexes.length - 1]).isEqualTo(keys.length - 1);
+        assertThat(Arrays.stream(indexes).distinct().count()).isEqualTo(keys.length);
+        assertThat(hash.byteSize()).isLessThan(keys.length);
+    }
+
+    @Test
+    void canonicalPositionIsTheSameForAllSymmetries() {
+        Variant variant = new Variant(4, 4);
+        long corner = variant.play(0, variant.cell(0, 0));
+        long otherCorner = variant.play(0, variant.cell(3, 3));
+        long centre = variant.play(0, variant.cell(1, 1));
+
+        assertThat(variant.canonical(corner)).isEqualTo(variant.canonical(otherCorner));
+        assertThat(variant.canonical(corner)).isNotEqualTo(variant.canonical(centre));
+    }
+
+    private static MoveDto move(UUID player, int row, int col) {
+        return new MoveDto(UUID.randomUUID(), player, row, col, null);
+    }
+}
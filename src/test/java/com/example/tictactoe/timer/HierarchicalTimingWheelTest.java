@@ -0,0 +1,79 @@
+package com.example.tictactoe.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTest {
+
+    private final List<String> expired = new ArrayList<>();
+    // 4 slots per level, 3 levels: covers 64 ticks before wrapping at the top level
+    private final HierarchicalTimingWheel<String> wheel =
+            new HierarchicalTimingWheel<>(1, TimeUnit.MILLISECONDS, 2, 3, expired::add);
+
+    private void advance(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            wheel.advance();
+        }
+    }
+
+    @Test
+    void expiresOnTheDeadlineTick() {
+        wheel.scheduleAtTick("a", 3);
+
+        advance(2);
+        assertThat(expired).isEmpty();
+        advance(1);
+        assertThat(expired).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cascadesLongDeadlinesThroughHigherLevels() {
+        wheel.scheduleAtTick("late", 45);
+        wheel.scheduleAtTick("mid", 9);
+        wheel.scheduleAtTick("beyond", 70);
+
+        advance(8);
+        assertThat(expired).isEmpty();
+        advance(1);
+        assertThat(expired).containsExactly("mid");
+        advance(35);
+        assertThat(expired).containsExactly("mid");
+        advance(1);
+        assertThat(expired).containsExactly("mid", "late");
+        advance(24);
+        assertThat(expired).containsExactly("mid", "late");
+        advance(1);
+        assertThat(expired).containsExactly("mid", "late", "beyond");
+    }
+
+    @Test
+    void cancelledTimeoutsNeverFire() {
+        var keep = wheel.scheduleAtTick("keep", 5);
+        var drop = wheel.scheduleAtTick("drop", 5);
+        advance(1);
+
+        assertThat(drop.cancel()).isTrue();
+        assertThat(drop.cancel()).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+        advance(10);
+
+        assertThat(expired).containsExactly("keep");
+        assertThat(keep.isExpired()).isTrue();
+        assertThat(drop.isCancelled()).isTrue();
+    }
+
+    @Test
+    void pastDeadlinesExpireOnNextTick() {
+        advance(10);
+        wheel.scheduleAtTick("late", 2);
+
+        advance(1);
+        assertThat(expired).containsExactly("late");
+    }
+}
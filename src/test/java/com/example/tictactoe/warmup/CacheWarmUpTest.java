@@ -0,0 +1,123 @@
+package com.example.tictactoe.warmup;
+
+import com.example.tictactoe.cache.CacheProperties;
+import com.example.tictactoe.cache.VersionedGameCache;
+import com.example.tictactoe.cluster.ClusterMembership;
+import com.example.tictactoe.cluster.PgNotifyRelay;
+import com.example.tictactoe.domain.Game;
+import com.example.tictactoe.domain.GameStatus;
+import com.example.tictactoe.domain.Symbol;
+import com.example.tictactoe.mapper.GameMapperImpl;
+import com.example.tictactoe.repository.GameKey;
+import com.example.tictactoe.repository.GameRepository;
+import com.example.tictactoe.timer.GameClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CacheWarmUpTest {
+
+    @Mock
+    private GameRepository gameRepo;
+    @Mock
+    private GameClock clock;
+    @Mock
+    private PlatformTransactionManager txManager;
+    @Mock
+    private ObjectProvider<PgNotifyRelay> relay;
+    @Mock
+    private ObjectProvider<ClusterMembership> membership;
+
+    private VersionedGameCache cache;
+    private final List<Game> games = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cache = new VersionedGameCache(new CacheProperties(Duration.ofMinutes(1), 100, Duration.ofSeconds(1), 4, 100,
+                CacheProperties.Store.HEAP), new SimpleMeterRegistry());
+        OffsetDateTime now = OffsetDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            games.add(Game.builder().gameId(UUID.randomUUID()).status(GameStatus.IN_PROGRESS).nextTurn(Symbol.X)
+                    .createdAt(now.minusMinutes(i)).version(1L).players(List.of()).moves(new ArrayList<>()).build());
+        }
+        games.getFirst().setMoveTimeLimitMs(30_000L);
+        games.getFirst().setTurnStartedAt(now);
+        when(gameRepo.findWithPlayersByIdIn(anyCollection())).thenAnswer(inv -> {
+            Collection<UUID> ids = inv.getArgument(0);
+            return games.stream().filter(g -> ids.contains(g.getGameId())).toList();
+        });
+    }
+
+    @Test
+    void warmUp_pagesNewestFirstUpToBudgetAndReleasesReadiness() throws Exception {
+        stubPages(GameStatus.IN_PROGRESS);
+        CacheWarmUp warmUp = warmUp(2, 3);
+        assertThat(warmUp.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        warmUp.start();
+        warmUp.awaitDone();
+
+        assertThat(warmUp.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(warmUp.health().getDetails()).containsEntry("phase", CacheWarmUp.Phase.DONE).containsEntry("games", 3L);
+        for (int i = 0; i < 5; i++) {
+            assertThat(cache.getFresh(games.get(i).getGameId()) != null).isEqualTo(i < 3);
+        }
+        Game second = games.get(1);
+        verify(gameRepo).findKeysBefore(eq(GameStatus.IN_PROGRESS), any(), eq(second.getCreatedAt()),
+                eq(second.getGameId()), argThat(page -> page.getPageSize() == 1));
+        verify(gameRepo, never()).findKeysBefore(eq(GameStatus.WAITING), any(), any(), any(), any());
+        verify(clock).schedule(games.getFirst().getGameId(), games.getFirst().getTurnDeadline());
+    }
+
+    @Test
+    void failedWarmUp_leavesCacheColdButReleasesReadiness() throws Exception {
+        when(gameRepo.findKeysBefore(any(), any(), any(), any(), any())).thenThrow(new IllegalStateException("db down"));
+        CacheWarmUp warmUp = warmUp(2, 10);
+
+        warmUp.start();
+        warmUp.awaitDone();
+
+        assertThat(warmUp.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(warmUp.health().getDetails()).containsEntry("phase", CacheWarmUp.Phase.FAILED);
+    }
+
+    private void stubPages(GameStatus status) {
+        when(gameRepo.findKeysBefore(eq(status), any(), any(), any(), any(Pageable.class))).thenAnswer(inv -> {
+            OffsetDateTime afterCreatedAt = inv.getArgument(2);
+            Pageable page = inv.getArgument(4);
+            return games.stream()
+                    .filter(g -> g.getCreatedAt().isBefore(afterCreatedAt))
+                    .limit(page.getPageSize())
+                    .map(g -> new GameKey(g.getGameId(), g.getCreatedAt()))
+                    .toList();
+        });
+    }
+
+    private CacheWarmUp warmUp(int batchSize, long maxGames) {
+        var props = new WarmUpProperties(true, batchSize, 2, maxGames, Duration.ofMinutes(10), Duration.ofSeconds(10));
+        return new CacheWarmUp(gameRepo, new GameMapperImpl(), cache, clock, txManager, props, relay, membership,
+                new SimpleMeterRegistry());
+    }
+}